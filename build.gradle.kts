@@ -9,6 +9,8 @@ plugins {
     alias(libs.plugins.changelog) // Gradle Changelog Plugin
     alias(libs.plugins.kover) // Gradle Kover Plugin
     alias(libs.plugins.lombok)
+    alias(libs.plugins.jmh) // JMH benchmarks in src/jmh
+    id("java-test-fixtures") // Shared fixtures in src/testFixtures (used by benchmarks)
 }
 
 group = providers.gradleProperty("pluginGroup").get()
@@ -56,6 +58,15 @@ dependencies {
 
         testFramework(TestFrameworkType.Platform)
     }
+
+    jmhImplementation(testFixtures(project))
+}
+
+// Benchmarks and fixtures call plugin classes directly, so they need the IntelliJ Platform jars
+// (which also provide Jackson and slf4j at runtime) that the main source set only compiles against
+configurations {
+    named("testFixturesImplementation") { extendsFrom(compileOnly.get()) }
+    named("jmhImplementation") { extendsFrom(compileOnly.get()) }
 }
 
 
@@ -142,6 +153,22 @@ kover {
     }
 }
 
+// Configure JMH - read more: https://github.com/melix/jmh-gradle-plugin
+// Run `./gradlew jmh` to print throughput and allocation rate (gc.alloc.rate / gc.alloc.rate.norm) of every benchmark,
+// narrow the run with `-PjmhIncludes=<regex>`, e.g. `./gradlew jmh -PjmhIncludes=Pagination`
+jmh {
+    jmhVersion = libs.versions.jmh
+    includes = providers.gradleProperty("jmhIncludes").map { listOf(it) }.orElse(listOf(".*"))
+    benchmarkMode = listOf("thrpt")
+    timeUnit = "s"
+    fork = 1
+    warmupIterations = 3
+    iterations = 5
+    profilers = listOf("gc")
+    resultFormat = "JSON"
+    resultsFile = layout.buildDirectory.file("reports/jmh/results.json")
+}
+
 tasks {
     // Set the JVM compatibility versions
     withType<JavaCompile> {
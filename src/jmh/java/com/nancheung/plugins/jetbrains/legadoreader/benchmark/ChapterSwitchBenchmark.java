@@ -0,0 +1,105 @@
+package com.nancheung.plugins.jetbrains.legadoreader.benchmark;
+
+import cn.hutool.core.lang.TypeReference;
+import cn.hutool.core.util.URLUtil;
+import cn.hutool.json.JSONUtil;
+import com.nancheung.plugins.jetbrains.legadoreader.api.AddressEnum;
+import com.nancheung.plugins.jetbrains.legadoreader.api.LegadoHttpClient;
+import com.nancheung.plugins.jetbrains.legadoreader.api.dto.R;
+import com.nancheung.plugins.jetbrains.legadoreader.fixture.FakeLegadoServer;
+import com.nancheung.plugins.jetbrains.legadoreader.service.PaginationManager;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 章节切换端到端基准测试
+ * 对本地 Legado 服务模拟器请求正文、解码响应并分页，测量不同网络条件下切换一章的延迟分布
+ *
+ * @author NanCheung
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ChapterSwitchBenchmark {
+
+    /**
+     * 行内模式的典型页大小（字号 12 × 2）
+     */
+    private static final int INLINE_PAGE_SIZE = 24;
+
+    private static final int CHAPTER_COUNT = 1000;
+
+    /**
+     * 网络条件
+     * lan: 局域网手机；wifi: 较差的无线网络；lossy: 有丢包重试和失败响应的网络
+     */
+    @Param({"lan", "wifi", "lossy"})
+    public String network;
+
+    private FakeLegadoServer server;
+
+    private LegadoHttpClient httpClient;
+
+    private String contentUrlPrefix;
+
+    private int chapterIndex;
+
+    @Setup
+    public void setUp() throws IOException {
+        server = FakeLegadoServer.start(FakeLegadoServer.Library.builder()
+                .bookCount(1)
+                .chapterCount(CHAPTER_COUNT)
+                .chapterChars(8000)
+                .build());
+
+        server.setProfile(switch (network) {
+            case "lan" -> FakeLegadoServer.NetworkProfile.builder().latencyMillis(5).jitterMillis(5).build();
+            case "wifi" -> FakeLegadoServer.NetworkProfile.builder()
+                    .latencyMillis(40).jitterMillis(60).bytesPerSecond(512 * 1024).build();
+            case "lossy" -> FakeLegadoServer.NetworkProfile.builder()
+                    .latencyMillis(80).jitterMillis(120).bytesPerSecond(128 * 1024)
+                    .errorRate(0.02).failureResponseRate(0.02).build();
+            default -> throw new IllegalArgumentException("未知的网络条件: " + network);
+        });
+
+        httpClient = new LegadoHttpClient(() -> Duration.ofSeconds(3), () -> Duration.ofSeconds(10));
+        contentUrlPrefix = server.address() + AddressEnum.GET_BOOK_CONTENT.getAddress()
+                + "?url=" + URLUtil.encodeAll(server.bookUrl(0)) + "&index=";
+    }
+
+    @TearDown
+    public void tearDown() {
+        httpClient.dispose();
+        server.close();
+    }
+
+    /**
+     * 切换到下一章：请求正文、解码、分页并定位到第一页
+     * 注入的错误和失败响应计入延迟，与用户看到的一致
+     */
+    @Benchmark
+    public int nextChapter() throws InterruptedException {
+        chapterIndex = (chapterIndex + 1) % CHAPTER_COUNT;
+
+        String content;
+        try {
+            String textBody = httpClient.get(contentUrlPrefix + chapterIndex, Map.of());
+            R<String> r = JSONUtil.toBean(textBody, new TypeReference<>() {
+            }, true);
+            if (!Boolean.TRUE.equals(r.getIsSuccess())) {
+                return -1;
+            }
+            content = r.getData();
+        } catch (IOException e) {
+            return -1;
+        }
+
+        PaginationManager paginationManager = new PaginationManager();
+        paginationManager.paginate(content, INLINE_PAGE_SIZE);
+        return paginationManager.getTotalPages();
+    }
+}
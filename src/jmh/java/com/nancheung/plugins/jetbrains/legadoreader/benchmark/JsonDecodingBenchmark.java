@@ -0,0 +1,80 @@
+package com.nancheung.plugins.jetbrains.legadoreader.benchmark;
+
+import cn.hutool.core.lang.TypeReference;
+import cn.hutool.json.JSONUtil;
+import com.nancheung.plugins.jetbrains.legadoreader.api.ChapterListParser;
+import com.nancheung.plugins.jetbrains.legadoreader.api.dto.BookChapterDTO;
+import com.nancheung.plugins.jetbrains.legadoreader.api.dto.BookDTO;
+import com.nancheung.plugins.jetbrains.legadoreader.api.dto.R;
+import com.nancheung.plugins.jetbrains.legadoreader.fixture.LegadoFixtures;
+import com.nancheung.plugins.jetbrains.legadoreader.model.ChapterIndex;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * JSON 解码基准测试
+ * 覆盖 ApiUtil 使用的解码方式：5000 章目录（流式解析与 JSONUtil.toBean 对比）、500 本书的书架、20KB 正文
+ *
+ * @author NanCheung
+ */
+@State(Scope.Benchmark)
+public class JsonDecodingBenchmark {
+
+    private String chapterListJson;
+
+    private byte[] chapterListBytes;
+
+    private String bookshelfJson;
+
+    private String bookContentJson;
+
+    private ChapterIndex chapterListSnapshot;
+
+    @Setup
+    public void setUp() throws IOException {
+        String bookUrl = LegadoFixtures.bookUrl(0);
+        chapterListJson = LegadoFixtures.chapterListJson(bookUrl, 5000);
+        chapterListBytes = chapterListJson.getBytes(StandardCharsets.UTF_8);
+        bookshelfJson = LegadoFixtures.bookshelfJson(500);
+        bookContentJson = LegadoFixtures.bookContentJson(LegadoFixtures.chapterContent(42, 20 * 1024));
+
+        // 与完整目录只差最后 10 章的快照，模拟增量同步
+        byte[] previous = LegadoFixtures.chapterListJson(bookUrl, 4990).getBytes(StandardCharsets.UTF_8);
+        chapterListSnapshot = ChapterListParser.parse(new ByteArrayInputStream(previous));
+    }
+
+    @Benchmark
+    public ChapterIndex chapterListStreaming() throws IOException {
+        return ChapterListParser.parse(new ByteArrayInputStream(chapterListBytes));
+    }
+
+    @Benchmark
+    public ChapterIndex chapterListStreamingIncremental() throws IOException {
+        return ChapterListParser.parse(new ByteArrayInputStream(chapterListBytes), chapterListSnapshot);
+    }
+
+    @Benchmark
+    public List<BookChapterDTO> chapterListToBean() {
+        R<List<BookChapterDTO>> r = JSONUtil.toBean(chapterListJson, new TypeReference<>() {
+        }, true);
+        return r.getData();
+    }
+
+    @Benchmark
+    public List<BookDTO> bookshelfToBean() {
+        R<List<BookDTO>> r = JSONUtil.toBean(bookshelfJson, new TypeReference<>() {
+        }, true);
+        return r.getData();
+    }
+
+    @Benchmark
+    public String bookContentToBean() {
+        R<String> r = JSONUtil.toBean(bookContentJson, new TypeReference<>() {
+        }, true);
+        return r.getData();
+    }
+}
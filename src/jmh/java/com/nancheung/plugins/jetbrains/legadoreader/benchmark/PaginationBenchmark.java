@@ -0,0 +1,66 @@
+package com.nancheung.plugins.jetbrains.legadoreader.benchmark;
+
+import com.nancheung.plugins.jetbrains.legadoreader.fixture.LegadoFixtures;
+import com.nancheung.plugins.jetbrains.legadoreader.service.IPaginationManager;
+import com.nancheung.plugins.jetbrains.legadoreader.service.PaginationManager;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * 分页基准测试
+ * 使用约 20KB、夹杂 emoji 的中文章节，分别测量按字符数分页、按宽度分页和逐页翻阅的吞吐量与分配
+ *
+ * @author NanCheung
+ */
+@State(Scope.Thread)
+public class PaginationBenchmark {
+
+    /**
+     * 行内模式的典型页大小（字号 12 × 2）
+     */
+    private static final int INLINE_PAGE_SIZE = 24;
+
+    /**
+     * 行内模式的典型可用宽度（像素）
+     */
+    private static final int INLINE_MAX_WIDTH = 640;
+
+    /**
+     * 模拟等宽编辑器字体：全角字符占两个半角宽度
+     */
+    private static final IPaginationManager.TextMeasurer MEASURER =
+            codePoint -> codePoint < 0x1100 ? 7 : 14;
+
+    private PaginationManager paginationManager;
+
+    private String content;
+
+    @Setup
+    public void setUp() {
+        paginationManager = new PaginationManager();
+        content = LegadoFixtures.chapterContent(42, 20 * 1024);
+    }
+
+    @Benchmark
+    public int paginateByChars() {
+        paginationManager.paginate(content, INLINE_PAGE_SIZE);
+        return paginationManager.getTotalPages();
+    }
+
+    @Benchmark
+    public int paginateByWidth() {
+        paginationManager.paginate(content, MEASURER, INLINE_MAX_WIDTH);
+        return paginationManager.getTotalPages();
+    }
+
+    @Benchmark
+    public void paginateAndFlipAllPages(Blackhole blackhole) {
+        paginationManager.paginate(content, INLINE_PAGE_SIZE);
+
+        IPaginationManager.PageData page = paginationManager.goToFirstPage();
+        while (page != null) {
+            blackhole.consume(page.formatForDisplay());
+            page = paginationManager.nextPage();
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.nancheung.plugins.jetbrains.legadoreader.editorline;
+
+import com.intellij.openapi.editor.LineExtensionInfo;
+import com.intellij.testFramework.LightVirtualFile;
+import com.nancheung.plugins.jetbrains.legadoreader.fixture.LegadoFixtures;
+import com.nancheung.plugins.jetbrains.legadoreader.service.PaginationManager;
+import org.openjdk.jmh.annotations.*;
+
+import java.awt.*;
+import java.util.Collection;
+
+/**
+ * 行内渲染基准测试
+ * ReaderEditorLinePainter 对每个可见行调用 InlineRenderState.Snapshot#extensionsFor，
+ * 分别测量目标行、非目标行的调用开销，以及翻页时重建快照的开销
+ * <p>
+ * 与 InlineRenderState 位于同一个包，直接调用其构建快照的方法
+ *
+ * @author NanCheung
+ */
+@State(Scope.Thread)
+public class LinePaintingBenchmark {
+
+    /**
+     * 光标所在行
+     */
+    private static final int CARET_LINE = 120;
+
+    private LightVirtualFile file;
+
+    private InlineRenderState.Snapshot snapshot;
+
+    private PaginationManager paginationManager;
+
+    private int line;
+
+    @Setup
+    public void setUp() {
+        file = new LightVirtualFile("Benchmark.java", "");
+
+        paginationManager = new PaginationManager();
+        paginationManager.paginate(LegadoFixtures.chapterContent(42, 20 * 1024), 24);
+
+        snapshot = rebuildSnapshot();
+    }
+
+    /**
+     * 一屏约 60 行，依次模拟每个可见行的调用，其中只有一行是目标行
+     */
+    @Benchmark
+    public Collection<LineExtensionInfo> visibleLines() {
+        line = line >= CARET_LINE + 30 ? CARET_LINE - 30 : line + 1;
+        return snapshot.extensionsFor(file, line);
+    }
+
+    @Benchmark
+    public Collection<LineExtensionInfo> caretLine() {
+        return snapshot.extensionsFor(file, CARET_LINE);
+    }
+
+    /**
+     * InlineRenderState#rebuild 的构建过程（不含服务查找）
+     */
+    @Benchmark
+    public InlineRenderState.Snapshot rebuildSnapshot() {
+        return InlineRenderState.buildSnapshot(paginationManager.getCurrentPage(), Color.GRAY, file, CARET_LINE);
+    }
+}
@@ -0,0 +1,25 @@
+package com.nancheung.plugins.jetbrains.legadoreader.action;
+
+import com.intellij.openapi.actionSystem.ActionUpdateThread;
+import com.intellij.openapi.actionSystem.AnAction;
+import com.intellij.openapi.actionSystem.AnActionEvent;
+import com.nancheung.plugins.jetbrains.legadoreader.gui.LatencyDiagnosticsDialog;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * 打开延迟诊断对话框
+ *
+ * @author NanCheung
+ */
+public class ShowLatencyDiagnosticsAction extends AnAction {
+
+    @Override
+    public void actionPerformed(@NotNull AnActionEvent e) {
+        new LatencyDiagnosticsDialog(e.getProject()).show();
+    }
+
+    @Override
+    public @NotNull ActionUpdateThread getActionUpdateThread() {
+        return ActionUpdateThread.BGT;
+    }
+}
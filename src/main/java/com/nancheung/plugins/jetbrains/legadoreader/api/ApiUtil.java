@@ -2,18 +2,20 @@ package com.nancheung.plugins.jetbrains.legadoreader.api;
 
 import cn.hutool.core.lang.TypeReference;
 import cn.hutool.core.util.URLUtil;
-import cn.hutool.http.HttpResponse;
-import cn.hutool.http.HttpUtil;
 import cn.hutool.json.JSONUtil;
-import com.nancheung.plugins.jetbrains.legadoreader.api.dto.BookChapterDTO;
 import com.nancheung.plugins.jetbrains.legadoreader.api.dto.BookDTO;
 import com.nancheung.plugins.jetbrains.legadoreader.api.dto.BookProgressDTO;
 import com.nancheung.plugins.jetbrains.legadoreader.api.dto.R;
 import com.nancheung.plugins.jetbrains.legadoreader.manager.ReadingSessionManager;
+import com.nancheung.plugins.jetbrains.legadoreader.model.ChapterIndex;
 import com.nancheung.plugins.jetbrains.legadoreader.storage.AddressHistoryStorage;
+import com.nancheung.plugins.jetbrains.legadoreader.storage.ChapterContentCache;
+import com.nancheung.plugins.jetbrains.legadoreader.storage.OfflineBookStorage;
 import com.nancheung.plugins.jetbrains.legadoreader.storage.PluginSettingsStorage;
 import lombok.experimental.UtilityClass;
+import org.jetbrains.annotations.Nullable;
 
+import java.io.InputStream;
 import java.util.List;
 
 /**
@@ -40,11 +42,35 @@ public class ApiUtil {
 
     /**
      * 获取正文内容
+     * 优先读取已下载的离线书籍，其次读取本地磁盘缓存，都未命中时调用API并写入缓存
      *
      * @return 正文内容
      */
     public String getBookContent(String bookUrl, int bookIndex) {
-        // 调用API获取正文内容
+        String offline = OfflineBookStorage.getInstance().loadContent(bookUrl, bookIndex);
+        if (offline != null) {
+            return offline;
+        }
+
+        String address = AddressHistoryStorage.getInstance().getMostRecent();
+        ChapterContentCache cache = ChapterContentCache.getInstance();
+
+        String cached = cache.get(address, bookUrl, bookIndex);
+        if (cached != null) {
+            return cached;
+        }
+
+        String content = fetchBookContent(bookUrl, bookIndex);
+        cache.put(address, bookUrl, bookIndex, content);
+        return content;
+    }
+
+    /**
+     * 调用API获取正文内容（不读写缓存）
+     *
+     * @return 正文内容
+     */
+    public String fetchBookContent(String bookUrl, int bookIndex) {
         String url = AddressHistoryStorage.getInstance().getMostRecent() + AddressEnum.GET_BOOK_CONTENT.getAddress() + "?url=" + URLUtil.encodeAll(bookUrl) + "&index=" + bookIndex;
 
         R<String> r = get(url, new TypeReference<>() {
@@ -55,26 +81,39 @@ public class ApiUtil {
 
     /**
      * 获取章节目录列表
+     * 响应以流的方式直接解码为紧凑目录，不构建完整的响应字符串
      *
      * @return 章节目录列表
      */
-    public List<BookChapterDTO> getChapterList(String bookUrl) {
+    public ChapterIndex getChapterList(String bookUrl) {
+        return getChapterList(bookUrl, null);
+    }
+
+    /**
+     * 获取章节目录列表，复用已有目录中未变化的前缀
+     *
+     * @param bookUrl 书籍 url
+     * @param base    已有目录（可能为 null）
+     * @return 章节目录列表
+     */
+    public ChapterIndex getChapterList(String bookUrl, @Nullable ChapterIndex base) {
         // 调用API获取书架目录
         String url = AddressHistoryStorage.getInstance().getMostRecent() + AddressEnum.GET_CHAPTER_LIST.getAddress() + "?url=" + URLUtil.encodeAll(bookUrl);
 
-        R<List<BookChapterDTO>> r = get(url, new TypeReference<>() {
-        });
-
-        return r.getData();
+        try (InputStream in = LegadoHttpClient.getInstance().getStream(url, PluginSettingsStorage.getInstance().getApiCustomParam())) {
+            return ChapterListParser.parse(in, base);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(String.format("\n%s：%s\n", "调用API被中断", url), e);
+        } catch (Exception e) {
+            throw new RuntimeException(String.format("\n%s：%s\n参数：\n%s\n", "调用API失败", url, PluginSettingsStorage.getInstance().getApiCustomParam()), e);
+        }
     }
 
     /**
      * 保存阅读进度
      */
     public void saveBookProgress(String author, String name, int index, String title, int durChapterPos) {
-        // 调用API获取书架目录
-        String url = AddressHistoryStorage.getInstance().getMostRecent() + AddressEnum.SAVE_BOOK_PROGRESS.getAddress();
-
         BookProgressDTO bookProgressDTO = BookProgressDTO.builder()
                 .author(author)
                 .name(name)
@@ -86,8 +125,25 @@ public class ApiUtil {
                 .index(index)
                 .build();
 
-        post(url, bookProgressDTO, new TypeReference<>() {
+        saveBookProgress(bookProgressDTO);
+    }
+
+    /**
+     * 保存阅读进度
+     *
+     * @param bookProgressDTO 阅读进度
+     * @throws RuntimeException 调用失败或服务端返回失败
+     */
+    public void saveBookProgress(BookProgressDTO bookProgressDTO) {
+        // 调用API保存阅读进度
+        String url = AddressHistoryStorage.getInstance().getMostRecent() + AddressEnum.SAVE_BOOK_PROGRESS.getAddress();
+
+        R<Object> r = post(url, bookProgressDTO, new TypeReference<>() {
         });
+
+        if (r != null && Boolean.FALSE.equals(r.getIsSuccess())) {
+            throw new RuntimeException(String.format("\n%s：%s\n%s\n", "保存阅读进度失败", url, r.getErrorMsg()));
+        }
     }
 
 
@@ -95,7 +151,10 @@ public class ApiUtil {
         String textBody;
 
         try {
-            textBody = HttpUtil.get(url, PluginSettingsStorage.getInstance().getApiCustomParam());
+            textBody = LegadoHttpClient.getInstance().get(url, PluginSettingsStorage.getInstance().getApiCustomParam());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(String.format("\n%s：%s\n", "调用API被中断", url), e);
         } catch (Exception e) {
             throw new RuntimeException(String.format("\n%s：%s\n参数：\n%s\n", "调用API失败", url, PluginSettingsStorage.getInstance().getApiCustomParam()), e);
         }
@@ -105,11 +164,11 @@ public class ApiUtil {
 
     private <R> R post(String url, Object body, TypeReference<R> typeReference) {
         String textBody;
-        try (HttpResponse execute = HttpUtil.createPost(url)
-                .form(PluginSettingsStorage.getInstance().getApiCustomParam())
-                .body(JSONUtil.toJsonStr(body))
-                .execute()) {
-            textBody = execute.body();
+        try {
+            textBody = LegadoHttpClient.getInstance().post(url, JSONUtil.toJsonStr(body));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(String.format("\n%s：%s\n", "调用API被中断", url), e);
         } catch (Exception e) {
             throw new RuntimeException(String.format("\n%s：%s\n参数：\n%s\n%s\n", "调用API失败", url, PluginSettingsStorage.getInstance().getApiCustomParam(), body), e);
         }
@@ -0,0 +1,149 @@
+package com.nancheung.plugins.jetbrains.legadoreader.api;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.nancheung.plugins.jetbrains.legadoreader.model.ChapterIndex;
+import lombok.experimental.UtilityClass;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * 章节目录流式解析器
+ * 使用 Jackson 流式 API 直接将 /getChapterList 响应解码为 {@link ChapterIndex}，
+ * 不构建完整的响应字符串，也不为每个章节创建 DTO
+ *
+ * @author NanCheung
+ */
+@UtilityClass
+public class ChapterListParser {
+
+    private final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    /**
+     * 解析章节目录响应
+     *
+     * @param in 响应正文（由调用方关闭）
+     * @return 章节目录
+     * @throws IOException 读取失败、格式错误或服务端返回失败
+     */
+    public ChapterIndex parse(InputStream in) throws IOException {
+        return parse(in, null);
+    }
+
+    /**
+     * 解析章节目录响应，复用已有目录中未变化的前缀
+     * 从头开始逐章比较完整的章节（标题、url 等所有字段），相同的章节解码后立即丢弃，最终结果由已有目录的前缀和变化的尾部拼接而成
+     *
+     * @param in   响应正文（由调用方关闭）
+     * @param base 已有目录（可能为 null）
+     * @return 章节目录
+     * @throws IOException 读取失败、格式错误或服务端返回失败
+     */
+    public ChapterIndex parse(InputStream in, @Nullable ChapterIndex base) throws IOException {
+        try (JsonParser parser = JSON_FACTORY.createParser(in)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("章节目录响应格式错误");
+            }
+
+            ChapterIndex chapters = null;
+            String errorMsg = null;
+
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+
+                switch (field) {
+                    case "data" -> {
+                        if (value == JsonToken.START_ARRAY) {
+                            chapters = readChapters(parser, base);
+                        } else {
+                            parser.skipChildren();
+                        }
+                    }
+                    case "errorMsg" -> errorMsg = value == JsonToken.VALUE_STRING ? parser.getText() : null;
+                    default -> parser.skipChildren();
+                }
+            }
+
+            if (chapters == null) {
+                throw new IOException(errorMsg != null && !errorMsg.isEmpty() ? errorMsg : "响应中没有章节目录");
+            }
+            return chapters;
+        }
+    }
+
+    /**
+     * 读取章节数组，解析器位于 START_ARRAY
+     * 跳过 null 元素；其他非对象元素或数组未结束时视为格式错误，不返回截断的目录
+     */
+    private ChapterIndex readChapters(JsonParser parser, @Nullable ChapterIndex base) throws IOException {
+        ChapterIndex.Builder builder = new ChapterIndex.Builder();
+        int matched = 0;
+        boolean diverged = base == null;
+
+        for (JsonToken token = parser.nextToken(); token != JsonToken.END_ARRAY; token = parser.nextToken()) {
+            if (token == JsonToken.VALUE_NULL) {
+                continue;
+            }
+            if (token != JsonToken.START_OBJECT) {
+                throw new IOException("章节目录格式错误: " + (token != null ? token : "响应不完整"));
+            }
+
+            builder.begin();
+            readChapter(parser, builder);
+
+            if (!diverged && matched < base.size() && builder.currentEquals(base, matched)) {
+                // 与已有目录相同，直接复用
+                builder.discard();
+                matched++;
+            } else {
+                diverged = true;
+                builder.end();
+            }
+        }
+
+        return base != null ? builder.build(base, matched) : builder.build();
+    }
+
+    /**
+     * 读取单个章节，解析器位于 START_OBJECT
+     * 文本字段直接从解析器的字符缓冲区复制，不创建中间字符串
+     */
+    private void readChapter(JsonParser parser, ChapterIndex.Builder builder) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+
+            switch (field) {
+                case "title" -> readText(parser, value, builder, ChapterIndex.TITLE);
+                case "url" -> readText(parser, value, builder, ChapterIndex.URL);
+                case "baseUrl" -> readText(parser, value, builder, ChapterIndex.BASE_URL);
+                case "tag" -> readText(parser, value, builder, ChapterIndex.TAG);
+                case "index" -> {
+                    if (value == JsonToken.VALUE_NUMBER_INT) {
+                        builder.index(parser.getIntValue());
+                    }
+                }
+                case "isVolume" -> builder.volume(value == JsonToken.VALUE_TRUE);
+                case "isPay" -> builder.pay(value == JsonToken.VALUE_TRUE);
+                case "isVip" -> builder.vip(value == JsonToken.VALUE_TRUE);
+                case "bookUrl" -> {
+                    // 所有章节的 bookUrl 相同，只保留第一个
+                    if (value == JsonToken.VALUE_STRING && !builder.hasBookUrl()) {
+                        builder.bookUrl(parser.getText());
+                    }
+                }
+                default -> parser.skipChildren();
+            }
+        }
+    }
+
+    private void readText(JsonParser parser, JsonToken value, ChapterIndex.Builder builder, int field) throws IOException {
+        if (value == JsonToken.VALUE_STRING) {
+            builder.text(field, parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength());
+        }
+    }
+}
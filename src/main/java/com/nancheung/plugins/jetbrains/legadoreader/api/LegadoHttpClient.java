@@ -0,0 +1,216 @@
+package com.nancheung.plugins.jetbrains.legadoreader.api;
+
+import cn.hutool.http.HttpUtil;
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.components.Service;
+import com.nancheung.plugins.jetbrains.legadoreader.service.ReaderExecutorService;
+import com.nancheung.plugins.jetbrains.legadoreader.storage.PluginSettingsStorage;
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+/**
+ * Legado 服务 HTTP 客户端（Application Service）
+ * 基于 java.net.http.HttpClient，复用 keep-alive 连接，避免每次请求重新建立 TCP 连接
+ *
+ * @author NanCheung
+ */
+@Slf4j
+@Service
+public final class LegadoHttpClient implements Disposable {
+
+    /**
+     * HttpClient 内部异步任务（收发数据、完成响应）使用的执行器，为 null 时使用 HttpClient 默认的执行器
+     */
+    @Nullable
+    private final Executor executor;
+
+    /**
+     * 连接超时
+     */
+    private final Supplier<Duration> connectTimeout;
+
+    /**
+     * 读取超时
+     */
+    private final Supplier<Duration> readTimeout;
+
+    /**
+     * 当前使用的客户端（连接超时变化时重建）
+     */
+    private volatile HttpClient client;
+
+    /**
+     * 当前客户端的连接超时
+     */
+    private volatile Duration clientConnectTimeout;
+
+    /**
+     * 构造函数（由 IntelliJ Platform 调用）
+     * 超时时间从插件设置中读取，修改设置后立即生效
+     */
+    public LegadoHttpClient() {
+        // 内部任务不阻塞，使用插件的 cpu 通道；不能使用 io 通道：
+        // 发起请求的 io 线程同步等待响应，占满 io 通道时完成响应的任务无法执行
+        this(() -> PluginSettingsStorage.getInstance().getApiConnectTimeout(),
+                () -> PluginSettingsStorage.getInstance().getApiReadTimeout(),
+                ReaderExecutorService.getInstance().cpu());
+    }
+
+    /**
+     * 构造函数（使用 HttpClient 默认的执行器）
+     *
+     * @param connectTimeout 连接超时
+     * @param readTimeout    读取超时
+     */
+    public LegadoHttpClient(Supplier<Duration> connectTimeout, Supplier<Duration> readTimeout) {
+        this(connectTimeout, readTimeout, null);
+    }
+
+    /**
+     * 构造函数
+     *
+     * @param connectTimeout 连接超时
+     * @param readTimeout    读取超时
+     * @param executor       HttpClient 内部异步任务使用的执行器（由调用方管理生命周期），为 null 时使用默认执行器
+     */
+    public LegadoHttpClient(Supplier<Duration> connectTimeout, Supplier<Duration> readTimeout, @Nullable Executor executor) {
+        this.connectTimeout = connectTimeout;
+        this.readTimeout = readTimeout;
+        this.executor = executor;
+    }
+
+    /**
+     * 获取服务实例
+     *
+     * @return 服务实例
+     */
+    public static LegadoHttpClient getInstance() {
+        return ApplicationManager.getApplication().getService(LegadoHttpClient.class);
+    }
+
+    /**
+     * 发送 GET 请求
+     *
+     * @param url    请求地址
+     * @param params 附加到查询串的参数
+     * @return 响应正文
+     */
+    public String get(String url, Map<String, Object> params) throws IOException, InterruptedException {
+        HttpRequest request = newRequest(url, params)
+                .GET()
+                .build();
+
+        return send(request);
+    }
+
+    /**
+     * 发送 GET 请求，以流的形式返回响应正文
+     * 适用于需要流式解析的大响应（如章节目录）
+     *
+     * @param url    请求地址
+     * @param params 附加到查询串的参数
+     * @return 响应正文流（由调用方关闭）
+     */
+    public InputStream getStream(String url, Map<String, Object> params) throws IOException, InterruptedException {
+        HttpRequest request = newRequest(url, params)
+                .GET()
+                .build();
+
+        HttpResponse<InputStream> response = client().send(request, HttpResponse.BodyHandlers.ofInputStream());
+
+        if (response.statusCode() >= 400) {
+            try (InputStream body = response.body()) {
+                throw new IOException("HTTP " + response.statusCode() + "：" + new String(body.readAllBytes(), StandardCharsets.UTF_8));
+            }
+        }
+        return response.body();
+    }
+
+    /**
+     * 发送 JSON 正文的 POST 请求
+     * 只发送正文，不附加自定义参数（与原先正文覆盖表单参数的行为一致）
+     *
+     * @param url      请求地址
+     * @param jsonBody JSON 正文
+     * @return 响应正文
+     */
+    public String post(String url, String jsonBody) throws IOException, InterruptedException {
+        HttpRequest request = newRequest(url, Map.of())
+                .header("Content-Type", "application/json;charset=UTF-8")
+                .POST(HttpRequest.BodyPublishers.ofString(jsonBody, StandardCharsets.UTF_8))
+                .build();
+
+        return send(request);
+    }
+
+    private HttpRequest.Builder newRequest(String url, Map<String, Object> params) {
+        String fullUrl = params.isEmpty() ? url : HttpUtil.urlWithForm(url, params, StandardCharsets.UTF_8, false);
+
+        return HttpRequest.newBuilder(URI.create(fullUrl))
+                .timeout(readTimeout.get());
+    }
+
+    private String send(HttpRequest request) throws IOException, InterruptedException {
+        HttpResponse<String> response = client().send(request, HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8));
+
+        if (response.statusCode() >= 400) {
+            throw new IOException("HTTP " + response.statusCode() + "：" + response.body());
+        }
+        return response.body();
+    }
+
+    /**
+     * 获取客户端，连接超时变化时重建
+     * 旧客户端上的连接会在空闲超时后自动关闭
+     */
+    private HttpClient client() {
+        Duration timeout = connectTimeout.get();
+        HttpClient current = client;
+        if (current != null && timeout.equals(clientConnectTimeout)) {
+            return current;
+        }
+
+        synchronized (this) {
+            if (client == null || !timeout.equals(clientConnectTimeout)) {
+                // Legado 内置的是明文 HTTP 服务，不支持 h2c 升级，直接使用 HTTP/1.1 长连接
+                HttpClient.Builder builder = HttpClient.newBuilder()
+                        .version(HttpClient.Version.HTTP_1_1)
+                        .connectTimeout(timeout)
+                        .followRedirects(HttpClient.Redirect.NORMAL);
+                if (executor != null) {
+                    builder.executor(executor);
+                }
+                client = builder.build();
+                clientConnectTimeout = timeout;
+                log.debug("创建 HTTP 客户端，连接超时 {}", timeout);
+            }
+            return client;
+        }
+    }
+
+    /**
+     * 关闭客户端（由 IntelliJ Platform 在应用关闭时自动调用）
+     * 执行器属于 {@link ReaderExecutorService}，随其关闭
+     */
+    @Override
+    public void dispose() {
+        HttpClient current = client;
+        if (current != null) {
+            current.shutdownNow();
+        }
+        log.debug("LegadoHttpClient 已关闭");
+    }
+}
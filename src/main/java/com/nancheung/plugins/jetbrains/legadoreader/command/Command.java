@@ -1,10 +1,9 @@
 package com.nancheung.plugins.jetbrains.legadoreader.command;
 
 import com.nancheung.plugins.jetbrains.legadoreader.command.payload.CommandPayload;
+import com.nancheung.plugins.jetbrains.legadoreader.common.IdSequence;
 import org.jetbrains.annotations.Nullable;
 
-import java.util.UUID;
-
 /**
  * 用户指令（不可变）
  * 封装用户发起的操作及其参数
@@ -16,7 +15,7 @@ import java.util.UUID;
  * @author NanCheung
  */
 public record Command(
-        String id,
+        long id,
         CommandType type,
         @Nullable CommandPayload payload,
         long timestamp
@@ -29,7 +28,7 @@ public record Command(
      */
     public static Command of(CommandType type) {
         return new Command(
-                UUID.randomUUID().toString(),
+                IdSequence.next(),
                 type,
                 null,
                 System.currentTimeMillis()
@@ -45,7 +44,7 @@ public record Command(
      */
     public static Command of(CommandType type, CommandPayload payload) {
         return new Command(
-                UUID.randomUUID().toString(),
+                IdSequence.next(),
                 type,
                 payload,
                 System.currentTimeMillis()
@@ -5,6 +5,8 @@ import com.intellij.openapi.components.Service;
 import com.nancheung.plugins.jetbrains.legadoreader.command.handler.CommandHandler;
 import com.nancheung.plugins.jetbrains.legadoreader.event.CommandEvent;
 import com.nancheung.plugins.jetbrains.legadoreader.event.EventPublisher;
+import com.nancheung.plugins.jetbrains.legadoreader.metrics.LatencyMetrics;
+import com.nancheung.plugins.jetbrains.legadoreader.service.ReaderExecutorService;
 import lombok.extern.slf4j.Slf4j;
 
 import java.util.concurrent.CompletableFuture;
@@ -22,6 +24,7 @@ public final class CommandBus {
 
     private final EventPublisher eventPublisher;
     private final CommandHandlerRegistry registry;
+    private final LatencyMetrics latencyMetrics;
 
     /**
      * 获取单例实例
@@ -36,6 +39,7 @@ public final class CommandBus {
     public CommandBus() {
         this.eventPublisher = EventPublisher.getInstance();
         this.registry = CommandHandlerRegistry.getInstance();
+        this.latencyMetrics = LatencyMetrics.getInstance();
     }
 
     /**
@@ -58,12 +62,13 @@ public final class CommandBus {
 
     /**
      * 异步分发指令
-     * 指令分发本身在后台线程执行
+     * 指令分发本身在插件的 io 线程中执行（处理器可能同步调用接口）
      *
      * @param command 指令对象
      */
     public void dispatchAsync(Command command) {
-        CompletableFuture.runAsync(() -> dispatch(command));
+        latencyMetrics.queued(command);
+        CompletableFuture.runAsync(() -> dispatch(command), ReaderExecutorService.getInstance().io());
     }
 
     /**
@@ -77,7 +82,8 @@ public final class CommandBus {
             return;
         }
 
-        // 2. 发布指令开始事件
+        // 2. 发布指令开始事件（同时记录排队耗时）
+        latencyMetrics.started(command);
         eventPublisher.publish(CommandEvent.started(command));
 
         try {
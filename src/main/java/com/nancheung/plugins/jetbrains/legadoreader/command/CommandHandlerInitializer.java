@@ -6,6 +6,9 @@ import com.intellij.openapi.startup.ProjectActivity;
 import com.intellij.openapi.startup.StartupActivity;
 import com.nancheung.plugins.jetbrains.legadoreader.command.handler.*;
 import com.nancheung.plugins.jetbrains.legadoreader.editorline.EditorLineReaderService;
+import com.nancheung.plugins.jetbrains.legadoreader.editorline.InlineRenderState;
+import com.nancheung.plugins.jetbrains.legadoreader.service.ChapterPrefetchService;
+import com.nancheung.plugins.jetbrains.legadoreader.service.ProgressSyncService;
 import kotlin.Unit;
 import kotlin.coroutines.Continuation;
 import lombok.extern.slf4j.Slf4j;
@@ -55,7 +58,17 @@ public class CommandHandlerInitializer implements ProjectActivity {
 
         log.info("开始注册指令处理器...");
 
-        new EditorLineReaderService();
+        // 行内阅读（订阅章节和分页事件）
+        EditorLineReaderService.getInstance();
+
+        // 行内阅读渲染快照（订阅设置变更和光标移动）
+        InlineRenderState.getInstance();
+
+        // 章节预加载（订阅章节加载事件）
+        ChapterPrefetchService.getInstance();
+
+        // 阅读进度同步（提交上次未同步完成的进度）
+        ProgressSyncService.getInstance();
 
         // ========== 章节切换处理器 ==========
         registry.register(new NextChapterHandler());
@@ -67,6 +80,7 @@ public class CommandHandlerInitializer implements ProjectActivity {
 
         // ========== 书籍选择处理器 ==========
         registry.register(new SelectBookHandler());
+        registry.register(new DownloadBookHandler());
 
         // ========== 会话管理处理器 ==========
         registry.register(new BackToBookshelfHandler());
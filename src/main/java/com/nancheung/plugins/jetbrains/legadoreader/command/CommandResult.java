@@ -14,7 +14,7 @@ import org.jetbrains.annotations.Nullable;
  * @author NanCheung
  */
 public record CommandResult(
-        String commandId,
+        long commandId,
         CommandType commandType,
         ExecutionStatus status,
         @Nullable Object data,
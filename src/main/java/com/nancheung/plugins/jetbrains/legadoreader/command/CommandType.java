@@ -18,6 +18,11 @@ public enum CommandType {
      */
     REFRESH_BOOKSHELF("刷新书架"),
 
+    /**
+     * 下载整本书籍（离线阅读）
+     */
+    DOWNLOAD_BOOK("下载书籍"),
+
     // ========== 阅读指令 ==========
     /**
      * 选择书籍进入阅读（从书架点击）
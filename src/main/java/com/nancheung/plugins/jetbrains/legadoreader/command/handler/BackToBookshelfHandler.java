@@ -7,6 +7,7 @@ import com.nancheung.plugins.jetbrains.legadoreader.event.CommandEvent;
 import com.nancheung.plugins.jetbrains.legadoreader.event.EventPublisher;
 import com.nancheung.plugins.jetbrains.legadoreader.event.ReadingEvent;
 import com.nancheung.plugins.jetbrains.legadoreader.manager.ReadingSessionManager;
+import com.nancheung.plugins.jetbrains.legadoreader.service.ChapterLoadCoordinator;
 import com.nancheung.plugins.jetbrains.legadoreader.service.PaginationManager;
 import com.nancheung.plugins.jetbrains.legadoreader.service.ReadingSessionStateMachine;
 import lombok.extern.slf4j.Slf4j;
@@ -34,6 +35,9 @@ public class BackToBookshelfHandler implements CommandHandler<CommandPayload> {
 
         log.info("返回书架，结束阅读会话");
 
+        // 0. 取消正在进行的章节加载
+        ChapterLoadCoordinator.getInstance().cancelAll();
+
         // 1. 发布会话结束事件
         publisher.publish(ReadingEvent.sessionEnded(command.id()));
 
@@ -0,0 +1,170 @@
+package com.nancheung.plugins.jetbrains.legadoreader.command.handler;
+
+import com.nancheung.plugins.jetbrains.legadoreader.api.dto.BookChapterDTO;
+import com.nancheung.plugins.jetbrains.legadoreader.api.dto.BookDTO;
+import com.nancheung.plugins.jetbrains.legadoreader.command.Command;
+import com.nancheung.plugins.jetbrains.legadoreader.command.payload.CommandPayload;
+import com.nancheung.plugins.jetbrains.legadoreader.event.CommandEvent;
+import com.nancheung.plugins.jetbrains.legadoreader.event.EventPublisher;
+import com.nancheung.plugins.jetbrains.legadoreader.event.ReadingEvent;
+import com.nancheung.plugins.jetbrains.legadoreader.manager.ReadingSessionManager;
+import com.nancheung.plugins.jetbrains.legadoreader.metrics.LatencyMetrics;
+import com.nancheung.plugins.jetbrains.legadoreader.metrics.LatencyStage;
+import com.nancheung.plugins.jetbrains.legadoreader.model.ReadingSession;
+import com.nancheung.plugins.jetbrains.legadoreader.model.ReadingSessionState;
+import com.nancheung.plugins.jetbrains.legadoreader.service.ChapterLoadCoordinator;
+import com.nancheung.plugins.jetbrains.legadoreader.service.ChapterPrefetchService;
+import com.nancheung.plugins.jetbrains.legadoreader.service.ProgressSyncService;
+import com.nancheung.plugins.jetbrains.legadoreader.service.ReaderExecutorService;
+import com.nancheung.plugins.jetbrains.legadoreader.storage.PluginSettingsStorage;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.List;
+import java.util.concurrent.Future;
+
+/**
+ * 相对章节跳转（上一章、下一章）指令处理器的公共实现
+ * 加载期间收到新的跳转指令时，新指令取代正在进行的加载，以其目标章节为基准继续跳转，
+ * 被取代的指令发布"指令取消"事件，不再修改会话
+ *
+ * @author NanCheung
+ */
+@Slf4j
+public abstract class ChapterNavigationHandler implements CommandHandler<CommandPayload> {
+
+    /**
+     * 跳转的章节数（下一章为 1，上一章为 -1）
+     */
+    protected abstract int step();
+
+    /**
+     * 章节切换方向
+     */
+    protected abstract ReadingEvent.Direction direction();
+
+    /**
+     * 已到达边界时的提示
+     */
+    protected abstract String boundaryMessage();
+
+    @Override
+    public void handle(Command command) {
+        ReadingSessionManager sessionManager = ReadingSessionManager.getInstance();
+        ChapterLoadCoordinator coordinator = ChapterLoadCoordinator.getInstance();
+        EventPublisher publisher = EventPublisher.getInstance();
+
+        ReadingSession session = sessionManager.getSession();
+
+        // 1. 前置检查：是否有当前阅读会话
+        if (session == null) {
+            publisher.publish(CommandEvent.failed(command, "没有当前阅读会话"));
+            return;
+        }
+
+        // 2. 前置检查：是否已到达边界（正在加载时以其目标为基准）
+        int currentIndex = session.currentChapterIndex();
+        int chapterCount = session.chapters().size();
+        int expectedTarget = coordinator.baseIndex(currentIndex) + step();
+        if (expectedTarget < 0 || expectedTarget >= chapterCount) {
+            publisher.publish(CommandEvent.failed(command, boundaryMessage()));
+            return;
+        }
+
+        // 3. 状态转换到 LOADING 并登记加载（取代并取消正在进行的加载）
+        ChapterLoadCoordinator.ChapterLoad load = coordinator.begin(
+                command.id(), currentIndex, index -> index + step(), chapterCount);
+        if (load == null) {
+            publisher.publish(CommandEvent.failed(command, "当前状态不允许切换章节"));
+            return;
+        }
+
+        // 4. 准备数据
+        int targetIndex = load.targetIndex();
+        BookDTO book = session.book();
+        BookChapterDTO tempChapter = new BookChapterDTO();
+        tempChapter.setIndex(targetIndex);
+
+        log.info("开始切换章节: {} -> {}", currentIndex, targetIndex);
+
+        // 5. 发布"章节加载开始"事件
+        publisher.publish(ReadingEvent.chapterLoading(command.id(), book, tempChapter, direction()));
+
+        // 6. 异步加载数据（使用可中断的任务，被取代时取消请求）
+        Future<?> task = ReaderExecutorService.getInstance().io().submit(
+                () -> load(command, load, session, tempChapter));
+        coordinator.attach(load, task);
+    }
+
+    private void load(Command command, ChapterLoadCoordinator.ChapterLoad load, ReadingSession session, BookChapterDTO tempChapter) {
+        ReadingSessionManager sessionManager = ReadingSessionManager.getInstance();
+        ChapterLoadCoordinator coordinator = ChapterLoadCoordinator.getInstance();
+        EventPublisher publisher = EventPublisher.getInstance();
+
+        int targetIndex = load.targetIndex();
+        BookDTO book = session.book();
+
+        try {
+            // 6.1 获取章节和内容
+            List<BookChapterDTO> chapters = session.chapters();
+            BookChapterDTO chapter = chapters.get(targetIndex);
+            String content;
+            try (LatencyMetrics.Timer ignored = LatencyMetrics.getInstance().start(command.id(), LatencyStage.NETWORK)) {
+                content = ChapterPrefetchService.getInstance().getContent(book.getBookUrl(), targetIndex);
+            }
+
+            // 6.2 状态版本未变化时转换 LOADING → READING 并更新会话
+            boolean committed = coordinator.complete(load, () -> {
+                sessionManager.setChapterIndex(targetIndex);
+                sessionManager.setContent(content);
+            });
+            if (!committed) {
+                publisher.publish(CommandEvent.cancelled(command));
+                log.debug("章节加载已被取代，丢弃结果: {}", targetIndex);
+                return;
+            }
+
+            // 6.3 提交阅读进度（不等待）
+            ProgressSyncService.getInstance().submit(book, targetIndex, chapter.getTitle(), 0);
+
+            // 6.4 发布"章节加载成功"事件
+            publisher.publish(ReadingEvent.chapterLoaded(
+                    command.id(),
+                    book,
+                    chapter,
+                    content,
+                    0,  // 定位到章节开头
+                    direction()
+            ));
+
+            // 6.5 发布"指令完成"事件
+            publisher.publish(CommandEvent.completed(command, "切换到: " + chapter.getTitle()));
+
+            log.info("切换章节成功：{}", chapter.getTitle());
+
+        } catch (Exception e) {
+            // 7. 被取代时（请求被中断）只发布取消事件；否则回到阅读状态，会话保持在原章节
+            if (!coordinator.fail(load, ReadingSessionState.READING)) {
+                publisher.publish(CommandEvent.cancelled(command));
+                log.debug("章节加载已被取代: {}", targetIndex);
+                return;
+            }
+
+            // 7.1 发布"章节加载失败"事件
+            publisher.publish(ReadingEvent.chapterLoadFailed(
+                    command.id(),
+                    book,
+                    tempChapter,
+                    e,
+                    direction()
+            ));
+
+            // 7.2 发布"指令失败"事件
+            publisher.publish(CommandEvent.failed(command, e.getMessage()));
+
+            // 7.3 记录错误日志（如果启用）
+            if (Boolean.TRUE.equals(PluginSettingsStorage.getInstance().getState().enableErrorLog)) {
+                log.error("切换章节失败", e);
+            }
+        }
+    }
+}
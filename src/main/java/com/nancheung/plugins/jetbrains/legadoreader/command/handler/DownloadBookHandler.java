@@ -0,0 +1,41 @@
+package com.nancheung.plugins.jetbrains.legadoreader.command.handler;
+
+import com.nancheung.plugins.jetbrains.legadoreader.api.dto.BookDTO;
+import com.nancheung.plugins.jetbrains.legadoreader.command.Command;
+import com.nancheung.plugins.jetbrains.legadoreader.command.CommandType;
+import com.nancheung.plugins.jetbrains.legadoreader.command.payload.DownloadBookPayload;
+import com.nancheung.plugins.jetbrains.legadoreader.event.CommandEvent;
+import com.nancheung.plugins.jetbrains.legadoreader.event.EventPublisher;
+import com.nancheung.plugins.jetbrains.legadoreader.service.BookDownloadService;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 下载书籍指令处理器
+ * 将整本书籍下载到本地，供离线阅读
+ *
+ * @author NanCheung
+ */
+@Slf4j
+public class DownloadBookHandler implements CommandHandler<DownloadBookPayload> {
+
+    @Override
+    public CommandType supportedType() {
+        return CommandType.DOWNLOAD_BOOK;
+    }
+
+    @Override
+    public void handle(Command command) {
+        EventPublisher publisher = EventPublisher.getInstance();
+
+        // 1. 获取参数
+        if (!(command.payload() instanceof DownloadBookPayload(BookDTO book)) || book == null) {
+            publisher.publish(CommandEvent.failed(command, "参数类型错误"));
+            return;
+        }
+
+        log.info("开始下载书籍: {}", book.getName());
+
+        // 2. 后台下载（同一本书同时只下载一次），结束后发布指令完成、失败或取消事件
+        BookDownloadService.getInstance().download(command, book);
+    }
+}
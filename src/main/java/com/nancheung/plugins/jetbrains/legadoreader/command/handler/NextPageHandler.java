@@ -7,8 +7,11 @@ import com.nancheung.plugins.jetbrains.legadoreader.command.payload.CommandPaylo
 import com.nancheung.plugins.jetbrains.legadoreader.event.CommandEvent;
 import com.nancheung.plugins.jetbrains.legadoreader.event.EventPublisher;
 import com.nancheung.plugins.jetbrains.legadoreader.event.PaginationEvent;
+import com.nancheung.plugins.jetbrains.legadoreader.metrics.LatencyMetrics;
+import com.nancheung.plugins.jetbrains.legadoreader.metrics.LatencyStage;
 import com.nancheung.plugins.jetbrains.legadoreader.service.IPaginationManager;
 import com.nancheung.plugins.jetbrains.legadoreader.service.PaginationManager;
+import com.nancheung.plugins.jetbrains.legadoreader.service.ProgressSyncService;
 import lombok.extern.slf4j.Slf4j;
 
 /**
@@ -37,21 +40,29 @@ public class NextPageHandler implements CommandHandler<CommandPayload> {
             return;
         }
 
-        int totalPages = paginationManager.getTotalPages();
+        // 总页数取自页数据本身，重新分页与翻页并发时与页码一致
+        int totalPages = currentPage.totalPages();
         int currentPageIndex = currentPage.pageIndex();
 
         if (currentPageIndex < totalPages - 1) {
             // 页内翻页
-            IPaginationManager.PageData nextPage = paginationManager.nextPage();
+            IPaginationManager.PageData nextPage;
+            try (LatencyMetrics.Timer ignored = LatencyMetrics.getInstance().start(command.id(), LatencyStage.PAGINATION)) {
+                nextPage = paginationManager.nextPage();
+            }
 
             if (nextPage != null) {
+                // 页内翻页只提交章节内位置，由同步服务合并节流
+                ProgressSyncService.getInstance().submitPosition(nextPage.startPos());
+
                 publisher.publish(PaginationEvent.pageChanged(
+                        command.id(),
                         nextPage.pageIndex() + 1,
-                        totalPages,
-                        nextPage.content()
+                        nextPage.totalPages(),
+                        nextPage.content().toString()
                 ));
                 publisher.publish(CommandEvent.completed(command, null));
-                log.debug("翻到下一页: {}/{}", nextPage.pageIndex() + 1, totalPages);
+                log.debug("翻到下一页: {}/{}", nextPage.pageIndex() + 1, nextPage.totalPages());
             }
 
         } else {
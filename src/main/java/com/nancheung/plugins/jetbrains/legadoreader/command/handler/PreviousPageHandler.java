@@ -7,8 +7,11 @@ import com.nancheung.plugins.jetbrains.legadoreader.command.payload.CommandPaylo
 import com.nancheung.plugins.jetbrains.legadoreader.event.CommandEvent;
 import com.nancheung.plugins.jetbrains.legadoreader.event.EventPublisher;
 import com.nancheung.plugins.jetbrains.legadoreader.event.PaginationEvent;
+import com.nancheung.plugins.jetbrains.legadoreader.metrics.LatencyMetrics;
+import com.nancheung.plugins.jetbrains.legadoreader.metrics.LatencyStage;
 import com.nancheung.plugins.jetbrains.legadoreader.service.IPaginationManager;
 import com.nancheung.plugins.jetbrains.legadoreader.service.PaginationManager;
+import com.nancheung.plugins.jetbrains.legadoreader.service.ProgressSyncService;
 import lombok.extern.slf4j.Slf4j;
 
 /**
@@ -37,21 +40,29 @@ public class PreviousPageHandler implements CommandHandler<CommandPayload> {
             return;
         }
 
-        int totalPages = paginationManager.getTotalPages();
+        // 总页数取自页数据本身，重新分页与翻页并发时与页码一致
+        int totalPages = currentPage.totalPages();
         int currentPageIndex = currentPage.pageIndex();
 
         if (currentPageIndex > 0) {
             // 页内翻页
-            IPaginationManager.PageData prevPage = paginationManager.previousPage();
+            IPaginationManager.PageData prevPage;
+            try (LatencyMetrics.Timer ignored = LatencyMetrics.getInstance().start(command.id(), LatencyStage.PAGINATION)) {
+                prevPage = paginationManager.previousPage();
+            }
 
             if (prevPage != null) {
+                // 页内翻页只提交章节内位置，由同步服务合并节流
+                ProgressSyncService.getInstance().submitPosition(prevPage.startPos());
+
                 publisher.publish(PaginationEvent.pageChanged(
+                        command.id(),
                         prevPage.pageIndex() + 1,
-                        totalPages,
-                        prevPage.content()
+                        prevPage.totalPages(),
+                        prevPage.content().toString()
                 ));
                 publisher.publish(CommandEvent.completed(command, null));
-                log.debug("翻到上一页: {}/{}", prevPage.pageIndex() + 1, totalPages);
+                log.debug("翻到上一页: {}/{}", prevPage.pageIndex() + 1, prevPage.totalPages());
             }
 
         } else {
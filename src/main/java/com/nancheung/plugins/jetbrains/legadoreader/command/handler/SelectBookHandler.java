@@ -1,6 +1,5 @@
 package com.nancheung.plugins.jetbrains.legadoreader.command.handler;
 
-import com.nancheung.plugins.jetbrains.legadoreader.api.ApiUtil;
 import com.nancheung.plugins.jetbrains.legadoreader.api.dto.BookChapterDTO;
 import com.nancheung.plugins.jetbrains.legadoreader.api.dto.BookDTO;
 import com.nancheung.plugins.jetbrains.legadoreader.command.Command;
@@ -10,14 +9,20 @@ import com.nancheung.plugins.jetbrains.legadoreader.event.CommandEvent;
 import com.nancheung.plugins.jetbrains.legadoreader.event.EventPublisher;
 import com.nancheung.plugins.jetbrains.legadoreader.event.ReadingEvent;
 import com.nancheung.plugins.jetbrains.legadoreader.manager.ReadingSessionManager;
+import com.nancheung.plugins.jetbrains.legadoreader.metrics.LatencyMetrics;
+import com.nancheung.plugins.jetbrains.legadoreader.metrics.LatencyStage;
 import com.nancheung.plugins.jetbrains.legadoreader.model.ReadingSession;
 import com.nancheung.plugins.jetbrains.legadoreader.model.ReadingSessionState;
-import com.nancheung.plugins.jetbrains.legadoreader.service.ReadingSessionStateMachine;
+import com.nancheung.plugins.jetbrains.legadoreader.service.ChapterLoadCoordinator;
+import com.nancheung.plugins.jetbrains.legadoreader.service.ChapterPrefetchService;
+import com.nancheung.plugins.jetbrains.legadoreader.service.ProgressSyncService;
+import com.nancheung.plugins.jetbrains.legadoreader.service.ReaderExecutorService;
+import com.nancheung.plugins.jetbrains.legadoreader.service.TocSyncService;
 import com.nancheung.plugins.jetbrains.legadoreader.storage.PluginSettingsStorage;
 import lombok.extern.slf4j.Slf4j;
 
 import java.util.List;
-import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
 
 /**
  * 选择书籍指令处理器
@@ -36,7 +41,6 @@ public class SelectBookHandler implements CommandHandler<SelectBookPayload> {
     @Override
     public void handle(Command command) {
         EventPublisher publisher = EventPublisher.getInstance();
-        ReadingSessionStateMachine stateMachine = ReadingSessionStateMachine.getInstance();
 
         // 1. 获取参数
         if (!(command.payload() instanceof SelectBookPayload(BookDTO book, int chapterIndex))) {
@@ -46,20 +50,15 @@ public class SelectBookHandler implements CommandHandler<SelectBookPayload> {
 
         log.info("加载章节: book={}, chapterIndex={}", book.getName(), chapterIndex);
 
-        // 2. 检查当前状态，防止重复加载
-        if (stateMachine.isLoading()) {
-            log.warn("当前正在加载中，忽略新的加载请求");
-            publisher.publish(CommandEvent.failed(command, "当前正在加载中，请稍后再试"));
-            return;
-        }
-
-        // 3. 状态转换到加载中
-        if (!stateMachine.transition(ReadingSessionState.LOADING)) {
+        // 2. 状态转换到加载中并登记加载（取代并取消正在进行的章节加载）
+        ChapterLoadCoordinator coordinator = ChapterLoadCoordinator.getInstance();
+        ChapterLoadCoordinator.ChapterLoad load = coordinator.begin(command.id(), chapterIndex);
+        if (load == null) {
             publisher.publish(CommandEvent.failed(command, "当前状态不允许加载章节"));
             return;
         }
 
-        // 4. 创建临时章节对象，发布加载开始事件
+        // 3. 创建临时章节对象，发布加载开始事件
         BookChapterDTO tempChapter = new BookChapterDTO();
         tempChapter.setIndex(chapterIndex);
         publisher.publish(ReadingEvent.chapterLoading(
@@ -69,31 +68,41 @@ public class SelectBookHandler implements CommandHandler<SelectBookPayload> {
                 ReadingEvent.Direction.JUMP
         ));
 
-        // 5. 异步获取章节列表和内容
-        CompletableFuture.runAsync(() -> {
+        // 4. 异步获取章节列表和内容（使用可中断的任务，被取代时取消请求）
+        Future<?> task = ReaderExecutorService.getInstance().io().submit(() -> {
             try {
-                // 获取章节列表
-                List<BookChapterDTO> chapters = ApiUtil.getChapterList(book.getBookUrl());
-
-                // 边界检查
-                if (chapterIndex < 0 || chapterIndex >= chapters.size()) {
-                    throw new IllegalArgumentException("章节索引越界: " + chapterIndex);
+                List<BookChapterDTO> chapters;
+                BookChapterDTO chapter;
+                String content;
+                try (LatencyMetrics.Timer ignored = LatencyMetrics.getInstance().start(command.id(), LatencyStage.NETWORK)) {
+                    // 获取章节列表（目录未变化时直接使用本地快照）
+                    chapters = TocSyncService.getInstance().sync(book);
+
+                    // 边界检查
+                    if (chapterIndex < 0 || chapterIndex >= chapters.size()) {
+                        throw new IllegalArgumentException("章节索引越界: " + chapterIndex);
+                    }
+
+                    chapter = chapters.get(chapterIndex);
+
+                    // 获取章节内容
+                    content = ChapterPrefetchService.getInstance().getContent(book.getBookUrl(), chapterIndex);
                 }
 
-                BookChapterDTO chapter = chapters.get(chapterIndex);
-
-                // 获取章节内容
-                String content = ApiUtil.getBookContent(book.getBookUrl(), chapterIndex);
-
-                // 创建并设置会话
+                // 状态版本未变化时转换到阅读中，并创建和设置会话
                 ReadingSession session = new ReadingSession(book, chapters, chapterIndex, content);
-                ReadingSessionManager.getInstance().setSession(session);
+                boolean committed = coordinator.complete(load, () -> ReadingSessionManager.getInstance().setSession(session));
+                if (!committed) {
+                    publisher.publish(CommandEvent.cancelled(command));
+                    log.debug("章节加载已被取代，丢弃结果: {}", chapterIndex);
+                    return;
+                }
 
-                // 状态转换到阅读中
-                stateMachine.transition(ReadingSessionState.READING);
+                // 提交阅读进度（不等待）
+                int position = (chapterIndex == book.getDurChapterIndex()) ? book.getDurChapterPos() : 0;
+                ProgressSyncService.getInstance().submit(book, chapterIndex, chapter.getTitle(), position);
 
                 // 发布加载成功事件
-                int position = (chapterIndex == book.getDurChapterIndex()) ? book.getDurChapterPos() : 0;
                 publisher.publish(ReadingEvent.chapterLoaded(
                         command.id(),
                         book,
@@ -107,12 +116,13 @@ public class SelectBookHandler implements CommandHandler<SelectBookPayload> {
 
                 log.info("章节加载成功: {}", chapter.getTitle());
 
-                // 异步同步进度
-                syncProgressAsync(book, chapterIndex, chapter.getTitle(), position);
-
             } catch (Exception e) {
-                // 状态转换到错误
-                stateMachine.transition(ReadingSessionState.ERROR);
+                // 被取代时（请求被中断）只发布取消事件；否则状态转换到错误
+                if (!coordinator.fail(load, ReadingSessionState.ERROR)) {
+                    publisher.publish(CommandEvent.cancelled(command));
+                    log.debug("章节加载已被取代: {}", chapterIndex);
+                    return;
+                }
 
                 // 发布加载失败事件
                 BookChapterDTO failedChapter = new BookChapterDTO();
@@ -132,16 +142,6 @@ public class SelectBookHandler implements CommandHandler<SelectBookPayload> {
                 }
             }
         });
-    }
-
-    private void syncProgressAsync(BookDTO book, int chapterIndex, String chapterTitle, int position) {
-        CompletableFuture.runAsync(() -> {
-            try {
-                ApiUtil.saveBookProgress(book.getAuthor(), book.getName(), chapterIndex, chapterTitle, position);
-                log.debug("同步阅读进度成功：{} - {}", book.getName(), chapterTitle);
-            } catch (Exception e) {
-                log.warn("同步阅读进度失败", e);
-            }
-        });
+        coordinator.attach(load, task);
     }
 }
@@ -0,0 +1,14 @@
+package com.nancheung.plugins.jetbrains.legadoreader.command.payload;
+
+import com.nancheung.plugins.jetbrains.legadoreader.api.dto.BookDTO;
+
+/**
+ * 下载书籍参数
+ *
+ * @param book 书籍信息
+ * @author NanCheung
+ */
+public record DownloadBookPayload(
+        BookDTO book
+) implements CommandPayload {
+}
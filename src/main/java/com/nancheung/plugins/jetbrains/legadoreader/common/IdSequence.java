@@ -0,0 +1,27 @@
+package com.nancheung.plugins.jetbrains.legadoreader.common;
+
+import lombok.experimental.UtilityClass;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 指令和事件 ID 序列
+ * 进程内单调递增的 long，生成 ID 只是一次原子自增，不分配对象；
+ * ID 只用于进程内追踪指令、关联事件和日志，不需要跨进程唯一，日志输出时才格式化为文本
+ *
+ * @author NanCheung
+ */
+@UtilityClass
+public class IdSequence {
+
+    private static final AtomicLong SEQUENCE = new AtomicLong();
+
+    /**
+     * 生成下一个 ID（从 1 开始）
+     *
+     * @return ID
+     */
+    public static long next() {
+        return SEQUENCE.incrementAndGet();
+    }
+}
@@ -0,0 +1,30 @@
+package com.nancheung.plugins.jetbrains.legadoreader.common;
+
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.components.Service;
+
+/**
+ * 插件级的父 Disposable（Application Service）
+ * 供与应用同生命周期、但本身不是服务的对象（如工具窗口界面的单例）注册监听器和事件订阅，
+ * 应用关闭或插件卸载时随服务一起释放，不直接挂在 Application 上
+ *
+ * @author NanCheung
+ */
+@Service
+public final class PluginDisposable implements Disposable {
+
+    /**
+     * 获取服务实例
+     *
+     * @return 服务实例
+     */
+    public static PluginDisposable getInstance() {
+        return ApplicationManager.getApplication().getService(PluginDisposable.class);
+    }
+
+    @Override
+    public void dispose() {
+        // 注册在其下的子 Disposable 由 Disposer 释放
+    }
+}
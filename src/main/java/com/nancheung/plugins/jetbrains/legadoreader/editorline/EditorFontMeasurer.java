@@ -0,0 +1,93 @@
+package com.nancheung.plugins.jetbrains.legadoreader.editorline;
+
+import com.nancheung.plugins.jetbrains.legadoreader.service.IPaginationManager;
+
+import java.awt.*;
+
+/**
+ * 编辑器字体宽度测量器
+ * 使用 FontMetrics 测量字符宽度，并按字符缓存测量结果
+ * 编辑器字体无法显示的字符（如部分中文字体缺失的字形）使用同字号的逻辑字体测量，与编辑器的字体回退保持一致
+ *
+ * @author NanCheung
+ */
+public final class EditorFontMeasurer implements IPaginationManager.TextMeasurer {
+
+    /**
+     * 编辑器字体
+     */
+    private final Font font;
+
+    /**
+     * 编辑器字体的度量
+     */
+    private final FontMetrics metrics;
+
+    /**
+     * 回退字体的度量
+     */
+    private final FontMetrics fallbackMetrics;
+
+    /**
+     * BMP 字符宽度缓存，存储宽度 + 1，0 表示尚未测量
+     * 并发写入的都是相同的值，不需要同步
+     */
+    private final short[] bmpAdvances = new short[Character.MAX_VALUE + 1];
+
+    /**
+     * 构造函数
+     *
+     * @param font      编辑器字体
+     * @param component 用于获取 FontMetrics 的组件
+     */
+    public EditorFontMeasurer(Font font, Component component) {
+        this.font = font;
+        this.metrics = component.getFontMetrics(font);
+        this.fallbackMetrics = component.getFontMetrics(new Font(Font.DIALOG, font.getStyle(), font.getSize()));
+    }
+
+    /**
+     * 获取测量使用的字体
+     *
+     * @return 字体
+     */
+    public Font getFont() {
+        return font;
+    }
+
+    @Override
+    public int advance(int codePoint) {
+        if (codePoint > Character.MAX_VALUE) {
+            return measure(codePoint);
+        }
+
+        int cached = bmpAdvances[codePoint];
+        if (cached != 0) {
+            return cached - 1;
+        }
+
+        int advance = measure(codePoint);
+        bmpAdvances[codePoint] = (short) (advance + 1);
+        return advance;
+    }
+
+    /**
+     * 测量字符串宽度
+     *
+     * @param text 字符串
+     * @return 宽度（像素）
+     */
+    public int stringWidth(CharSequence text) {
+        int width = 0;
+        for (int i = 0; i < text.length(); ) {
+            int codePoint = Character.codePointAt(text, i);
+            width += advance(codePoint);
+            i += Character.charCount(codePoint);
+        }
+        return width;
+    }
+
+    private int measure(int codePoint) {
+        return font.canDisplay(codePoint) ? metrics.charWidth(codePoint) : fallbackMetrics.charWidth(codePoint);
+    }
+}
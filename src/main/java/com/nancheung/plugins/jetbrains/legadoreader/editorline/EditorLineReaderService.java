@@ -1,63 +1,141 @@
 package com.nancheung.plugins.jetbrains.legadoreader.editorline;
 
+import com.intellij.openapi.Disposable;
 import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.components.Service;
+import com.intellij.openapi.editor.Document;
 import com.intellij.openapi.editor.Editor;
+import com.intellij.openapi.editor.colors.EditorColorsListener;
+import com.intellij.openapi.editor.colors.EditorColorsManager;
+import com.intellij.openapi.editor.colors.EditorFontType;
+import com.intellij.openapi.editor.ex.EditorEx;
+import com.intellij.openapi.editor.ex.util.EditorUtil;
 import com.intellij.openapi.fileEditor.FileEditorManager;
 import com.intellij.openapi.project.Project;
 import com.intellij.openapi.project.ProjectManager;
+import com.intellij.openapi.util.Disposer;
+import com.intellij.openapi.wm.IdeFocusManager;
+import com.intellij.openapi.wm.IdeFrame;
+import com.intellij.util.concurrency.AppExecutorUtil;
+import com.intellij.util.messages.MessageBusConnection;
+import com.nancheung.plugins.jetbrains.legadoreader.event.DeliveryPolicy;
+import com.nancheung.plugins.jetbrains.legadoreader.event.EventPublisher;
 import com.nancheung.plugins.jetbrains.legadoreader.event.PaginationEvent;
-import com.nancheung.plugins.jetbrains.legadoreader.event.ReaderEvent;
-import com.nancheung.plugins.jetbrains.legadoreader.event.ReaderEventListener;
 import com.nancheung.plugins.jetbrains.legadoreader.event.ReadingEvent;
+import com.nancheung.plugins.jetbrains.legadoreader.metrics.LatencyMetrics;
+import com.nancheung.plugins.jetbrains.legadoreader.metrics.LatencyStage;
+import com.nancheung.plugins.jetbrains.legadoreader.service.IPaginationManager;
 import com.nancheung.plugins.jetbrains.legadoreader.service.PaginationManager;
+import com.nancheung.plugins.jetbrains.legadoreader.service.ProgressSyncService;
 import com.nancheung.plugins.jetbrains.legadoreader.storage.PluginSettingsStorage;
 import lombok.extern.slf4j.Slf4j;
 
 import javax.swing.*;
 import java.awt.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
- * 编辑器行内阅读服务，请使用事件订阅模式，不要直接调用此类的方法
+ * 编辑器行内阅读服务（Application Service），请使用事件订阅模式，不要直接调用此类的方法
  * 实现 IReader 接口（保持兼容），但实际逻辑已迁移到事件订阅模式
  * 订阅 ReaderEventListener，监听章节和分页事件以触发编辑器刷新
+ * <p>
+ * 整个应用只有一个实例，事件订阅和监听器随服务释放，多个项目打开时事件也只处理一次
  *
  * @author NanCheung
  */
 @Slf4j
-public class EditorLineReaderService {
+@Service
+public final class EditorLineReaderService implements Disposable {
+
+    /**
+     * 页码前缀的占位文本，按最宽的情况预留宽度
+     */
+    private static final String PAGE_NUMBER_PLACEHOLDER = "   0000/0000  ";
+
+    /**
+     * 每页至少容纳的全角字符数，避免可用宽度过窄时分页过碎
+     */
+    private static final int MIN_PAGE_FULL_WIDTH_CHARS = 8;
+
+    /**
+     * 合并重绘请求的时间窗口（约一帧）
+     */
+    private static final long FRAME_INTERVAL_MILLIS = 16;
 
     private final PaginationManager paginationManager;
 
     /**
-     * 构造函数
+     * 是否已有尚未执行的重绘
+     */
+    private final AtomicBoolean repaintPending = new AtomicBoolean(false);
+
+    /**
+     * 等待重绘完成的渲染计时器，重绘合并时一起结束
+     */
+    private final ConcurrentLinkedQueue<LatencyMetrics.Timer> pendingRenderTimers = new ConcurrentLinkedQueue<>();
+
+    /**
+     * 当前的行内分页参数（尚未获取到编辑器时为 null）
+     */
+    private volatile InlineLayout inlineLayout;
+
+    /**
+     * 正在跟踪尺寸和字体变化的编辑器（仅在 EDT 中访问）
+     */
+    private Editor trackedEditor;
+
+    /**
+     * 跟踪编辑器时注册的监听器的生命周期（仅在 EDT 中访问）
+     */
+    private Disposable trackedEditorDisposable;
+
+    /**
+     * 行内分页参数
+     *
+     * @param measurer 编辑器字体宽度测量器
+     * @param maxWidth 每页最大宽度（像素）
+     */
+    private record InlineLayout(EditorFontMeasurer measurer, int maxWidth) {
+    }
+
+    /**
+     * 构造函数（由 IntelliJ Platform 调用）
      * 订阅阅读事件，当章节切换或分页时自动刷新编辑器
      */
     public EditorLineReaderService() {
         this.paginationManager = PaginationManager.getInstance();
 
-        // 订阅事件
-        ApplicationManager.getApplication()
-                .getMessageBus()
-                .connect()
-                .subscribe(ReaderEventListener.TOPIC, (ReaderEventListener) EditorLineReaderService.this::onEvent);
+        // 订阅事件：章节加载后的分页是加载流程的一部分（之后的翻页指令依赖分页结果），同步处理；
+        // 翻页只需刷新编辑器，排队处理并合并连续的分页事件
+        EventPublisher publisher = EventPublisher.getInstance();
+        MessageBusConnection connection = publisher.subscribe(this, "EditorLine-reading", DeliveryPolicy.SYNC, event -> {
+            if (event instanceof ReadingEvent e) {
+                onReadingEvent(e);
+            }
+        });
+        publisher.subscribe(this, "EditorLine-pagination", DeliveryPolicy.COALESCE, event -> {
+            if (event instanceof PaginationEvent e) {
+                onPaginationEvent(e);
+            }
+        });
+
+        // 编辑器配色方案（含字体）变化时重新分页
+        connection.subscribe(EditorColorsManager.TOPIC, (EditorColorsListener) scheme -> updateLayout());
 
         log.debug("EditorLineReaderService 已初始化");
     }
 
     /**
-     * 处理事件
-     * 根据事件类型执行不同的操作
+     * 获取服务实例
      *
-     * @param event 事件对象
-     */
-    private void onEvent(ReaderEvent event) {
-        switch (event) {
-            case ReadingEvent e -> onReadingEvent(e);
-            case PaginationEvent e -> onPaginationEvent(e);
-            default -> {
-                // 忽略其他事件类型
-            }
-        }
+     * @return 服务实例
+     */
+    public static EditorLineReaderService getInstance() {
+        return ApplicationManager.getApplication().getService(EditorLineReaderService.class);
     }
 
     /**
@@ -68,27 +146,56 @@ public class EditorLineReaderService {
      */
     private void onReadingEvent(ReadingEvent event) {
         if (event.type() == ReadingEvent.ReadingEventType.CHAPTER_LOADED) {
+            LatencyMetrics metrics = LatencyMetrics.getInstance();
+            trackRender(event.commandId());
+            LatencyMetrics.Timer paginationTimer = metrics.start(event.commandId(), LatencyStage.PAGINATION);
+
             // 获取内容并重新分页
             String content = event.content();
 
-            int pageSize = new JLabel().getFont().getSize() * 2;
-            paginationManager.paginate(content, pageSize);
+            InlineLayout layout = inlineLayout;
+            if (layout != null) {
+                // 按编辑器可用宽度分页
+                paginationManager.paginate(content, layout.measurer(), layout.maxWidth());
+            } else {
+                // 尚未获取到编辑器时按字符数分页，获取到编辑器后重新分页
+                int pageSize = new JLabel().getFont().getSize() * 2;
+                paginationManager.paginate(content, pageSize);
+            }
 
             // 根据方向定位页码
             if (event.direction() == ReadingEvent.Direction.PREVIOUS) {
                 // 上一章，定位到最后一页
-                paginationManager.goToLastPage();
+                IPaginationManager.PageData lastPage = paginationManager.goToLastPage();
                 log.debug("上一章，定位到最后一页");
+
+                // 行内模式下实际阅读位置是最后一页，覆盖章节处理器提交的章节开头位置
+                if (lastPage != null && Boolean.TRUE.equals(PluginSettingsStorage.getInstance().getState().enableShowBodyInLine)) {
+                    ProgressSyncService.getInstance().submitPosition(lastPage.startPos());
+                }
+            } else if (event.chapterPosition() > 0) {
+                // 恢复上次阅读位置，定位到包含该位置的页
+                paginationManager.goToPosition(event.chapterPosition());
+                log.debug("恢复阅读位置，定位到字符 {}", event.chapterPosition());
             } else {
                 // 下一章或跳转，定位到第一页
                 paginationManager.goToFirstPage();
                 log.debug("下一章或跳转，定位到第一页");
             }
+            paginationTimer.close();
 
-            // 刷新编辑器
+            // 首次加载或切换了编辑器时计算可用宽度（在 EDT 中执行）
+            ApplicationManager.getApplication().invokeLater(this::trackSelectedEditor);
+
+            // 重建渲染快照并刷新编辑器
+            InlineRenderState.getInstance().rebuild();
             refreshEditor();
 
             log.info("EditorLine 事件处理完成：{}", event.chapter().getTitle());
+        } else if (event.type() == ReadingEvent.ReadingEventType.SESSION_ENDED) {
+            // 返回书架，不再显示阅读内容
+            InlineRenderState.getInstance().clear();
+            refreshEditor();
         }
     }
 
@@ -99,30 +206,186 @@ public class EditorLineReaderService {
      * @param event 分页事件
      */
     private void onPaginationEvent(PaginationEvent event) {
-        // 刷新编辑器显示新的页码
+        trackRender(event.commandId());
+
+        // 重建渲染快照，刷新编辑器显示新的页码
+        InlineRenderState.getInstance().rebuild();
         refreshEditor();
         log.debug("分页事件：页码 {}/{}", event.currentPage(), event.totalPages());
     }
 
     /**
-     * 刷新编辑器，触发行内内容重绘
-     * 在 EDT 线程中执行，确保线程安全
+     * 开始为指令的行内渲染计时，在下一次重绘完成后结束
+     * 未启用行内阅读时不计时
      */
-    private void refreshEditor() {
-        ApplicationManager.getApplication().invokeLater(() -> {
-            // 获取当前打开的项目
-            Project[] openProjects = ProjectManager.getInstance().getOpenProjects();
+    private void trackRender(long commandId) {
+        if (Boolean.TRUE.equals(PluginSettingsStorage.getInstance().getState().enableShowBodyInLine)) {
+            pendingRenderTimers.add(LatencyMetrics.getInstance().start(commandId, LatencyStage.RENDER));
+        }
+    }
 
-            for (Project project : openProjects) {
-                if (project != null && !project.isDisposed()) {
-                    Editor editor = FileEditorManager.getInstance(project).getSelectedTextEditor();
-                    if (editor != null && !editor.isDisposed()) {
-                        // 触发编辑器内容组件重绘
-                        editor.getContentComponent().repaint();
-                        log.debug("触发编辑器重绘");
-                    }
-                }
+    /**
+     * 跟踪当前选中的编辑器（在 EDT 中执行）
+     * 编辑器未变化时不做任何事；变化时改为监听新编辑器的尺寸和字号变化，并重新计算可用宽度
+     */
+    private void trackSelectedEditor() {
+        Editor editor = getSelectedEditor();
+        if (editor == null || (editor == trackedEditor && inlineLayout != null)) {
+            return;
+        }
+
+        if (trackedEditorDisposable != null) {
+            Disposer.dispose(trackedEditorDisposable);
+        }
+        trackedEditor = editor;
+        trackedEditorDisposable = Disposer.newDisposable(this, "LegadoReaderInlineLayout");
+        EditorUtil.disposeWithEditor(editor, trackedEditorDisposable);
+
+        // 可见区域宽度变化（编辑器尺寸变化）时重新分页，滚动不触发
+        editor.getScrollingModel().addVisibleAreaListener(e -> {
+            Rectangle oldRect = e.getOldRectangle();
+            if (oldRect == null || oldRect.width != e.getNewRectangle().width) {
+                updateLayout();
             }
-        });
+        }, trackedEditorDisposable);
+
+        // 编辑器字号变化（如缩放）时重新分页
+        if (editor instanceof EditorEx editorEx) {
+            editorEx.addPropertyChangeListener(e -> {
+                if (EditorEx.PROP_FONT_SIZE.equals(e.getPropertyName())) {
+                    updateLayout();
+                }
+            }, trackedEditorDisposable);
+        }
+
+        updateLayout();
+    }
+
+    /**
+     * 重新计算行内分页参数（在 EDT 中执行）
+     * 字体和可用宽度都未变化时不重新分页
+     */
+    private void updateLayout() {
+        Editor editor = trackedEditor;
+        if (editor == null || editor.isDisposed()) {
+            return;
+        }
+
+        Font font = editor.getColorsScheme().getFont(EditorFontType.ITALIC);
+        InlineLayout current = inlineLayout;
+        EditorFontMeasurer measurer = current != null && current.measurer().getFont().equals(font)
+                ? current.measurer()
+                : new EditorFontMeasurer(font, editor.getContentComponent());
+
+        int maxWidth = computeAvailableWidth(editor, measurer);
+        if (current != null && current.measurer() == measurer && current.maxWidth() == maxWidth) {
+            return;
+        }
+
+        inlineLayout = new InlineLayout(measurer, maxWidth);
+        paginationManager.relayout(measurer, maxWidth);
+        InlineRenderState.getInstance().rebuild();
+        refreshEditor();
+
+        log.debug("行内分页宽度更新：{}px，字体 {}", maxWidth, font.getFontName());
+    }
+
+    /**
+     * 计算光标所在行代码右侧的可用宽度
+     * 光标移动到其他行时不重新计算，只在编辑器尺寸或字体变化时更新
+     */
+    private int computeAvailableWidth(Editor editor, EditorFontMeasurer measurer) {
+        Rectangle visibleArea = editor.getScrollingModel().getVisibleArea();
+        Document document = editor.getDocument();
+
+        int caretLine = editor.getCaretModel().getLogicalPosition().line;
+        int lineEndX = caretLine < document.getLineCount()
+                ? editor.offsetToXY(document.getLineEndOffset(caretLine)).x
+                : 0;
+
+        int available = visibleArea.x + visibleArea.width - lineEndX - measurer.stringWidth(PAGE_NUMBER_PLACEHOLDER);
+        int minWidth = measurer.advance('中') * MIN_PAGE_FULL_WIDTH_CHARS;
+        return Math.max(available, minWidth);
+    }
+
+    /**
+     * 获取最近获得焦点的项目中选中的文本编辑器（在 EDT 中调用）
+     *
+     * @return 编辑器，没有时返回 null
+     */
+    static Editor getSelectedEditor() {
+        IdeFrame frame = IdeFocusManager.getGlobalInstance().getLastFocusedFrame();
+        Project project = frame != null ? frame.getProject() : null;
+
+        if (project == null || project.isDisposed()) {
+            Project[] openProjects = ProjectManager.getInstance().getOpenProjects();
+            project = openProjects.length > 0 ? openProjects[0] : null;
+        }
+
+        return project != null && !project.isDisposed()
+                ? FileEditorManager.getInstance(project).getSelectedTextEditor()
+                : null;
+    }
+
+    /**
+     * 刷新编辑器，触发行内内容重绘
+     * 同一帧内的多次刷新请求合并为一次，只重绘当前编辑器中光标所在行的区域
+     */
+    void refreshEditor() {
+        if (!repaintPending.compareAndSet(false, true)) {
+            return;
+        }
+
+        AppExecutorUtil.getAppScheduledExecutorService().schedule(
+                () -> ApplicationManager.getApplication().invokeLater(this::repaintCaretLine),
+                FRAME_INTERVAL_MILLIS,
+                TimeUnit.MILLISECONDS
+        );
+    }
+
+    /**
+     * 重绘当前编辑器中光标所在行（在 EDT 中执行）
+     * 自动换行时一个逻辑行可能占多个视觉行，重绘范围覆盖从行首到行尾
+     */
+    private void repaintCaretLine() {
+        repaintPending.set(false);
+
+        // 取出本次重绘覆盖的渲染计时器，没有可重绘的编辑器时不记录
+        List<LatencyMetrics.Timer> renderTimers = new ArrayList<>();
+        for (LatencyMetrics.Timer timer; (timer = pendingRenderTimers.poll()) != null; ) {
+            renderTimers.add(timer);
+        }
+
+        Editor editor = getSelectedEditor();
+        if (editor == null || editor.isDisposed()) {
+            return;
+        }
+
+        Document document = editor.getDocument();
+        int line = editor.getCaretModel().getLogicalPosition().line;
+        if (line >= document.getLineCount()) {
+            return;
+        }
+
+        int top = editor.offsetToXY(document.getLineStartOffset(line)).y;
+        int bottom = editor.offsetToXY(document.getLineEndOffset(line)).y + editor.getLineHeight();
+        Rectangle visibleArea = editor.getScrollingModel().getVisibleArea();
+
+        editor.getContentComponent().repaint(visibleArea.x, top, visibleArea.width, bottom - top);
+        log.debug("重绘光标所在行: {}", line);
+
+        // repaint 只是登记重绘区域，排在其后的 EDT 任务执行时绘制已经完成
+        if (!renderTimers.isEmpty()) {
+            ApplicationManager.getApplication().invokeLater(() -> renderTimers.forEach(LatencyMetrics.Timer::close));
+        }
+    }
+
+    /**
+     * 释放服务（由 IntelliJ Platform 在应用关闭时自动调用）
+     * 事件订阅和编辑器监听器注册在本服务下，随之释放
+     */
+    @Override
+    public void dispose() {
+        log.debug("EditorLineReaderService 已关闭");
     }
 }
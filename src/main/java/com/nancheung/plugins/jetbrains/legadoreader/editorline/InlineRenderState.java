@@ -0,0 +1,222 @@
+package com.nancheung.plugins.jetbrains.legadoreader.editorline;
+
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.components.Service;
+import com.intellij.openapi.editor.Editor;
+import com.intellij.openapi.editor.EditorFactory;
+import com.intellij.openapi.editor.LineExtensionInfo;
+import com.intellij.openapi.editor.event.CaretEvent;
+import com.intellij.openapi.editor.event.CaretListener;
+import com.intellij.openapi.editor.ex.EditorEventMulticasterEx;
+import com.intellij.openapi.editor.ex.FocusChangeListener;
+import com.intellij.openapi.editor.markup.TextAttributes;
+import com.intellij.openapi.fileEditor.FileDocumentManager;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.nancheung.plugins.jetbrains.legadoreader.service.IPaginationManager;
+import com.nancheung.plugins.jetbrains.legadoreader.service.PaginationManager;
+import com.nancheung.plugins.jetbrains.legadoreader.storage.PluginSettingsStorage;
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.awt.*;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 行内阅读渲染状态（Application Service）
+ * 维护一份不可变的渲染快照（显示内容、文本样式、目标行），
+ * 只在分页、章节、设置或光标所在行变化时重建，使 {@link ReaderEditorLinePainter} 的逐行调用只需读取字段
+ *
+ * @author NanCheung
+ */
+@Slf4j
+@Service
+public final class InlineRenderState implements Disposable {
+
+    /**
+     * 不显示任何内容的快照
+     */
+    private static final Snapshot EMPTY = new Snapshot(null, -1, null);
+
+    /**
+     * 当前快照
+     */
+    private volatile Snapshot snapshot = EMPTY;
+
+    /**
+     * 当前目标位置（光标所在的文件和行）
+     */
+    private volatile Target target = new Target(null, -1);
+
+    /**
+     * 渲染快照（不可变）
+     *
+     * @param file       显示内容的文件（为 null 时不显示）
+     * @param line       显示内容的行号
+     * @param extensions 行尾显示的内容
+     */
+    public record Snapshot(@Nullable VirtualFile file, int line, @Nullable Collection<LineExtensionInfo> extensions) {
+
+        /**
+         * 获取指定行要显示的内容
+         *
+         * @param file       文件
+         * @param lineNumber 行号
+         * @return 行尾显示的内容，不是目标行时返回 null
+         */
+        @Nullable
+        public Collection<LineExtensionInfo> extensionsFor(@NotNull VirtualFile file, int lineNumber) {
+            return lineNumber == line && file.equals(this.file) ? extensions : null;
+        }
+    }
+
+    /**
+     * 目标位置
+     *
+     * @param file 文件
+     * @param line 行号
+     */
+    private record Target(@Nullable VirtualFile file, int line) {
+    }
+
+    /**
+     * 构造函数（由 IntelliJ Platform 调用）
+     * 订阅设置变更、光标移动和编辑器焦点变化
+     */
+    public InlineRenderState() {
+        ApplicationManager.getApplication()
+                .getMessageBus()
+                .connect(this)
+                .subscribe(PluginSettingsStorage.SETTINGS_CHANGED, (PluginSettingsStorage.SettingsChangedListener) this::onSettingsChanged);
+
+        EditorEventMulticasterEx multicaster = (EditorEventMulticasterEx) EditorFactory.getInstance().getEventMulticaster();
+
+        // 光标换行时更新目标行
+        multicaster.addCaretListener(new CaretListener() {
+            @Override
+            public void caretPositionChanged(@NotNull CaretEvent event) {
+                if (event.getOldPosition().line != event.getNewPosition().line) {
+                    retarget(event.getEditor());
+                }
+            }
+        }, this);
+
+        // 切换编辑器时更新目标文件
+        multicaster.addFocusChangeListener(new FocusChangeListener() {
+            @Override
+            public void focusGained(@NotNull Editor editor) {
+                retarget(editor);
+            }
+        }, this);
+
+        ApplicationManager.getApplication().invokeLater(() -> {
+            Editor editor = EditorLineReaderService.getSelectedEditor();
+            if (editor != null) {
+                retarget(editor);
+            }
+        });
+
+        log.debug("InlineRenderState 已初始化");
+    }
+
+    /**
+     * 设置变更（显示开关、颜色等）后重建快照并重绘，否则要等到下一次翻页或移动光标才生效
+     */
+    private void onSettingsChanged() {
+        rebuild();
+        EditorLineReaderService.getInstance().refreshEditor();
+    }
+
+    /**
+     * 获取服务实例
+     *
+     * @return 服务实例
+     */
+    public static InlineRenderState getInstance() {
+        return ApplicationManager.getApplication().getService(InlineRenderState.class);
+    }
+
+    /**
+     * 获取当前快照
+     *
+     * @return 快照
+     */
+    public Snapshot snapshot() {
+        return snapshot;
+    }
+
+    /**
+     * 根据当前页和设置重建快照
+     * 分页、章节或设置变化后调用
+     */
+    public synchronized void rebuild() {
+        PluginSettingsStorage settings = PluginSettingsStorage.getInstance();
+        // 页数据自带所属分页结果的总页数，不需要再单独读取
+        IPaginationManager.PageData currentPage = PaginationManager.getInstance().getCurrentPage();
+
+        // 未启用行内阅读或没有阅读内容时不显示
+        if (!Boolean.TRUE.equals(settings.getState().enableShowBodyInLine) || currentPage == null) {
+            snapshot = EMPTY;
+            return;
+        }
+
+        Target current = target;
+        snapshot = buildSnapshot(currentPage, settings.getTextBodyFontColor(), current.file(), current.line());
+    }
+
+    /**
+     * 构建显示指定页的快照（不查找服务，翻页时的全部构建开销）
+     *
+     * @param page            当前页
+     * @param foregroundColor 文本颜色
+     * @param file            目标文件
+     * @param line            目标行号
+     * @return 快照
+     */
+    static Snapshot buildSnapshot(IPaginationManager.PageData page, Color foregroundColor, @Nullable VirtualFile file, int line) {
+        // 格式化显示文本
+        String displayText = page.formatForDisplay();
+
+        // 设置文本样式
+        TextAttributes textAttributes = new TextAttributes();
+        textAttributes.setForegroundColor(foregroundColor);
+        textAttributes.setFontType(Font.ITALIC);
+
+        return new Snapshot(file, line, List.of(new LineExtensionInfo(displayText, textAttributes)));
+    }
+
+    /**
+     * 清空快照，不再显示任何内容
+     * 阅读会话结束时调用
+     */
+    public synchronized void clear() {
+        snapshot = EMPTY;
+    }
+
+    /**
+     * 将目标位置更新为编辑器的光标所在行，显示内容保持不变
+     */
+    private synchronized void retarget(Editor editor) {
+        // 控制台等不对应文件的编辑器不显示阅读内容
+        VirtualFile file = FileDocumentManager.getInstance().getFile(editor.getDocument());
+        if (file == null) {
+            return;
+        }
+        int line = editor.getCaretModel().getLogicalPosition().line;
+
+        Target current = new Target(file, line);
+        target = current;
+
+        Snapshot old = snapshot;
+        if (old.extensions() != null) {
+            snapshot = new Snapshot(current.file(), current.line(), old.extensions());
+        }
+    }
+
+    @Override
+    public void dispose() {
+        snapshot = EMPTY;
+    }
+}
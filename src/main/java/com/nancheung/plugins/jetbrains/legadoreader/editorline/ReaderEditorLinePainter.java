@@ -1,26 +1,19 @@
 package com.nancheung.plugins.jetbrains.legadoreader.editorline;
 
-import com.intellij.openapi.editor.Editor;
 import com.intellij.openapi.editor.EditorLinePainter;
 import com.intellij.openapi.editor.LineExtensionInfo;
-import com.intellij.openapi.editor.markup.TextAttributes;
-import com.intellij.openapi.fileEditor.FileEditorManager;
 import com.intellij.openapi.project.Project;
 import com.intellij.openapi.vfs.VirtualFile;
-import com.nancheung.plugins.jetbrains.legadoreader.service.IPaginationManager;
-import com.nancheung.plugins.jetbrains.legadoreader.service.PaginationManager;
-import com.nancheung.plugins.jetbrains.legadoreader.storage.PluginSettingsStorage;
 import lombok.extern.slf4j.Slf4j;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.awt.*;
 import java.util.Collection;
-import java.util.Collections;
 
 /**
  * 编辑器行内阅读渲染器
  * 在编辑器代码行的末尾显示书籍内容
+ * 每次重绘都会对每个可见行调用，因此只读取 {@link InlineRenderState} 预先构建好的快照，不做任何计算和分配
  *
  * @author erqian.zn
  */
@@ -28,11 +21,9 @@ import java.util.Collections;
 public class ReaderEditorLinePainter extends EditorLinePainter {
 
     /**
-     * 缓存 Editor 实例，避免高频调用 getSelectedTextEditor()
+     * 缓存渲染状态服务，避免每次调用都查找服务
      */
-    private Editor cachedEditor;
-    private long lastEditorCheckTime;
-    private static final long EDITOR_CACHE_DURATION_MS = 1000; // 缓存 1 秒
+    private InlineRenderState renderState;
 
     @Override
     public @Nullable Collection<LineExtensionInfo> getLineExtensions(
@@ -40,62 +31,12 @@ public class ReaderEditorLinePainter extends EditorLinePainter {
             @NotNull VirtualFile file,
             int lineNumber) {
 
-        // 判断是否启用了行内阅读
-        if (!PluginSettingsStorage.getInstance().getState().enableShowBodyInLine) {
-            return null;
+        InlineRenderState state = renderState;
+        if (state == null) {
+            state = renderState = InlineRenderState.getInstance();
         }
 
-        // 获取当前编辑器（使用缓存优化性能）
-        Editor editor = getCachedEditor(project);
-        if (editor == null) {
-            return null;
-        }
-
-        // 只在当前光标所在行显示
-        int currentLine = editor.getCaretModel().getLogicalPosition().line;
-        if (lineNumber != currentLine) {
-            return null;
-        }
-
-        // 获取当前页数据
-        PaginationManager paginationManager = PaginationManager.getInstance();
-        IPaginationManager.PageData currentPageData = paginationManager.getCurrentPage();
-
-        if (currentPageData == null) {
-            // 没有阅读内容时不显示
-            return null;
-        }
-
-        // 格式化显示文本
-        int totalPages = paginationManager.getTotalPages();
-        String displayText = currentPageData.formatForDisplay(totalPages);
-
-        // 设置文本样式
-        TextAttributes textAttributes = new TextAttributes();
-        textAttributes.setForegroundColor(PluginSettingsStorage.getInstance().getTextBodyFontColor());
-        textAttributes.setFontType(Font.ITALIC);
-
-        return Collections.singleton(new LineExtensionInfo(displayText, textAttributes));
-
-
-    }
-
-    /**
-     * 获取缓存的编辑器实例
-     * 避免每次渲染都调用 getSelectedTextEditor()，提升性能
-     *
-     * @param project 当前项目
-     * @return 编辑器实例，如果没有则返回 null
-     */
-    private Editor getCachedEditor(Project project) {
-        long now = System.currentTimeMillis();
-
-        // 如果缓存过期或未初始化，重新获取
-        if (cachedEditor == null || now - lastEditorCheckTime > EDITOR_CACHE_DURATION_MS) {
-            cachedEditor = FileEditorManager.getInstance(project).getSelectedTextEditor();
-            lastEditorCheckTime = now;
-        }
-
-        return cachedEditor;
+        // 只在光标所在行显示当前页，其余行返回 null
+        return state.snapshot().extensionsFor(file, lineNumber);
     }
 }
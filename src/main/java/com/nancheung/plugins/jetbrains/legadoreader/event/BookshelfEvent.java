@@ -1,10 +1,10 @@
 package com.nancheung.plugins.jetbrains.legadoreader.event;
 
 import com.nancheung.plugins.jetbrains.legadoreader.api.dto.BookDTO;
+import com.nancheung.plugins.jetbrains.legadoreader.common.IdSequence;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.List;
-import java.util.UUID;
 
 /**
  * 书架相关事件
@@ -18,9 +18,9 @@ import java.util.UUID;
  * @author NanCheung
  */
 public record BookshelfEvent(
-        String eventId,
+        long eventId,
         long timestamp,
-        @Nullable String commandId,
+        long commandId,
         BookshelfEventType type,
         @Nullable List<BookDTO> books,
         @Nullable Throwable error
@@ -49,9 +49,9 @@ public record BookshelfEvent(
     /**
      * 创建"书架加载中"事件
      */
-    public static BookshelfEvent loading(@Nullable String commandId) {
+    public static BookshelfEvent loading(long commandId) {
         return new BookshelfEvent(
-                UUID.randomUUID().toString(),
+                IdSequence.next(),
                 System.currentTimeMillis(),
                 commandId,
                 BookshelfEventType.LOADING,
@@ -63,9 +63,9 @@ public record BookshelfEvent(
     /**
      * 创建"书架加载成功"事件
      */
-    public static BookshelfEvent loaded(@Nullable String commandId, List<BookDTO> books) {
+    public static BookshelfEvent loaded(long commandId, List<BookDTO> books) {
         return new BookshelfEvent(
-                UUID.randomUUID().toString(),
+                IdSequence.next(),
                 System.currentTimeMillis(),
                 commandId,
                 BookshelfEventType.LOADED,
@@ -77,9 +77,9 @@ public record BookshelfEvent(
     /**
      * 创建"书架加载失败"事件
      */
-    public static BookshelfEvent loadFailed(@Nullable String commandId, Throwable error) {
+    public static BookshelfEvent loadFailed(long commandId, Throwable error) {
         return new BookshelfEvent(
-                UUID.randomUUID().toString(),
+                IdSequence.next(),
                 System.currentTimeMillis(),
                 commandId,
                 BookshelfEventType.LOAD_FAILED,
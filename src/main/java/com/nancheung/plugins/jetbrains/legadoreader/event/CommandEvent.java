@@ -3,10 +3,9 @@ package com.nancheung.plugins.jetbrains.legadoreader.event;
 import com.nancheung.plugins.jetbrains.legadoreader.command.Command;
 import com.nancheung.plugins.jetbrains.legadoreader.command.CommandResult;
 import com.nancheung.plugins.jetbrains.legadoreader.command.CommandType;
+import com.nancheung.plugins.jetbrains.legadoreader.common.IdSequence;
 import org.jetbrains.annotations.Nullable;
 
-import java.util.UUID;
-
 /**
  * 指令生命周期事件
  * 用于 UI 层显示 loading 状态和执行结果
@@ -20,9 +19,9 @@ import java.util.UUID;
  * @author NanCheung
  */
 public record CommandEvent(
-        String eventId,
+        long eventId,
         long timestamp,
-        String commandId,
+        long commandId,
         CommandType commandType,
         CommandResult.ExecutionStatus status,
         @Nullable String message
@@ -33,7 +32,7 @@ public record CommandEvent(
      */
     public static CommandEvent started(Command cmd) {
         return new CommandEvent(
-                UUID.randomUUID().toString(),
+                IdSequence.next(),
                 System.currentTimeMillis(),
                 cmd.id(),
                 cmd.type(),
@@ -47,7 +46,7 @@ public record CommandEvent(
      */
     public static CommandEvent completed(Command cmd, @Nullable String message) {
         return new CommandEvent(
-                UUID.randomUUID().toString(),
+                IdSequence.next(),
                 System.currentTimeMillis(),
                 cmd.id(),
                 cmd.type(),
@@ -61,7 +60,7 @@ public record CommandEvent(
      */
     public static CommandEvent failed(Command cmd, String errorMessage) {
         return new CommandEvent(
-                UUID.randomUUID().toString(),
+                IdSequence.next(),
                 System.currentTimeMillis(),
                 cmd.id(),
                 cmd.type(),
@@ -75,7 +74,7 @@ public record CommandEvent(
      */
     public static CommandEvent cancelled(Command cmd) {
         return new CommandEvent(
-                UUID.randomUUID().toString(),
+                IdSequence.next(),
                 System.currentTimeMillis(),
                 cmd.id(),
                 cmd.type(),
@@ -0,0 +1,28 @@
+package com.nancheung.plugins.jetbrains.legadoreader.event;
+
+/**
+ * 事件投递策略
+ * 订阅者通过 {@link EventPublisher#subscribe} 订阅时选择，决定事件在哪个线程处理以及处理不过来时如何取舍
+ *
+ * @author NanCheung
+ */
+public enum DeliveryPolicy {
+
+    /**
+     * 在发布线程中同步处理
+     * 只适用于非常轻量、或处理结果必须在发布返回前生效的订阅者
+     */
+    SYNC,
+
+    /**
+     * 放入订阅者自己的有界队列，在事件线程中按顺序处理
+     * 队列满时先丢弃最旧的分页事件，其次丢弃已有更新同类事件的阅读事件，都没有时丢弃新事件并计数
+     */
+    QUEUE,
+
+    /**
+     * 与 {@link #QUEUE} 相同，但队列末尾连续的同类分页事件只保留最新一个
+     * （分页事件携带的是完整的当前页状态，中间状态不需要处理）
+     */
+    COALESCE
+}
@@ -1,20 +1,52 @@
 package com.nancheung.plugins.jetbrains.legadoreader.event;
 
+import com.intellij.openapi.Disposable;
 import com.intellij.openapi.application.ApplicationManager;
 import com.intellij.openapi.components.Service;
+import com.intellij.util.messages.MessageBus;
+import com.intellij.util.messages.MessageBusConnection;
+import com.nancheung.plugins.jetbrains.legadoreader.service.ReaderExecutorService;
 import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
 
 /**
  * 事件发布器（Application Service）
  * 负责将事件发布到 MessageBus
+ * <p>
+ * 订阅者应通过 {@link #subscribe} 订阅：除 {@link DeliveryPolicy#SYNC} 外，每个订阅者有自己的有界队列，
+ * 发布时只是放入队列，不会在发布线程（通常是指令处理线程）中等待订阅者处理，
+ * 订阅者处理慢时按投递策略合并或丢弃事件（优先丢弃分页事件，队列不会超过容量），快速连续翻页时发布耗时稳定
  *
  * @author NanCheung
  */
 @Slf4j
 @Service
-public final class EventPublisher {
+public final class EventPublisher implements Disposable {
+
+    /**
+     * 每个订阅者队列的默认容量
+     */
+    public static final int DEFAULT_QUEUE_CAPACITY = 256;
+
+    /**
+     * 事件线程的最大并发数（同一订阅者始终只有一个线程在处理）
+     */
+    private static final int DISPATCH_CONCURRENCY = 4;
+
+    /**
+     * 事件线程池
+     */
+    private final ExecutorService dispatcher;
+
+    /**
+     * 构造函数（由 IntelliJ Platform 调用）
+     */
+    public EventPublisher() {
+        this.dispatcher = ReaderExecutorService.newVirtualThreadLane("LegadoReader-event", DISPATCH_CONCURRENCY);
+    }
 
     /**
      * 获取单例实例
@@ -24,8 +56,8 @@ public final class EventPublisher {
     }
 
     /**
-     * 发布事件（同步）
-     * 事件会立即广播给所有订阅者
+     * 发布事件
+     * 同步订阅者立即处理，其他订阅者的事件放入各自的队列后立即返回
      *
      * @param event 事件对象
      */
@@ -35,16 +67,70 @@ public final class EventPublisher {
                 .syncPublisher(ReaderEventListener.TOPIC)
                 .onEvent(event);
 
-        log.debug("事件已发布: type={}, eventId={}", event.getClass().getSimpleName(), event.eventId());
+        // 先判断日志级别，未输出时不装箱 ID
+        if (log.isDebugEnabled()) {
+            log.debug("事件已发布: type={}, eventId={}", event.getClass().getSimpleName(), event.eventId());
+        }
     }
 
     /**
      * 异步发布事件
-     * 事件将在后台线程中发布
+     * 事件将在插件的 cpu 线程中发布
      *
      * @param event 事件对象
      */
     public void publishAsync(ReaderEvent event) {
-        CompletableFuture.runAsync(() -> publish(event));
+        CompletableFuture.runAsync(() -> publish(event), ReaderExecutorService.getInstance().cpu());
+    }
+
+    /**
+     * 订阅事件（使用默认队列容量）
+     *
+     * @param parentDisposable 订阅的生命周期（为 null 时随应用关闭）
+     * @param name             订阅者名称（用于日志）
+     * @param policy           投递策略
+     * @param listener         监听器
+     * @return MessageBus 连接，可用于订阅其他主题
+     */
+    public MessageBusConnection subscribe(@Nullable Disposable parentDisposable, String name,
+                                          DeliveryPolicy policy, ReaderEventListener listener) {
+        return subscribe(parentDisposable, name, policy, DEFAULT_QUEUE_CAPACITY, listener);
+    }
+
+    /**
+     * 订阅事件
+     *
+     * @param parentDisposable 订阅的生命周期（为 null 时随应用关闭）
+     * @param name             订阅者名称（用于日志）
+     * @param policy           投递策略
+     * @param capacity         队列容量（同步投递时忽略）
+     * @param listener         监听器
+     * @return MessageBus 连接，可用于订阅其他主题
+     */
+    public MessageBusConnection subscribe(@Nullable Disposable parentDisposable, String name,
+                                          DeliveryPolicy policy, int capacity, ReaderEventListener listener) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("队列容量必须大于 0: " + capacity);
+        }
+
+        ReaderEventListener delivered = policy == DeliveryPolicy.SYNC
+                ? listener
+                : new QueuedEventListener(name, policy, capacity, listener, dispatcher);
+
+        MessageBus messageBus = ApplicationManager.getApplication().getMessageBus();
+        MessageBusConnection connection = parentDisposable != null ? messageBus.connect(parentDisposable) : messageBus.connect();
+        connection.subscribe(ReaderEventListener.TOPIC, delivered);
+
+        log.debug("事件订阅者已注册: name={}, policy={}", name, policy);
+        return connection;
+    }
+
+    /**
+     * 关闭事件线程池（由 IntelliJ Platform 在应用关闭时自动调用）
+     */
+    @Override
+    public void dispose() {
+        dispatcher.shutdownNow();
+        log.debug("EventPublisher 已关闭");
     }
 }
@@ -1,9 +1,8 @@
 package com.nancheung.plugins.jetbrains.legadoreader.event;
 
+import com.nancheung.plugins.jetbrains.legadoreader.common.IdSequence;
 import org.jetbrains.annotations.Nullable;
 
-import java.util.UUID;
-
 /**
  * 分页事件
  * UI 层根据此事件更新当前页显示
@@ -18,9 +17,9 @@ import java.util.UUID;
  * @author NanCheung
  */
 public record PaginationEvent(
-        String eventId,
+        long eventId,
         long timestamp,
-        @Nullable String commandId,
+        long commandId,
         PaginationEventType type,
         int currentPage,
         int totalPages,
@@ -45,9 +44,9 @@ public record PaginationEvent(
     /**
      * 创建"分页完成"事件
      */
-    public static PaginationEvent paginated(@Nullable String commandId, int totalPages, int currentPage, String content) {
+    public static PaginationEvent paginated(long commandId, int totalPages, int currentPage, String content) {
         return new PaginationEvent(
-                UUID.randomUUID().toString(),
+                IdSequence.next(),
                 System.currentTimeMillis(),
                 commandId,
                 PaginationEventType.PAGINATED,
@@ -60,11 +59,11 @@ public record PaginationEvent(
     /**
      * 创建"页码变更"事件
      */
-    public static PaginationEvent pageChanged(int currentPage, int totalPages, String content) {
+    public static PaginationEvent pageChanged(long commandId, int currentPage, int totalPages, String content) {
         return new PaginationEvent(
-                UUID.randomUUID().toString(),
+                IdSequence.next(),
                 System.currentTimeMillis(),
-                null,
+                commandId,
                 PaginationEventType.PAGE_CHANGED,
                 currentPage,
                 totalPages,
@@ -0,0 +1,207 @@
+package com.nancheung.plugins.jetbrains.legadoreader.event;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayDeque;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 排队投递的事件监听器
+ * 发布线程只把事件放入订阅者自己的有界队列，立即返回；
+ * 有事件时在事件线程中连续处理队列中的全部事件，同一订阅者同一时间只有一个线程在处理，保证顺序
+ * <p>
+ * 队列不会超过容量，满时依次：
+ * <ol>
+ *     <li>丢弃最旧的分页事件（携带的是完整的当前页状态，之后的分页事件会覆盖）</li>
+ *     <li>丢弃已有更新的同类阅读事件的旧事件（每类只需要处理最新的一个）</li>
+ *     <li>以上都没有时丢弃新到达的事件并计数，订阅者处理速度跟不上，限频记录警告</li>
+ * </ol>
+ *
+ * @author NanCheung
+ */
+@Slf4j
+final class QueuedEventListener implements ReaderEventListener {
+
+    private final String name;
+
+    private final DeliveryPolicy policy;
+
+    private final int capacity;
+
+    private final ReaderEventListener delegate;
+
+    private final Executor executor;
+
+    /**
+     * 待处理的事件（以自身为锁）
+     */
+    private final ArrayDeque<ReaderEvent> queue = new ArrayDeque<>();
+
+    /**
+     * 是否已有线程在处理队列（由 queue 锁保护）
+     */
+    private boolean draining;
+
+    /**
+     * 队列满时记录警告的最小间隔（纳秒）
+     */
+    private static final long OVERFLOW_WARN_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+    /**
+     * 因队列满而丢弃的新事件数（由 queue 锁保护）
+     */
+    private long droppedCount;
+
+    /**
+     * 上次记录警告时的丢弃数（由 queue 锁保护）
+     */
+    private long reportedDroppedCount;
+
+    /**
+     * 上次记录警告的时间（纳秒，由 queue 锁保护）
+     */
+    private long lastOverflowWarnAt;
+
+    QueuedEventListener(String name, DeliveryPolicy policy, int capacity, ReaderEventListener delegate, Executor executor) {
+        this.name = name;
+        this.policy = policy;
+        this.capacity = capacity;
+        this.delegate = delegate;
+        this.executor = executor;
+    }
+
+    @Override
+    public void onEvent(ReaderEvent event) {
+        synchronized (queue) {
+            enqueue(event);
+            if (draining) {
+                return;
+            }
+            draining = true;
+        }
+
+        try {
+            executor.execute(this::drain);
+        } catch (RejectedExecutionException e) {
+            // 应用关闭中
+            synchronized (queue) {
+                queue.clear();
+                draining = false;
+            }
+        }
+    }
+
+    /**
+     * 放入队列（持有 queue 锁）
+     */
+    private void enqueue(ReaderEvent event) {
+        if (policy == DeliveryPolicy.COALESCE
+                && event instanceof PaginationEvent pagination
+                && queue.peekLast() instanceof PaginationEvent last
+                && last.type() == pagination.type()) {
+            queue.pollLast();
+        }
+
+        if (queue.size() >= capacity) {
+            ReaderEvent dropped = removeOldestPagination();
+            if (dropped == null) {
+                dropped = removeSupersededReading(event);
+            }
+            if (dropped != null) {
+                log.debug("事件队列已满，丢弃事件: subscriber={}, eventId={}", name, dropped.eventId());
+            } else {
+                // 没有可以丢弃的排队事件，订阅者处理速度跟不上，丢弃新事件
+                droppedCount++;
+                warnOverflow();
+                return;
+            }
+        }
+
+        queue.addLast(event);
+    }
+
+    /**
+     * 限频记录队列满的警告（持有 queue 锁）
+     */
+    private void warnOverflow() {
+        long now = System.nanoTime();
+        if (reportedDroppedCount > 0 && now - lastOverflowWarnAt < OVERFLOW_WARN_INTERVAL_NANOS) {
+            return;
+        }
+        log.warn("事件队列已满且没有可合并的事件，丢弃新事件: subscriber={}, capacity={}, 新增丢弃 {} 个，累计 {} 个",
+                name, capacity, droppedCount - reportedDroppedCount, droppedCount);
+        lastOverflowWarnAt = now;
+        reportedDroppedCount = droppedCount;
+    }
+
+    /**
+     * 因队列满而丢弃的新事件数
+     *
+     * @return 丢弃数
+     */
+    long droppedCount() {
+        synchronized (queue) {
+            return droppedCount;
+        }
+    }
+
+    private ReaderEvent removeOldestPagination() {
+        Iterator<ReaderEvent> iterator = queue.iterator();
+        while (iterator.hasNext()) {
+            ReaderEvent event = iterator.next();
+            if (event instanceof PaginationEvent) {
+                iterator.remove();
+                return event;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 移除一个已有更新的同类阅读事件的旧事件（包括新到达的事件）
+     */
+    private ReaderEvent removeSupersededReading(ReaderEvent incoming) {
+        Set<ReadingEvent.ReadingEventType> newer = EnumSet.noneOf(ReadingEvent.ReadingEventType.class);
+        if (incoming instanceof ReadingEvent reading) {
+            newer.add(reading.type());
+        }
+
+        // 从新到旧查找，遇到已出现过的类型即为被取代的旧事件
+        Iterator<ReaderEvent> iterator = queue.descendingIterator();
+        while (iterator.hasNext()) {
+            if (iterator.next() instanceof ReadingEvent reading && !newer.add(reading.type())) {
+                iterator.remove();
+                return reading;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 逐个处理队列中的事件，直到队列为空
+     * 每次只取一个，处理期间到达的分页事件仍可以在队列中合并
+     */
+    private void drain() {
+        while (true) {
+            ReaderEvent event;
+            synchronized (queue) {
+                event = queue.pollFirst();
+                if (event == null) {
+                    draining = false;
+                    return;
+                }
+            }
+
+            try {
+                delegate.onEvent(event);
+            } catch (Exception e) {
+                log.error("事件处理失败: subscriber={}, event={}", name, event.getClass().getSimpleName(), e);
+            }
+        }
+    }
+}
@@ -1,7 +1,5 @@
 package com.nancheung.plugins.jetbrains.legadoreader.event;
 
-import org.jetbrains.annotations.Nullable;
-
 /**
  * 阅读器事件标记接口（sealed）
  * 所有事件都是不可变 Record
@@ -16,9 +14,9 @@ public sealed interface ReaderEvent permits
         PaginationEvent {
 
     /**
-     * 事件唯一 ID
+     * 事件 ID（进程内单调递增，见 {@link com.nancheung.plugins.jetbrains.legadoreader.common.IdSequence}）
      */
-    String eventId();
+    long eventId();
 
     /**
      * 事件时间戳
@@ -26,9 +24,8 @@ public sealed interface ReaderEvent permits
     long timestamp();
 
     /**
-     * 关联的指令 ID（可选）
+     * 关联的指令 ID
      * 用于追踪事件是由哪个指令触发的
      */
-    @Nullable
-    String commandId();
+    long commandId();
 }
@@ -2,10 +2,9 @@ package com.nancheung.plugins.jetbrains.legadoreader.event;
 
 import com.nancheung.plugins.jetbrains.legadoreader.api.dto.BookChapterDTO;
 import com.nancheung.plugins.jetbrains.legadoreader.api.dto.BookDTO;
+import com.nancheung.plugins.jetbrains.legadoreader.common.IdSequence;
 import org.jetbrains.annotations.Nullable;
 
-import java.util.UUID;
-
 /**
  * 阅读内容事件（不可变）
  * 章节加载相关事件
@@ -23,9 +22,9 @@ import java.util.UUID;
  * @author NanCheung
  */
 public record ReadingEvent(
-        String eventId,
+        long eventId,
         long timestamp,
-        @Nullable String commandId,
+        long commandId,
         ReadingEventType type,
         Direction direction,
         @Nullable BookDTO book,
@@ -83,9 +82,9 @@ public record ReadingEvent(
     /**
      * 创建"开始加载章节"事件
      */
-    public static ReadingEvent chapterLoading(@Nullable String commandId, BookDTO book, BookChapterDTO chapter, Direction direction) {
+    public static ReadingEvent chapterLoading(long commandId, BookDTO book, BookChapterDTO chapter, Direction direction) {
         return new ReadingEvent(
-                UUID.randomUUID().toString(),
+                IdSequence.next(),
                 System.currentTimeMillis(),
                 commandId,
                 ReadingEventType.CHAPTER_LOADING,
@@ -102,14 +101,14 @@ public record ReadingEvent(
      * 创建"章节加载成功"事件
      */
     public static ReadingEvent chapterLoaded(
-            @Nullable String commandId,
+            long commandId,
             BookDTO book,
             BookChapterDTO chapter,
             String content,
             int chapterPosition,
             Direction direction) {
         return new ReadingEvent(
-                UUID.randomUUID().toString(),
+                IdSequence.next(),
                 System.currentTimeMillis(),
                 commandId,
                 ReadingEventType.CHAPTER_LOADED,
@@ -126,13 +125,13 @@ public record ReadingEvent(
      * 创建"章节加载失败"事件
      */
     public static ReadingEvent chapterLoadFailed(
-            @Nullable String commandId,
+            long commandId,
             BookDTO book,
             BookChapterDTO chapter,
             Throwable error,
             Direction direction) {
         return new ReadingEvent(
-                UUID.randomUUID().toString(),
+                IdSequence.next(),
                 System.currentTimeMillis(),
                 commandId,
                 ReadingEventType.CHAPTER_LOAD_FAILED,
@@ -148,9 +147,9 @@ public record ReadingEvent(
     /**
      * 创建"会话结束"事件（返回书架）
      */
-    public static ReadingEvent sessionEnded(@Nullable String commandId) {
+    public static ReadingEvent sessionEnded(long commandId) {
         return new ReadingEvent(
-                UUID.randomUUID().toString(),
+                IdSequence.next(),
                 System.currentTimeMillis(),
                 commandId,
                 ReadingEventType.SESSION_ENDED,
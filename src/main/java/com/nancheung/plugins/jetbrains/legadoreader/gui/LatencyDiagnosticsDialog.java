@@ -0,0 +1,144 @@
+package com.nancheung.plugins.jetbrains.legadoreader.gui;
+
+import com.intellij.openapi.fileChooser.FileChooserFactory;
+import com.intellij.openapi.fileChooser.FileSaverDescriptor;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.ui.DialogWrapper;
+import com.intellij.openapi.ui.Messages;
+import com.intellij.openapi.vfs.VirtualFileWrapper;
+import com.intellij.ui.components.JBScrollPane;
+import com.intellij.ui.table.JBTable;
+import com.intellij.util.ui.JBUI;
+import com.nancheung.plugins.jetbrains.legadoreader.metrics.LatencyMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import javax.swing.*;
+import javax.swing.table.DefaultTableModel;
+import java.awt.*;
+import java.awt.event.ActionEvent;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+/**
+ * 延迟诊断对话框
+ * 按指令类型和耗时阶段显示 p50/p95/p99，可导出 JSON 报告
+ * 表格下方显示未能记录的阶段计时次数，不为 0 时说明有样本丢失
+ *
+ * @author NanCheung
+ */
+@Slf4j
+public class LatencyDiagnosticsDialog extends DialogWrapper {
+
+    private static final String[] COLUMNS = {"指令", "阶段", "次数", "p50 (ms)", "p95 (ms)", "p99 (ms)", "最大 (ms)"};
+
+    @Nullable
+    private final Project project;
+
+    private final DefaultTableModel tableModel = new DefaultTableModel(COLUMNS, 0) {
+        @Override
+        public boolean isCellEditable(int row, int column) {
+            return false;
+        }
+    };
+
+    private final JLabel untrackedLabel = new JLabel();
+
+    public LatencyDiagnosticsDialog(@Nullable Project project) {
+        super(project);
+        this.project = project;
+        setTitle("Legado Reader 延迟诊断");
+        setOKButtonText("关闭");
+        init();
+        reload();
+    }
+
+    @Override
+    protected @Nullable JComponent createCenterPanel() {
+        JBTable table = new JBTable(tableModel);
+        table.setAutoCreateRowSorter(true);
+
+        JBScrollPane scrollPane = new JBScrollPane(table);
+        scrollPane.setPreferredSize(JBUI.size(720, 360));
+
+        JPanel panel = new JPanel(new BorderLayout(0, 4));
+        panel.add(scrollPane, BorderLayout.CENTER);
+        panel.add(untrackedLabel, BorderLayout.SOUTH);
+        return panel;
+    }
+
+    @Override
+    protected Action @NotNull [] createLeftSideActions() {
+        return new Action[]{
+                new DialogWrapperAction("刷新") {
+                    @Override
+                    protected void doAction(ActionEvent e) {
+                        reload();
+                    }
+                },
+                new DialogWrapperAction("清空") {
+                    @Override
+                    protected void doAction(ActionEvent e) {
+                        LatencyMetrics.getInstance().reset();
+                        reload();
+                    }
+                },
+                new DialogWrapperAction("导出 JSON...") {
+                    @Override
+                    protected void doAction(ActionEvent e) {
+                        exportJson();
+                    }
+                }
+        };
+    }
+
+    @Override
+    protected Action @NotNull [] createActions() {
+        return new Action[]{getOKAction()};
+    }
+
+    /**
+     * 重新读取统计结果
+     */
+    private void reload() {
+        LatencyMetrics metrics = LatencyMetrics.getInstance();
+
+        tableModel.setRowCount(0);
+        for (LatencyMetrics.Row row : metrics.snapshot()) {
+            tableModel.addRow(new Object[]{
+                    row.type().getDescription(),
+                    row.stage().getDescription(),
+                    row.count(),
+                    row.p50(),
+                    row.p95(),
+                    row.p99(),
+                    row.max()
+            });
+        }
+
+        untrackedLabel.setText("未记录的阶段计时：" + metrics.getUntrackedStarts() + " 次（指令未经过 CommandBus 或已结束跟踪）");
+    }
+
+    /**
+     * 导出 JSON 报告到用户选择的文件
+     */
+    private void exportJson() {
+        FileSaverDescriptor descriptor = new FileSaverDescriptor("导出延迟报告", "保存为 JSON 文件", "json");
+        VirtualFileWrapper target = FileChooserFactory.getInstance()
+                .createSaveFileDialog(descriptor, project)
+                .save("legado-reader-latency.json");
+        if (target == null) {
+            return;
+        }
+
+        try {
+            Files.writeString(target.getFile().toPath(), LatencyMetrics.getInstance().toJson(), StandardCharsets.UTF_8);
+            log.info("延迟报告已导出: {}", target.getFile());
+        } catch (IOException ex) {
+            log.warn("导出延迟报告失败", ex);
+            Messages.showErrorDialog(project, "导出失败：" + ex.getMessage(), "导出延迟报告");
+        }
+    }
+}
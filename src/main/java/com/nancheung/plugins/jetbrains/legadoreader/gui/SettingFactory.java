@@ -164,5 +164,7 @@ public class SettingFactory implements SearchableConfigurable {
         // 新增：保存字体名称和行高
         state.textBodyFontFamily = (String) ui.getTextBodyFontFamilyComboBox().getSelectedItem();
         state.textBodyLineHeight = (double) ui.getTextBodyLineHeightSpinner().getValue();
+
+        PluginSettingsStorage.getInstance().fireSettingsChanged();
     }
 }
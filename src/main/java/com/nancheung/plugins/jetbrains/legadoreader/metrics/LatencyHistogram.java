@@ -0,0 +1,119 @@
+package com.nancheung.plugins.jetbrains.legadoreader.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 延迟直方图（HDR 风格，无锁）
+ * 以微秒为单位记录，桶按对数-线性划分：每个 2 的幂区间再均分为 64 个子桶，相对误差不超过 1/64
+ * 记录只做一次数组原子自增，可在任意线程高频调用
+ *
+ * @author NanCheung
+ */
+public final class LatencyHistogram {
+
+    /**
+     * 子桶数的一半（2^6），决定精度
+     */
+    private static final int SUB_BUCKET_HALF_COUNT_MAGNITUDE = 6;
+
+    private static final int SUB_BUCKET_HALF_COUNT = 1 << SUB_BUCKET_HALF_COUNT_MAGNITUDE;
+
+    /**
+     * 可记录的最大值（微秒），约 1 小时，超出时按最大值记录
+     */
+    private static final long MAX_TRACKABLE_MICROS = TimeUnit.HOURS.toMicros(1);
+
+    /**
+     * 各桶计数
+     */
+    private final AtomicLongArray counts = new AtomicLongArray(indexOf(MAX_TRACKABLE_MICROS) + 1);
+
+    private final AtomicLong totalCount = new AtomicLong();
+
+    private final AtomicLong maxMicros = new AtomicLong();
+
+    /**
+     * 记录一次耗时
+     *
+     * @param nanos 耗时（纳秒）
+     */
+    public void recordNanos(long nanos) {
+        long micros = Math.min(Math.max(0, nanos / 1000), MAX_TRACKABLE_MICROS);
+        counts.incrementAndGet(indexOf(micros));
+        totalCount.incrementAndGet();
+        maxMicros.accumulateAndGet(micros, Math::max);
+    }
+
+    /**
+     * 获取记录次数
+     *
+     * @return 次数
+     */
+    public long getTotalCount() {
+        return totalCount.get();
+    }
+
+    /**
+     * 获取最大耗时
+     *
+     * @return 最大耗时（微秒）
+     */
+    public long getMaxMicros() {
+        return maxMicros.get();
+    }
+
+    /**
+     * 获取百分位耗时
+     * 返回所在桶的上界，结果不会低于实际值
+     *
+     * @param percentile 百分位（0 ~ 100）
+     * @return 耗时（微秒），没有记录时返回 0
+     */
+    public long getPercentileMicros(double percentile) {
+        long total = totalCount.get();
+        if (total == 0) {
+            return 0;
+        }
+
+        long target = Math.max(1, (long) Math.ceil(total * Math.min(percentile, 100) / 100));
+        long seen = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            seen += counts.get(i);
+            if (seen >= target) {
+                return Math.min(highestEquivalentValue(i), maxMicros.get());
+            }
+        }
+        return maxMicros.get();
+    }
+
+    /**
+     * 清空所有记录
+     */
+    public void reset() {
+        for (int i = 0; i < counts.length(); i++) {
+            counts.set(i, 0);
+        }
+        totalCount.set(0);
+        maxMicros.set(0);
+    }
+
+    /**
+     * 计算值所在的桶
+     * 小于 128 的值每个值一个桶；更大的值按最高位所在的 2 的幂区间分组，每组 64 个子桶
+     */
+    private static int indexOf(long value) {
+        int bucket = Math.max(0, 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_HALF_COUNT_MAGNITUDE);
+        return bucket * SUB_BUCKET_HALF_COUNT + (int) (value >>> bucket);
+    }
+
+    /**
+     * 计算桶内可表示的最大值
+     */
+    private static long highestEquivalentValue(int index) {
+        int bucket = Math.max(0, index / SUB_BUCKET_HALF_COUNT - 1);
+        long subBucket = index - (long) bucket * SUB_BUCKET_HALF_COUNT;
+        return ((subBucket + 1) << bucket) - 1;
+    }
+}
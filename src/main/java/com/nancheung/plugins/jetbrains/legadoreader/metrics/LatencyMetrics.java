@@ -0,0 +1,325 @@
+package com.nancheung.plugins.jetbrains.legadoreader.metrics;
+
+import cn.hutool.json.JSONUtil;
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.components.Service;
+import com.nancheung.plugins.jetbrains.legadoreader.command.Command;
+import com.nancheung.plugins.jetbrains.legadoreader.command.CommandType;
+import com.nancheung.plugins.jetbrains.legadoreader.event.CommandEvent;
+import com.nancheung.plugins.jetbrains.legadoreader.event.DeliveryPolicy;
+import com.nancheung.plugins.jetbrains.legadoreader.event.EventPublisher;
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 指令延迟统计（Application Service）
+ * 按指令类型和耗时阶段分别记录到直方图，用于定位"切换章节慢"具体慢在哪个阶段
+ * <p>
+ * 排队和处理阶段由 CommandBus 和指令生命周期事件自动记录；
+ * 网络获取、分页和渲染阶段由对应代码通过 {@link #start(long, LatencyStage)} 计时
+ *
+ * @author NanCheung
+ */
+@Slf4j
+@Service
+public final class LatencyMetrics implements Disposable {
+
+    /**
+     * 同时跟踪的指令数上限，超出时丢弃最早的（处理器未发布完成事件时避免无限增长）
+     */
+    private static final int MAX_TRACKED_COMMANDS = 256;
+
+    /**
+     * 指令结束后继续保留跟踪的时间
+     * 排队投递的订阅者（工具窗口、行内翻页刷新）在指令完成事件之后才收到事件并开始渲染计时
+     */
+    private static final long FINISHED_RETENTION_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+    /**
+     * 不记录任何内容的计时器
+     */
+    private static final Timer NOOP = new Timer(null, null, 0);
+
+    /**
+     * 直方图
+     * key: 指令类型和耗时阶段
+     */
+    private final Map<Key, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+
+    /**
+     * 正在处理和刚结束的指令
+     * key: 指令 ID
+     */
+    private final Map<Long, Trace> traces = Collections.synchronizedMap(new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Trace> eldest) {
+            return size() > MAX_TRACKED_COMMANDS;
+        }
+    });
+
+    /**
+     * 为未跟踪的指令开始阶段计时的次数（这些样本没有记录）
+     * 不为 0 时说明有计时代码在指令跟踪结束后才开始计时
+     */
+    private final LongAdder untrackedStarts = new LongAdder();
+
+    /**
+     * 统计开始时间
+     */
+    private volatile Instant since = Instant.now();
+
+    /**
+     * 直方图 key
+     *
+     * @param type  指令类型
+     * @param stage 耗时阶段
+     */
+    private record Key(CommandType type, LatencyStage stage) {
+    }
+
+    /**
+     * 指令跟踪信息
+     *
+     * @param type         指令类型
+     * @param queuedNanos  进入队列的时间（同步分发时为 0）
+     * @param startedNanos  开始处理的时间（尚未开始时为 0）
+     * @param finishedNanos 处理结束的时间（尚未结束时为 0）
+     */
+    private record Trace(CommandType type, long queuedNanos, long startedNanos, long finishedNanos) {
+
+        /**
+         * 指令结束已超过保留时间
+         */
+        boolean isExpired(long now) {
+            return finishedNanos > 0 && now - finishedNanos > FINISHED_RETENTION_NANOS;
+        }
+    }
+
+    /**
+     * 统计结果（单位：毫秒）
+     *
+     * @param type  指令类型
+     * @param stage 耗时阶段
+     * @param count 记录次数
+     * @param p50   50 分位
+     * @param p95   95 分位
+     * @param p99   99 分位
+     * @param max   最大值
+     */
+    public record Row(CommandType type, LatencyStage stage, long count, double p50, double p95, double p99, double max) {
+    }
+
+    /**
+     * 阶段计时器
+     * 可以在一个线程开始、在另一个线程结束，每个计时器只应关闭一次
+     */
+    public static final class Timer implements AutoCloseable {
+
+        private final CommandType type;
+
+        private final LatencyStage stage;
+
+        private final long startNanos;
+
+        private Timer(@Nullable CommandType type, @Nullable LatencyStage stage, long startNanos) {
+            this.type = type;
+            this.stage = stage;
+            this.startNanos = startNanos;
+        }
+
+        @Override
+        public void close() {
+            if (type != null) {
+                getInstance().record(type, stage, System.nanoTime() - startNanos);
+            }
+        }
+    }
+
+    /**
+     * 构造函数（由 IntelliJ Platform 调用）
+     * 订阅指令生命周期事件，在指令完成或失败时记录处理耗时（跟踪继续保留一段时间，供渲染计时使用），
+     * 取消时只结束跟踪
+     */
+    public LatencyMetrics() {
+        // 同步处理，指令结束时立即停止计时
+        EventPublisher.getInstance().subscribe(this, "LatencyMetrics", DeliveryPolicy.SYNC, event -> {
+            if (event instanceof CommandEvent e) {
+                switch (e.status()) {
+                    case SUCCESS, FAILED -> finished(e.commandId());
+                    // 被取代的指令不计入处理耗时
+                    case CANCELLED -> traces.remove(e.commandId());
+                    default -> {
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * 获取服务实例
+     *
+     * @return 服务实例
+     */
+    public static LatencyMetrics getInstance() {
+        return ApplicationManager.getApplication().getService(LatencyMetrics.class);
+    }
+
+    /**
+     * 指令进入异步分发队列
+     *
+     * @param command 指令
+     */
+    public void queued(Command command) {
+        traces.put(command.id(), new Trace(command.type(), System.nanoTime(), 0, 0));
+    }
+
+    /**
+     * 指令开始处理，如果经过了异步队列则记录排队耗时
+     *
+     * @param command 指令
+     */
+    public void started(Command command) {
+        long now = System.nanoTime();
+        Trace queued = traces.put(command.id(), new Trace(command.type(), 0, now, 0));
+        if (queued != null && queued.queuedNanos() > 0) {
+            record(command.type(), LatencyStage.QUEUE, now - queued.queuedNanos());
+        }
+    }
+
+    /**
+     * 开始为指令的某个阶段计时
+     * 指令未经过 CommandBus、已取消或结束已超过保留时间时返回不记录的计时器
+     *
+     * @param commandId 指令 ID
+     * @param stage     耗时阶段
+     * @return 计时器，阶段结束时关闭
+     */
+    public Timer start(long commandId, LatencyStage stage) {
+        long now = System.nanoTime();
+        Trace trace = traces.get(commandId);
+        if (trace != null && trace.isExpired(now)) {
+            traces.remove(commandId);
+            trace = null;
+        }
+        if (trace == null) {
+            untrackedStarts.increment();
+            if (log.isDebugEnabled()) {
+                log.debug("指令未跟踪，不记录阶段耗时: commandId={}, stage={}", commandId, stage);
+            }
+            return NOOP;
+        }
+        return new Timer(trace.type(), stage, now);
+    }
+
+    /**
+     * 记录一次耗时
+     *
+     * @param type  指令类型
+     * @param stage 耗时阶段
+     * @param nanos 耗时（纳秒）
+     */
+    public void record(CommandType type, LatencyStage stage, long nanos) {
+        histograms.computeIfAbsent(new Key(type, stage), k -> new LatencyHistogram()).recordNanos(nanos);
+    }
+
+    /**
+     * 获取为未跟踪的指令开始阶段计时的次数
+     *
+     * @return 次数（自上次清空以来）
+     */
+    public long getUntrackedStarts() {
+        return untrackedStarts.sum();
+    }
+
+    /**
+     * 获取统计结果
+     * 按指令类型、耗时阶段的定义顺序排列
+     *
+     * @return 统计结果
+     */
+    public List<Row> snapshot() {
+        List<Row> rows = new ArrayList<>();
+        for (CommandType type : CommandType.values()) {
+            for (LatencyStage stage : LatencyStage.values()) {
+                LatencyHistogram histogram = histograms.get(new Key(type, stage));
+                if (histogram == null || histogram.getTotalCount() == 0) {
+                    continue;
+                }
+                rows.add(new Row(type, stage, histogram.getTotalCount(),
+                        toMillis(histogram.getPercentileMicros(50)),
+                        toMillis(histogram.getPercentileMicros(95)),
+                        toMillis(histogram.getPercentileMicros(99)),
+                        toMillis(histogram.getMaxMicros())));
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * 生成 JSON 报告
+     *
+     * @return JSON 字符串
+     */
+    public String toJson() {
+        Map<String, Map<String, Object>> commands = new LinkedHashMap<>();
+        for (Row row : snapshot()) {
+            Map<String, Object> stage = new LinkedHashMap<>();
+            stage.put("count", row.count());
+            stage.put("p50Ms", row.p50());
+            stage.put("p95Ms", row.p95());
+            stage.put("p99Ms", row.p99());
+            stage.put("maxMs", row.max());
+            commands.computeIfAbsent(row.type().name(), k -> new LinkedHashMap<>()).put(row.stage().name(), stage);
+        }
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("since", since.toString());
+        report.put("generatedAt", Instant.now().toString());
+        report.put("untrackedStageStarts", untrackedStarts.sum());
+        report.put("commands", commands);
+        return JSONUtil.toJsonPrettyStr(report);
+    }
+
+    /**
+     * 清空统计结果
+     */
+    public void reset() {
+        histograms.values().forEach(LatencyHistogram::reset);
+        untrackedStarts.reset();
+        since = Instant.now();
+        log.info("延迟统计已清空");
+    }
+
+    /**
+     * 指令处理结束，记录处理耗时
+     * 跟踪继续保留 {@link #FINISHED_RETENTION_NANOS}，之后才开始的渲染计时仍能记录
+     */
+    private void finished(long commandId) {
+        long now = System.nanoTime();
+        Trace trace = traces.get(commandId);
+        if (trace == null || trace.finishedNanos() > 0) {
+            return;
+        }
+
+        traces.put(commandId, new Trace(trace.type(), trace.queuedNanos(), trace.startedNanos(), now));
+        if (trace.startedNanos() > 0) {
+            record(trace.type(), LatencyStage.HANDLER, now - trace.startedNanos());
+        }
+    }
+
+    private static double toMillis(long micros) {
+        return micros / 1000.0;
+    }
+
+    @Override
+    public void dispose() {
+        traces.clear();
+    }
+}
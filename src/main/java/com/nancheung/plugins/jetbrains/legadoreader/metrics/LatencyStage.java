@@ -0,0 +1,43 @@
+package com.nancheung.plugins.jetbrains.legadoreader.metrics;
+
+/**
+ * 指令耗时阶段
+ *
+ * @author NanCheung
+ */
+public enum LatencyStage {
+    /**
+     * 排队：从异步分发到开始处理
+     */
+    QUEUE("排队"),
+
+    /**
+     * 处理：从开始处理到处理器发布完成或失败事件
+     */
+    HANDLER("处理"),
+
+    /**
+     * 网络获取：获取目录和正文（含缓存命中）
+     */
+    NETWORK("网络获取"),
+
+    /**
+     * 分页：计算页边界并定位当前页
+     */
+    PAGINATION("分页"),
+
+    /**
+     * 渲染：从收到内容到界面重绘完成
+     */
+    RENDER("渲染");
+
+    private final String description;
+
+    LatencyStage(String description) {
+        this.description = description;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+}
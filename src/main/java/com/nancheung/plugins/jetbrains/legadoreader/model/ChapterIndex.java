@@ -0,0 +1,577 @@
+package com.nancheung.plugins.jetbrains.legadoreader.model;
+
+import com.nancheung.plugins.jetbrains.legadoreader.api.dto.BookChapterDTO;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.RandomAccess;
+
+/**
+ * 紧凑的章节目录（不可变）
+ * 按列存储：所有文本字段共用一个字符缓冲区，其余字段使用基本类型数组，
+ * 避免为每个章节创建 BookChapterDTO 及其装箱字段。
+ * 作为 List 使用时按需生成 BookChapterDTO 视图
+ *
+ * @author NanCheung
+ */
+public final class ChapterIndex extends AbstractList<BookChapterDTO> implements RandomAccess {
+
+    /**
+     * 文本字段：标题
+     */
+    public static final int TITLE = 0;
+    /**
+     * 文本字段：章节 url
+     */
+    public static final int URL = 1;
+    /**
+     * 文本字段：目录页 url
+     */
+    public static final int BASE_URL = 2;
+    /**
+     * 文本字段：标签
+     */
+    public static final int TAG = 3;
+
+    private static final int TEXT_FIELD_COUNT = 4;
+
+    private static final byte FLAG_VOLUME = 1;
+    private static final byte FLAG_PAY = 1 << 1;
+    private static final byte FLAG_VIP = 1 << 2;
+
+    /**
+     * 二进制格式版本
+     */
+    private static final int FORMAT_VERSION = 1;
+
+    private static final ChapterIndex EMPTY = new Builder().build();
+
+    /**
+     * 书籍 url（所有章节共用）
+     */
+    @Nullable
+    private final String bookUrl;
+
+    /**
+     * 章节数
+     */
+    private final int size;
+
+    /**
+     * 所有文本字段共用的字符缓冲区
+     */
+    private final char[] chars;
+
+    /**
+     * 文本字段在缓冲区中的区间
+     * 第 i 章第 f 个字段的起止位置为 spans[(i * 4 + f) * 2] 和 spans[(i * 4 + f) * 2 + 1]
+     */
+    private final int[] spans;
+
+    /**
+     * 章节索引
+     */
+    private final int[] indexes;
+
+    /**
+     * 章节标志位（卷名、付费、VIP）
+     */
+    private final byte[] flags;
+
+    private ChapterIndex(@Nullable String bookUrl, int size, char[] chars, int[] spans, int[] indexes, byte[] flags) {
+        this.bookUrl = bookUrl;
+        this.size = size;
+        this.chars = chars;
+        this.spans = spans;
+        this.indexes = indexes;
+        this.flags = flags;
+    }
+
+    /**
+     * 获取空目录
+     *
+     * @return 空目录
+     */
+    public static ChapterIndex empty() {
+        return EMPTY;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * 按需生成章节 DTO 视图
+     * 每次调用都会创建新对象，高频场景请使用 {@link #title(int)} 等列访问方法
+     *
+     * @param i 位置
+     * @return 章节 DTO
+     */
+    @Override
+    public BookChapterDTO get(int i) {
+        checkIndex(i);
+
+        BookChapterDTO chapter = new BookChapterDTO();
+        chapter.setBookUrl(bookUrl);
+        chapter.setIndex(indexes[i]);
+        chapter.setTitle(text(i, TITLE));
+        chapter.setUrl(text(i, URL));
+        chapter.setBaseUrl(emptyToNull(text(i, BASE_URL)));
+        chapter.setTag(emptyToNull(text(i, TAG)));
+        chapter.setIsVolume((flags[i] & FLAG_VOLUME) != 0);
+        chapter.setIsPay((flags[i] & FLAG_PAY) != 0);
+        chapter.setIsVip((flags[i] & FLAG_VIP) != 0);
+        return chapter;
+    }
+
+    /**
+     * 获取书籍 url
+     *
+     * @return 书籍 url，可能为 null
+     */
+    @Nullable
+    public String bookUrl() {
+        return bookUrl;
+    }
+
+    /**
+     * 获取章节标题
+     *
+     * @param i 位置
+     * @return 标题
+     */
+    public String title(int i) {
+        checkIndex(i);
+        return text(i, TITLE);
+    }
+
+    /**
+     * 获取章节 url
+     *
+     * @param i 位置
+     * @return 章节 url
+     */
+    public String url(int i) {
+        checkIndex(i);
+        return text(i, URL);
+    }
+
+    /**
+     * 获取章节索引
+     *
+     * @param i 位置
+     * @return 章节索引
+     */
+    public int chapterIndex(int i) {
+        checkIndex(i);
+        return indexes[i];
+    }
+
+    /**
+     * 是否为卷名
+     *
+     * @param i 位置
+     * @return true 如果是卷名
+     */
+    public boolean isVolume(int i) {
+        checkIndex(i);
+        return (flags[i] & FLAG_VOLUME) != 0;
+    }
+
+    /**
+     * 比较指定章节的文本字段是否与给定字符相同（不创建字符串）
+     *
+     * @param i      位置
+     * @param field  文本字段
+     * @param source 字符数组
+     * @param offset 起始位置
+     * @param length 长度
+     * @return true 如果相同
+     */
+    public boolean textEquals(int i, int field, char[] source, int offset, int length) {
+        checkIndex(i);
+        int span = (i * TEXT_FIELD_COUNT + field) * 2;
+        return Arrays.equals(chars, spans[span], spans[span + 1], source, offset, offset + length);
+    }
+
+    /**
+     * 写出为二进制格式
+     *
+     * @param out 输出流
+     * @throws IOException 写入失败
+     */
+    public void writeTo(DataOutput out) throws IOException {
+        out.writeInt(FORMAT_VERSION);
+        out.writeBoolean(bookUrl != null);
+        if (bookUrl != null) {
+            out.writeUTF(bookUrl);
+        }
+        out.writeInt(size);
+        out.writeInt(chars.length);
+        for (char c : chars) {
+            out.writeChar(c);
+        }
+        for (int span : spans) {
+            out.writeInt(span);
+        }
+        for (int index : indexes) {
+            out.writeInt(index);
+        }
+        out.write(flags);
+    }
+
+    /**
+     * 从二进制格式读取
+     *
+     * @param in 输入流
+     * @return 章节目录
+     * @throws IOException 读取失败或格式不兼容
+     */
+    public static ChapterIndex readFrom(DataInput in) throws IOException {
+        int version = in.readInt();
+        if (version != FORMAT_VERSION) {
+            throw new IOException("不支持的目录格式版本: " + version);
+        }
+
+        String bookUrl = in.readBoolean() ? in.readUTF() : null;
+        int size = in.readInt();
+        int charCount = in.readInt();
+        if (size < 0 || charCount < 0) {
+            throw new IOException("目录数据损坏");
+        }
+
+        char[] chars = new char[charCount];
+        for (int i = 0; i < charCount; i++) {
+            chars[i] = in.readChar();
+        }
+        int[] spans = new int[size * TEXT_FIELD_COUNT * 2];
+        for (int i = 0; i < spans.length; i++) {
+            spans[i] = in.readInt();
+            if (spans[i] < 0 || spans[i] > charCount) {
+                throw new IOException("目录数据损坏");
+            }
+        }
+        int[] indexes = new int[size];
+        for (int i = 0; i < size; i++) {
+            indexes[i] = in.readInt();
+        }
+        byte[] flags = new byte[size];
+        in.readFully(flags);
+
+        return new ChapterIndex(bookUrl, size, chars, spans, indexes, flags);
+    }
+
+    private String text(int i, int field) {
+        int span = (i * TEXT_FIELD_COUNT + field) * 2;
+        return new String(chars, spans[span], spans[span + 1] - spans[span]);
+    }
+
+    private void checkIndex(int i) {
+        if (i < 0 || i >= size) {
+            throw new IndexOutOfBoundsException("Index: " + i + ", Size: " + size);
+        }
+    }
+
+    @Nullable
+    private static String emptyToNull(String text) {
+        return text.isEmpty() ? null : text;
+    }
+
+    /**
+     * 目录构建器（非线程安全）
+     * 用法：begin() → text()/index()/volume() → end()，重复直到 build()
+     */
+    public static final class Builder {
+
+        /**
+         * 未设置的章节索引，构建时取章节在最终目录中的位置
+         */
+        private static final int UNSET_INDEX = Integer.MIN_VALUE;
+
+        private String bookUrl;
+        private int size;
+        private char[] chars = new char[1024];
+        private int charCount;
+        private int[] spans = new int[64 * TEXT_FIELD_COUNT * 2];
+        private int[] indexes = new int[64];
+        private byte[] flags = new byte[64];
+        private int chapterStartChars;
+
+        /**
+         * 开始一个新章节
+         * 未设置的文本字段为空串，索引默认为章节在最终目录中的位置（以另一目录为前缀构建时包括前缀）
+         *
+         * @return this
+         */
+        public Builder begin() {
+            chapterStartChars = charCount;
+            ensureChapterCapacity(size + 1);
+            int base = size * TEXT_FIELD_COUNT * 2;
+            Arrays.fill(spans, base, base + TEXT_FIELD_COUNT * 2, charCount);
+            indexes[size] = UNSET_INDEX;
+            flags[size] = 0;
+            return this;
+        }
+
+        /**
+         * 设置当前章节的文本字段
+         * 与上一章相同的值复用同一段缓冲区（如目录页 url）
+         *
+         * @param field  文本字段
+         * @param source 字符数组
+         * @param offset 起始位置
+         * @param length 长度
+         * @return this
+         */
+        public Builder text(int field, char[] source, int offset, int length) {
+            int span = (size * TEXT_FIELD_COUNT + field) * 2;
+
+            if (size > 0) {
+                int previous = span - TEXT_FIELD_COUNT * 2;
+                if (Arrays.equals(chars, spans[previous], spans[previous + 1], source, offset, offset + length)) {
+                    spans[span] = spans[previous];
+                    spans[span + 1] = spans[previous + 1];
+                    return this;
+                }
+            }
+
+            ensureCharCapacity(charCount + length);
+            System.arraycopy(source, offset, chars, charCount, length);
+            spans[span] = charCount;
+            spans[span + 1] = charCount + length;
+            charCount += length;
+            return this;
+        }
+
+        /**
+         * 设置当前章节的文本字段
+         *
+         * @param field 文本字段
+         * @param value 字段值（null 视为空串）
+         * @return this
+         */
+        public Builder text(int field, @Nullable String value) {
+            if (value == null || value.isEmpty()) {
+                return this;
+            }
+            return text(field, value.toCharArray(), 0, value.length());
+        }
+
+        /**
+         * 设置当前章节的索引
+         *
+         * @param index 章节索引
+         * @return this
+         */
+        public Builder index(int index) {
+            indexes[size] = index;
+            return this;
+        }
+
+        /**
+         * 设置当前章节是否为卷名
+         *
+         * @param volume 是否为卷名
+         * @return this
+         */
+        public Builder volume(boolean volume) {
+            return flag(FLAG_VOLUME, volume);
+        }
+
+        /**
+         * 设置当前章节是否付费
+         *
+         * @param pay 是否付费
+         * @return this
+         */
+        public Builder pay(boolean pay) {
+            return flag(FLAG_PAY, pay);
+        }
+
+        /**
+         * 设置当前章节是否 VIP
+         *
+         * @param vip 是否 VIP
+         * @return this
+         */
+        public Builder vip(boolean vip) {
+            return flag(FLAG_VIP, vip);
+        }
+
+        /**
+         * 结束当前章节
+         *
+         * @return this
+         */
+        public Builder end() {
+            size++;
+            return this;
+        }
+
+        /**
+         * 丢弃当前章节（代替 end() 调用），释放其占用的缓冲区
+         *
+         * @return this
+         */
+        public Builder discard() {
+            charCount = chapterStartChars;
+            return this;
+        }
+
+        /**
+         * 当前章节是否与另一目录中的指定章节完全相同（所有文本字段、索引和标志位）
+         * 只比较标题时，标题不变而 url 变化的章节（如换源后）会错误地沿用旧 url；
+         * 未设置索引时按复用后所在的位置 i 比较
+         *
+         * @param other 另一目录
+         * @param i     另一目录中的位置
+         * @return true 如果相同
+         */
+        public boolean currentEquals(ChapterIndex other, int i) {
+            other.checkIndex(i);
+            int index = indexes[size] != UNSET_INDEX ? indexes[size] : i;
+            if (index != other.indexes[i] || flags[size] != other.flags[i]) {
+                return false;
+            }
+
+            for (int field = 0; field < TEXT_FIELD_COUNT; field++) {
+                int span = (size * TEXT_FIELD_COUNT + field) * 2;
+                if (!other.textEquals(i, field, chars, spans[span], spans[span + 1] - spans[span])) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * 设置书籍 url（仅第一次生效）
+         *
+         * @param bookUrl 书籍 url
+         * @return this
+         */
+        public Builder bookUrl(@Nullable String bookUrl) {
+            if (this.bookUrl == null) {
+                this.bookUrl = bookUrl;
+            }
+            return this;
+        }
+
+        /**
+         * 是否已设置书籍 url
+         *
+         * @return true 如果已设置
+         */
+        public boolean hasBookUrl() {
+            return bookUrl != null;
+        }
+
+        /**
+         * 已添加的章节数
+         *
+         * @return 章节数
+         */
+        public int size() {
+            return size;
+        }
+
+        /**
+         * 构建不可变目录（裁剪多余容量）
+         *
+         * @return 章节目录
+         */
+        public ChapterIndex build() {
+            return new ChapterIndex(
+                    bookUrl,
+                    size,
+                    Arrays.copyOf(chars, charCount),
+                    Arrays.copyOf(spans, size * TEXT_FIELD_COUNT * 2),
+                    resolveIndexes(0),
+                    Arrays.copyOf(flags, size)
+            );
+        }
+
+        /**
+         * 以另一目录的前若干章为前缀，拼接已添加的章节构建目录
+         * 用于目录增量同步：未变化的前缀直接复用，只解码变化的尾部
+         *
+         * @param prefix      前缀来源
+         * @param prefixCount 复用的章节数
+         * @return 章节目录
+         */
+        public ChapterIndex build(ChapterIndex prefix, int prefixCount) {
+            if (prefixCount <= 0) {
+                return build();
+            }
+
+            // 前缀章节使用的字符区间总是从 0 开始连续分配
+            int prefixSpanCount = prefixCount * TEXT_FIELD_COUNT * 2;
+            int prefixChars = 0;
+            for (int i = 0; i < prefixSpanCount; i++) {
+                prefixChars = Math.max(prefixChars, prefix.spans[i]);
+            }
+
+            int total = prefixCount + size;
+            char[] newChars = new char[prefixChars + charCount];
+            System.arraycopy(prefix.chars, 0, newChars, 0, prefixChars);
+            System.arraycopy(chars, 0, newChars, prefixChars, charCount);
+
+            int[] newSpans = new int[total * TEXT_FIELD_COUNT * 2];
+            System.arraycopy(prefix.spans, 0, newSpans, 0, prefixSpanCount);
+            for (int i = 0; i < size * TEXT_FIELD_COUNT * 2; i++) {
+                newSpans[prefixSpanCount + i] = spans[i] + prefixChars;
+            }
+
+            int[] newIndexes = new int[total];
+            System.arraycopy(prefix.indexes, 0, newIndexes, 0, prefixCount);
+            System.arraycopy(resolveIndexes(prefixCount), 0, newIndexes, prefixCount, size);
+
+            byte[] newFlags = new byte[total];
+            System.arraycopy(prefix.flags, 0, newFlags, 0, prefixCount);
+            System.arraycopy(flags, 0, newFlags, prefixCount, size);
+
+            return new ChapterIndex(bookUrl != null ? bookUrl : prefix.bookUrl, total, newChars, newSpans, newIndexes, newFlags);
+        }
+
+        /**
+         * 复制已添加章节的索引，未设置的取 offset + 位置
+         */
+        private int[] resolveIndexes(int offset) {
+            int[] resolved = Arrays.copyOf(indexes, size);
+            for (int i = 0; i < size; i++) {
+                if (resolved[i] == UNSET_INDEX) {
+                    resolved[i] = offset + i;
+                }
+            }
+            return resolved;
+        }
+
+        private Builder flag(byte mask, boolean value) {
+            if (value) {
+                flags[size] |= mask;
+            } else {
+                flags[size] &= (byte) ~mask;
+            }
+            return this;
+        }
+
+        private void ensureChapterCapacity(int capacity) {
+            if (capacity > indexes.length) {
+                int newCapacity = Math.max(capacity, indexes.length * 2);
+                spans = Arrays.copyOf(spans, newCapacity * TEXT_FIELD_COUNT * 2);
+                indexes = Arrays.copyOf(indexes, newCapacity);
+                flags = Arrays.copyOf(flags, newCapacity);
+            }
+        }
+
+        private void ensureCharCapacity(int capacity) {
+            if (capacity > chars.length) {
+                chars = Arrays.copyOf(chars, Math.max(capacity, chars.length * 2));
+            }
+        }
+    }
+}
@@ -0,0 +1,240 @@
+package com.nancheung.plugins.jetbrains.legadoreader.service;
+
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.components.Service;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.Task;
+import com.nancheung.plugins.jetbrains.legadoreader.api.ApiUtil;
+import com.nancheung.plugins.jetbrains.legadoreader.api.dto.BookDTO;
+import com.nancheung.plugins.jetbrains.legadoreader.command.Command;
+import com.nancheung.plugins.jetbrains.legadoreader.event.CommandEvent;
+import com.nancheung.plugins.jetbrains.legadoreader.event.EventPublisher;
+import com.nancheung.plugins.jetbrains.legadoreader.model.ChapterIndex;
+import com.nancheung.plugins.jetbrains.legadoreader.storage.OfflineBookStorage;
+import com.nancheung.plugins.jetbrains.legadoreader.storage.PluginSettingsStorage;
+import com.nancheung.plugins.jetbrains.legadoreader.storage.TocSnapshotStorage;
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 书籍下载服务（Application Service）
+ * 将整本书籍的章节目录和全部正文下载到 {@link OfflineBookStorage}，供服务器不可用时阅读
+ * <p>
+ * 下载在后台任务中进行，进度显示在状态栏，可以随时取消；
+ * 已下载的章节不会重复下载，中断（取消、失败、关闭 IDE）后再次下载即可续传
+ *
+ * @author NanCheung
+ */
+@Slf4j
+@Service
+public final class BookDownloadService implements Disposable {
+
+    /**
+     * 下载章节的最大并发数（避免压垮阅读服务器）
+     */
+    private static final int DOWNLOAD_CONCURRENCY = 4;
+
+    /**
+     * 等待下载完成时检查取消的间隔
+     */
+    private static final long CANCEL_CHECK_MILLIS = 200;
+
+    /**
+     * 下载线程池
+     */
+    private final ExecutorService executor;
+
+    /**
+     * 正在下载的书籍 url
+     */
+    private final Set<String> downloading = ConcurrentHashMap.newKeySet();
+
+    /**
+     * 构造函数（由 IntelliJ Platform 调用）
+     */
+    public BookDownloadService() {
+        // 下载单独限流，不占用指令处理的 io 通道
+        executor = ReaderExecutorService.newVirtualThreadLane("LegadoReader-download", DOWNLOAD_CONCURRENCY);
+    }
+
+    /**
+     * 获取服务实例
+     *
+     * @return 服务实例
+     */
+    public static BookDownloadService getInstance() {
+        return ApplicationManager.getApplication().getService(BookDownloadService.class);
+    }
+
+    /**
+     * 书籍是否正在下载
+     *
+     * @param bookUrl 书籍 url
+     * @return true 如果正在下载
+     */
+    public boolean isDownloading(String bookUrl) {
+        return downloading.contains(bookUrl);
+    }
+
+    /**
+     * 在后台下载整本书籍
+     * 结束后为指令发布完成、失败或取消事件
+     *
+     * @param command 下载指令
+     * @param book    书籍信息
+     */
+    public void download(Command command, BookDTO book) {
+        String bookUrl = book.getBookUrl();
+        if (!downloading.add(bookUrl)) {
+            EventPublisher.getInstance().publish(CommandEvent.failed(command, "正在下载: " + book.getName()));
+            return;
+        }
+
+        new Task.Backgroundable(null, "下载书籍: " + book.getName(), true) {
+            @Override
+            public void run(@NotNull ProgressIndicator indicator) {
+                runDownload(command, book, indicator);
+            }
+
+            @Override
+            public void onFinished() {
+                downloading.remove(bookUrl);
+            }
+        }.queue();
+    }
+
+    private void runDownload(Command command, BookDTO book, ProgressIndicator indicator) {
+        EventPublisher publisher = EventPublisher.getInstance();
+        OfflineBookStorage storage = OfflineBookStorage.getInstance();
+        String bookUrl = book.getBookUrl();
+
+        // 1. 获取并保存章节目录
+        indicator.setIndeterminate(true);
+        indicator.setText("获取目录: " + book.getName());
+
+        ChapterIndex chapters;
+        try {
+            chapters = ApiUtil.getChapterList(bookUrl);
+            storage.saveChapters(bookUrl, new TocSnapshotStorage.Snapshot(TocSnapshotStorage.Fingerprint.of(book), chapters));
+        } catch (Exception e) {
+            publisher.publish(CommandEvent.failed(command, "获取目录失败: " + e.getMessage()));
+            if (Boolean.TRUE.equals(PluginSettingsStorage.getInstance().getState().enableErrorLog)) {
+                log.error("下载书籍失败: {}", book.getName(), e);
+            }
+            return;
+        }
+
+        // 2. 跳过已下载的章节（续传）
+        int total = chapters.size();
+        List<Integer> missing = new ArrayList<>();
+        for (int i = 0; i < total; i++) {
+            if (!storage.hasContent(bookUrl, i)) {
+                missing.add(i);
+            }
+        }
+
+        AtomicInteger downloaded = new AtomicInteger(total - missing.size());
+        AtomicInteger failed = new AtomicInteger();
+
+        indicator.setIndeterminate(false);
+        indicator.setText("下载章节: " + book.getName());
+        reportProgress(indicator, downloaded.get(), total);
+
+        log.info("下载书籍: book={}, chapters={}, 待下载={}", book.getName(), total, missing.size());
+
+        // 3. 并行下载缺少的章节（并发数由线程池限制），单章失败不影响其他章节
+        List<Future<?>> tasks = new ArrayList<>(missing.size());
+        try {
+            for (int index : missing) {
+                tasks.add(executor.submit(() -> {
+                    if (indicator.isCanceled()) {
+                        return;
+                    }
+                    try {
+                        String content = ApiUtil.fetchBookContent(bookUrl, index);
+                        if (content == null) {
+                            throw new IllegalStateException("章节正文为空");
+                        }
+                        storage.saveContent(bookUrl, index, content);
+                        reportProgress(indicator, downloaded.incrementAndGet(), total);
+                    } catch (Exception e) {
+                        failed.incrementAndGet();
+                        log.debug("下载章节失败: index={}", index, e);
+                    }
+                }));
+            }
+        } catch (RejectedExecutionException e) {
+            // 应用关闭中
+            tasks.forEach(task -> task.cancel(true));
+            publisher.publish(CommandEvent.cancelled(command));
+            return;
+        }
+
+        // 4. 等待全部完成，期间响应取消
+        if (!awaitAll(tasks, indicator)) {
+            publisher.publish(CommandEvent.cancelled(command));
+            log.info("下载已取消: book={}, 已下载 {}/{}", book.getName(), downloaded.get(), total);
+            return;
+        }
+
+        if (failed.get() > 0) {
+            publisher.publish(CommandEvent.failed(command,
+                    String.format("%d 章下载失败（已下载 %d/%d），再次下载可继续", failed.get(), downloaded.get(), total)));
+            log.warn("下载未完成: book={}, 失败 {} 章", book.getName(), failed.get());
+            return;
+        }
+
+        publisher.publish(CommandEvent.completed(command, "下载完成: " + book.getName() + "（" + total + " 章）"));
+        log.info("下载完成: book={}, chapters={}", book.getName(), total);
+    }
+
+    /**
+     * 等待所有下载任务结束
+     *
+     * @return true 如果全部结束，false 如果被取消（此时取消所有任务）
+     */
+    private static boolean awaitAll(List<Future<?>> tasks, ProgressIndicator indicator) {
+        for (Future<?> task : tasks) {
+            while (true) {
+                if (indicator.isCanceled()) {
+                    tasks.forEach(t -> t.cancel(true));
+                    return false;
+                }
+                try {
+                    task.get(CANCEL_CHECK_MILLIS, TimeUnit.MILLISECONDS);
+                    break;
+                } catch (TimeoutException e) {
+                    // 继续等待
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    tasks.forEach(t -> t.cancel(true));
+                    return false;
+                } catch (ExecutionException | CancellationException e) {
+                    break;
+                }
+            }
+        }
+        return true;
+    }
+
+    private static void reportProgress(ProgressIndicator indicator, int downloaded, int total) {
+        indicator.setFraction(total > 0 ? (double) downloaded / total : 1.0);
+        indicator.setText2(downloaded + " / " + total + " 章");
+    }
+
+    /**
+     * 关闭线程池（由 IntelliJ Platform 在应用关闭时自动调用）
+     */
+    @Override
+    public void dispose() {
+        executor.shutdownNow();
+        log.debug("BookDownloadService 已关闭");
+    }
+}
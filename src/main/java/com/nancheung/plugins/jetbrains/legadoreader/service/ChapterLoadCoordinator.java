@@ -0,0 +1,288 @@
+package com.nancheung.plugins.jetbrains.legadoreader.service;
+
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.components.Service;
+import com.nancheung.plugins.jetbrains.legadoreader.model.ReadingSessionState;
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * 章节加载协调器（Application Service）
+ * 同一时间只有一个章节加载生效：新的章节指令会取代尚未完成的加载，
+ * 取消其后台任务（连同正在进行的 HTTP 请求），并以被取代的目标章节为基准计算新的目标
+ * <p>
+ * 例如连续按三次"下一章"，只会加载第三章之后的那一章，而不是排队加载三次或拒绝后两次
+ * <p>
+ * 不使用锁：开始加载时先以占位抢占 pending，抢占成功后状态机才转换到 LOADING 并得到新的版本，
+ * 保证 pending 中的加载总是持有最新的 LOADING 版本；提交时按该版本比较并转换，被取代（版本已变化）的加载提交失败
+ *
+ * @author NanCheung
+ */
+@Slf4j
+@Service
+public final class ChapterLoadCoordinator {
+
+    /**
+     * 表示需要重试的占位加载
+     */
+    private static final ChapterLoad RETRY = new ChapterLoad(-1L, -1, new ReadingSessionStateMachine.VersionedState(ReadingSessionState.IDLE, -1));
+
+    /**
+     * 正在进行的加载
+     * 提交成功后、会话更新完成前仍保留，使新的指令以其目标章节为基准
+     */
+    private final AtomicReference<ChapterLoad> pending = new AtomicReference<>();
+
+    /**
+     * 一次章节加载
+     */
+    public static final class ChapterLoad {
+
+        private final long commandId;
+
+        private final int targetIndex;
+
+        /**
+         * 开始加载时的状态（LOADING 及其版本）
+         */
+        private final ReadingSessionStateMachine.VersionedState loadingState;
+
+        /**
+         * 是否是正在开始新加载的占位（状态转换期间占用 pending，其他指令等待其完成）
+         * 每次开始使用新的占位，避免 cancelAll 清除后被其他指令重新占用时误认
+         */
+        private final boolean reservation;
+
+        private volatile Future<?> task;
+
+        private volatile boolean cancelled;
+
+        /**
+         * 是否已获取到结果、开始提交（此后取消不再中断任务，避免打断事件发布）
+         */
+        private volatile boolean completing;
+
+        private ChapterLoad(long commandId, int targetIndex, ReadingSessionStateMachine.VersionedState loadingState) {
+            this(commandId, targetIndex, loadingState, false);
+        }
+
+        private ChapterLoad(long commandId, int targetIndex, ReadingSessionStateMachine.VersionedState loadingState, boolean reservation) {
+            this.commandId = commandId;
+            this.targetIndex = targetIndex;
+            this.loadingState = loadingState;
+            this.reservation = reservation;
+        }
+
+        /**
+         * 发起加载的指令 ID
+         */
+        public long commandId() {
+            return commandId;
+        }
+
+        /**
+         * 目标章节索引
+         */
+        public int targetIndex() {
+            return targetIndex;
+        }
+
+        private void cancel() {
+            cancelled = true;
+            Future<?> current = task;
+            if (current != null && !completing) {
+                current.cancel(true);
+            }
+        }
+    }
+
+    /**
+     * 获取服务实例
+     *
+     * @return 服务实例
+     */
+    public static ChapterLoadCoordinator getInstance() {
+        return ApplicationManager.getApplication().getService(ChapterLoadCoordinator.class);
+    }
+
+    /**
+     * 获取计算相对跳转目标的基准章节
+     *
+     * @param currentIndex 会话中的当前章节索引
+     * @return 正在进行的加载的目标章节，没有时返回 currentIndex
+     */
+    public int baseIndex(int currentIndex) {
+        ChapterLoad current = settledPending();
+        return current != null ? current.targetIndex : currentIndex;
+    }
+
+    /**
+     * 开始相对跳转的章节加载（上一章、下一章）
+     * 有尚未完成的加载时，以其目标章节为基准计算新的目标并取消它
+     *
+     * @param commandId    指令 ID
+     * @param currentIndex 会话中的当前章节索引
+     * @param step         由基准章节计算目标章节
+     * @param chapterCount 章节总数
+     * @return 加载，目标超出范围或当前状态不允许加载时返回 null（此时不取消正在进行的加载，也不改变状态），
+     * 开始期间已返回书架时也返回 null
+     */
+    @Nullable
+    public ChapterLoad begin(long commandId, int currentIndex, IntUnaryOperator step, int chapterCount) {
+        while (true) {
+            ChapterLoad previous = settledPending();
+            int target = step.applyAsInt(previous != null ? previous.targetIndex : currentIndex);
+            if (target < 0 || target >= chapterCount) {
+                return null;
+            }
+
+            ChapterLoad load = tryReplace(commandId, target, previous);
+            if (load != RETRY) {
+                return load;
+            }
+        }
+    }
+
+    /**
+     * 开始指定章节的加载（打开书籍、目录跳转）
+     * 有尚未完成的加载时取消它
+     *
+     * @param commandId   指令 ID
+     * @param targetIndex 目标章节索引
+     * @return 加载，当前状态不允许加载或开始期间已返回书架时返回 null
+     */
+    @Nullable
+    public ChapterLoad begin(long commandId, int targetIndex) {
+        while (true) {
+            ChapterLoad load = tryReplace(commandId, targetIndex, settledPending());
+            if (load != RETRY) {
+                return load;
+            }
+        }
+    }
+
+    /**
+     * 关联加载的后台任务
+     * 加载在关联前已被取代时，立即取消任务
+     *
+     * @param load 加载
+     * @param task 后台任务
+     */
+    public void attach(ChapterLoad load, Future<?> task) {
+        load.task = task;
+        if (load.cancelled) {
+            task.cancel(true);
+        }
+    }
+
+    /**
+     * 提交加载成功的结果
+     * 仅当状态仍是开始加载时的版本时转换到 READING 并执行提交操作
+     *
+     * @param load   加载
+     * @param commit 提交操作（更新会话），在状态转换成功后执行
+     * @return true 如果已提交，false 如果加载已被取代或取消
+     */
+    public boolean complete(ChapterLoad load, Runnable commit) {
+        load.completing = true;
+        if (ReadingSessionStateMachine.getInstance().compareAndTransition(load.loadingState, ReadingSessionState.READING) == null) {
+            return false;
+        }
+
+        commit.run();
+        pending.compareAndSet(load, null);
+        return true;
+    }
+
+    /**
+     * 结束失败的加载
+     * 仅当状态仍是开始加载时的版本时转换到 failedState
+     *
+     * @param load        加载
+     * @param failedState 失败后的状态
+     * @return true 如果已转换，false 如果加载已被取代或取消
+     */
+    public boolean fail(ChapterLoad load, ReadingSessionState failedState) {
+        load.completing = true;
+        // 先清除，避免新的指令以失败的目标章节为基准
+        pending.compareAndSet(load, null);
+        return ReadingSessionStateMachine.getInstance().compareAndTransition(load.loadingState, failedState) != null;
+    }
+
+    /**
+     * 取消正在进行的加载
+     * 返回书架时调用，随后的状态重置使其无法提交
+     */
+    public void cancelAll() {
+        ChapterLoad current = pending.getAndSet(null);
+        if (current != null && !current.reservation) {
+            log.debug("取消章节加载: command={}, target={}", current.commandId, current.targetIndex);
+            current.cancel();
+        }
+    }
+
+    /**
+     * 获取正在进行的加载，有其他指令正在开始加载时等待其完成（只是一次状态转换）
+     */
+    @Nullable
+    private ChapterLoad settledPending() {
+        while (true) {
+            ChapterLoad current = pending.get();
+            if (current == null || !current.reservation) {
+                return current;
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    /**
+     * 尝试以新的加载取代 previous
+     * 先以占位抢占 pending，再转换到 LOADING（得到新版本，使 previous 无法提交），最后放入新的加载；
+     * 抢占失败时不改变状态，因此不会留下没有对应加载的 LOADING 版本
+     *
+     * @return 新的加载；状态不允许加载时返回 null；与其他指令竞争失败时返回 RETRY
+     */
+    @Nullable
+    private ChapterLoad tryReplace(long commandId, int target, @Nullable ChapterLoad previous) {
+        ChapterLoad reserved = new ChapterLoad(commandId, target, null, true);
+        if (!pending.compareAndSet(previous, reserved)) {
+            return RETRY;
+        }
+
+        ReadingSessionStateMachine stateMachine = ReadingSessionStateMachine.getInstance();
+        ReadingSessionStateMachine.VersionedState loading;
+        while (true) {
+            ReadingSessionStateMachine.VersionedState current = stateMachine.current();
+            loading = stateMachine.compareAndTransition(current, ReadingSessionState.LOADING);
+            if (loading != null) {
+                break;
+            }
+            if (stateMachine.current() == current) {
+                // 当前状态不允许加载，归还 pending（期间被 cancelAll 清除时保持清除）
+                pending.compareAndSet(reserved, previous);
+                return null;
+            }
+            // 状态被其他操作改变（如 previous 提交完成），按新状态重试
+        }
+
+        ChapterLoad load = new ChapterLoad(commandId, target, loading);
+        if (!pending.compareAndSet(reserved, load)) {
+            // 期间被 cancelAll 取消（返回书架），撤销本次转换，不留下没有加载的 LOADING 状态
+            stateMachine.compareAndTransition(loading, ReadingSessionState.IDLE);
+            if (previous != null) {
+                previous.cancel();
+            }
+            return null;
+        }
+
+        if (previous != null) {
+            log.info("章节加载被取代: {} -> {}", previous.targetIndex, target);
+            previous.cancel();
+        }
+        return load;
+    }
+}
@@ -0,0 +1,239 @@
+package com.nancheung.plugins.jetbrains.legadoreader.service;
+
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.components.Service;
+import com.nancheung.plugins.jetbrains.legadoreader.api.ApiUtil;
+import com.nancheung.plugins.jetbrains.legadoreader.event.DeliveryPolicy;
+import com.nancheung.plugins.jetbrains.legadoreader.event.EventPublisher;
+import com.nancheung.plugins.jetbrains.legadoreader.event.ReaderEvent;
+import com.nancheung.plugins.jetbrains.legadoreader.event.ReadingEvent;
+import com.nancheung.plugins.jetbrains.legadoreader.manager.ReadingSessionManager;
+import com.nancheung.plugins.jetbrains.legadoreader.storage.PluginSettingsStorage;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+
+/**
+ * 章节预加载服务（Application Service）
+ * 监听章节加载成功事件，在后台预先获取相邻章节的正文并缓存在内存中，
+ * 使切换章节时无需等待网络请求
+ *
+ * @author NanCheung
+ */
+@Slf4j
+@Service
+public final class ChapterPrefetchService implements Disposable {
+
+    /**
+     * 内存中最多保留的章节数
+     */
+    private static final int MAX_CACHED_CHAPTERS = 16;
+
+    /**
+     * 预加载的最大并发数
+     */
+    private static final int PREFETCH_CONCURRENCY = 2;
+
+    /**
+     * 预加载线程池
+     */
+    private final ExecutorService executor;
+
+    /**
+     * 预加载任务（按插入顺序排列，用于淘汰）
+     * key: 章节标识
+     * value: 预加载任务（完成后即为缓存的正文）
+     */
+    private final LinkedHashMap<ChapterKey, Future<String>> prefetched = new LinkedHashMap<>();
+
+    /**
+     * 章节标识
+     *
+     * @param bookUrl 书籍 url
+     * @param index   章节索引
+     */
+    private record ChapterKey(String bookUrl, int index) {
+    }
+
+    /**
+     * 构造函数（由 IntelliJ Platform 调用）
+     * 订阅阅读事件，章节加载成功后触发预加载，会话结束时取消预加载
+     */
+    public ChapterPrefetchService() {
+        // 预加载单独限流，不占用指令处理的 io 通道
+        executor = ReaderExecutorService.newVirtualThreadLane("ChapterPrefetcher", PREFETCH_CONCURRENCY);
+
+        EventPublisher.getInstance().subscribe(this, "ChapterPrefetcher", DeliveryPolicy.QUEUE, this::onEvent);
+
+        log.debug("ChapterPrefetchService 已初始化");
+    }
+
+    /**
+     * 获取服务实例
+     *
+     * @return 服务实例
+     */
+    public static ChapterPrefetchService getInstance() {
+        return ApplicationManager.getApplication().getService(ChapterPrefetchService.class);
+    }
+
+    /**
+     * 获取章节正文
+     * 优先使用已预加载（或正在预加载）的内容，否则直接调用API
+     *
+     * @param bookUrl 书籍 url
+     * @param index   章节索引
+     * @return 章节正文
+     */
+    public String getContent(String bookUrl, int index) {
+        Future<String> future;
+        synchronized (prefetched) {
+            future = prefetched.get(new ChapterKey(bookUrl, index));
+        }
+
+        if (future != null && !future.isCancelled()) {
+            try {
+                // 预加载尚未完成时等待其结果，避免重复请求
+                String content = future.get();
+                if (content != null) {
+                    log.debug("命中预加载章节: index={}", index);
+                    return content;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CancellationException("等待预加载章节时被中断");
+            } catch (ExecutionException | CancellationException e) {
+                log.debug("预加载章节不可用，直接请求: index={}", index, e);
+            }
+        }
+
+        return ApiUtil.getBookContent(bookUrl, index);
+    }
+
+    /**
+     * 取消所有预加载任务并清空缓存
+     */
+    public void cancelAll() {
+        synchronized (prefetched) {
+            prefetched.values().forEach(future -> future.cancel(true));
+            prefetched.clear();
+        }
+        log.debug("已取消所有预加载任务");
+    }
+
+    /**
+     * 处理事件
+     *
+     * @param event 事件对象
+     */
+    private void onEvent(ReaderEvent event) {
+        if (!(event instanceof ReadingEvent readingEvent)) {
+            return;
+        }
+
+        switch (readingEvent.type()) {
+            case CHAPTER_LOADED -> prefetchAround(readingEvent);
+            case SESSION_ENDED -> cancelAll();
+            default -> {
+                // 忽略其他事件类型
+            }
+        }
+    }
+
+    /**
+     * 预加载当前章节附近的章节
+     * 向后 N 章、向前 M 章，N 和 M 由设置决定
+     *
+     * @param event 章节加载成功事件
+     */
+    private void prefetchAround(ReadingEvent event) {
+        if (event.book() == null || event.chapter() == null || event.chapter().getIndex() == null) {
+            return;
+        }
+
+        List<?> chapters = ReadingSessionManager.getInstance().getChapters();
+        if (chapters == null) {
+            return;
+        }
+
+        String bookUrl = event.book().getBookUrl();
+        int current = event.chapter().getIndex();
+        int lastIndex = chapters.size() - 1;
+
+        PluginSettingsStorage settings = PluginSettingsStorage.getInstance();
+        int from = Math.max(0, current - settings.getPrefetchPreviousCount());
+        int to = Math.min(lastIndex, current + settings.getPrefetchNextCount());
+
+        synchronized (prefetched) {
+            // 丢弃其他书籍或窗口之外的章节
+            Iterator<Map.Entry<ChapterKey, Future<String>>> iterator = prefetched.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<ChapterKey, Future<String>> entry = iterator.next();
+                ChapterKey key = entry.getKey();
+                if (!key.bookUrl().equals(bookUrl) || key.index() < from || key.index() > to) {
+                    entry.getValue().cancel(true);
+                    iterator.remove();
+                }
+            }
+
+            // 优先预加载后续章节（阅读方向），再预加载前面的章节
+            for (int index = current + 1; index <= to; index++) {
+                schedule(bookUrl, index);
+            }
+            for (int index = current - 1; index >= from; index--) {
+                schedule(bookUrl, index);
+            }
+
+            evictIfNecessary();
+        }
+    }
+
+    /**
+     * 提交单个章节的预加载任务
+     * 调用方需持有 prefetched 锁
+     */
+    private void schedule(String bookUrl, int index) {
+        ChapterKey key = new ChapterKey(bookUrl, index);
+        Future<String> existing = prefetched.get(key);
+        if (existing != null && !existing.isCancelled()) {
+            return;
+        }
+
+        try {
+            prefetched.put(key, executor.submit(() -> {
+                String content = ApiUtil.getBookContent(bookUrl, index);
+                log.debug("预加载章节完成: index={}", index);
+                return content;
+            }));
+        } catch (RejectedExecutionException e) {
+            log.debug("预加载线程池已关闭，忽略预加载: index={}", index);
+        }
+    }
+
+    /**
+     * 超出数量上限时淘汰最早的章节
+     * 调用方需持有 prefetched 锁
+     */
+    private void evictIfNecessary() {
+        Iterator<Future<String>> iterator = prefetched.values().iterator();
+        while (prefetched.size() > MAX_CACHED_CHAPTERS && iterator.hasNext()) {
+            iterator.next().cancel(true);
+            iterator.remove();
+        }
+    }
+
+    /**
+     * 关闭线程池（由 IntelliJ Platform 在应用关闭时自动调用）
+     */
+    @Override
+    public void dispose() {
+        cancelAll();
+        executor.shutdownNow();
+        log.debug("ChapterPrefetchService 已关闭");
+    }
+}
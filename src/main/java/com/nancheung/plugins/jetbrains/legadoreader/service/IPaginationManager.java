@@ -18,6 +18,16 @@ public interface IPaginationManager {
      */
     void paginate(String content, int pageSize);
 
+    /**
+     * 按显示宽度初始化分页（重新分页）
+     * 每页在不超过最大宽度的前提下放入尽可能多的字符
+     *
+     * @param content  章节内容
+     * @param measurer 字符宽度测量器
+     * @param maxWidth 每页最大宽度（像素）
+     */
+    void paginate(String content, TextMeasurer measurer, int maxWidth);
+
     /**
      * 获取当前页
      *
@@ -75,31 +85,48 @@ public interface IPaginationManager {
      */
     default boolean isLastPage() {
         PageData current = getCurrentPage();
-        return current != null && current.pageIndex() >= getTotalPages() - 1;
+        return current != null && current.pageIndex() >= current.totalPages() - 1;
+    }
+
+    /**
+     * 字符宽度测量器
+     */
+    @FunctionalInterface
+    interface TextMeasurer {
+
+        /**
+         * 获取字符的显示宽度
+         *
+         * @param codePoint 字符（Unicode 码点）
+         * @return 宽度（像素）
+         */
+        int advance(int codePoint);
     }
 
     /**
      * 页数据（不可变）
+     * 只在访问时创建，content 是完整内容的只读视图，不复制字符
      *
-     * @param pageIndex 页码索引（从 0 开始）
-     * @param startPos  在完整内容中的起始位置
-     * @param endPos    在完整内容中的结束位置
-     * @param content   当前页的文本内容
+     * @param pageIndex  页码索引（从 0 开始）
+     * @param totalPages 所属分页结果的总页数
+     * @param startPos   在完整内容中的起始位置
+     * @param endPos     在完整内容中的结束位置
+     * @param content    当前页的文本内容（完整内容的视图，需要 String 时调用 toString）
      */
     record PageData(
             int pageIndex,
+            int totalPages,
             int startPos,
             int endPos,
-            String content
+            CharSequence content
     ) {
         /**
          * 格式化为显示文本
          * 格式："   页码/总页数  内容..."
          *
-         * @param totalPages 总页数
          * @return 格式化后的文本
          */
-        public String formatForDisplay(int totalPages) {
+        public String formatForDisplay() {
             return String.format("   %d/%d  %s", pageIndex + 1, totalPages, content);
         }
     }
@@ -5,15 +5,17 @@ import com.intellij.openapi.components.Service;
 import lombok.extern.slf4j.Slf4j;
 import org.jetbrains.annotations.Nullable;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
+import java.nio.CharBuffer;
+import java.util.Arrays;
 import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * 统一分页管理器（Application Service）
  * 供所有阅读模式共享使用
- * 线程安全，使用 AtomicReference 管理状态
+ * 线程安全，分页结果和当前页保存在同一个不可变状态中，通过 AtomicReference 整体替换，
+ * 重新分页与翻页并发时不会出现页码超出分页结果的情况
+ * <p>
+ * 分页结果只保存页边界（int 数组），页数据在访问时才创建，页内容是源内容的只读视图
  *
  * @author NanCheung
  */
@@ -27,25 +29,63 @@ public final class PaginationManager implements IPaginationManager {
     private static final int DEFAULT_PAGE_SIZE = 30;
 
     /**
-     * 当前页
+     * 空分页结果
      */
-    private final AtomicReference<PageData> currentPage = new AtomicReference<>();
+    private static final Layout EMPTY_LAYOUT = new Layout("", new int[]{0}, 0);
 
     /**
-     * 所有页数据（不可变列表）
+     * 空状态
      */
-    private final AtomicReference<List<PageData>> pages = new AtomicReference<>(Collections.emptyList());
+    private static final State EMPTY_STATE = new State(EMPTY_LAYOUT, null);
 
     /**
-     * 源内容
+     * 分页状态（分页结果和当前页）
      */
-    private volatile String sourceContent;
+    private final AtomicReference<State> state = new AtomicReference<>(EMPTY_STATE);
 
     /**
      * 每页大小
      */
     private volatile int pageSize = DEFAULT_PAGE_SIZE;
 
+    /**
+     * 分页结果
+     *
+     * @param source     源内容
+     * @param boundaries 页边界，第 i 页为 [boundaries[i], boundaries[i + 1])，有效长度为 pageCount + 1
+     * @param pageCount  总页数
+     */
+    private record Layout(String source, int[] boundaries, int pageCount) {
+
+        /**
+         * 创建第 i 页的页数据
+         */
+        PageData page(int pageIndex) {
+            int start = boundaries[pageIndex];
+            int end = boundaries[pageIndex + 1];
+            return new PageData(pageIndex, pageCount, start, end, CharBuffer.wrap(source, start, end));
+        }
+
+        /**
+         * 查找包含指定字符位置的页
+         * 位置超出内容范围时返回第一页或最后一页
+         */
+        int pageIndexOf(int position) {
+            // 二分查找最后一个起始位置 <= position 的页
+            int found = Arrays.binarySearch(boundaries, 0, pageCount, position);
+            return found >= 0 ? found : Math.max(0, -found - 2);
+        }
+    }
+
+    /**
+     * 分页状态（不可变）
+     *
+     * @param layout      分页结果
+     * @param currentPage 当前页（始终属于 layout，没有页时为 null）
+     */
+    private record State(Layout layout, @Nullable PageData currentPage) {
+    }
+
     /**
      * 获取单例实例
      */
@@ -55,96 +95,152 @@ public final class PaginationManager implements IPaginationManager {
 
     @Override
     public void paginate(String content, int pageSize) {
-        this.sourceContent = content;
         this.pageSize = pageSize;
 
         if (content == null || content.isEmpty()) {
-            pages.set(Collections.emptyList());
-            currentPage.set(null);
-            log.debug("分页完成：内容为空");
+            applyLayout(EMPTY_LAYOUT);
+            return;
+        }
+
+        applyLayout(splitIntoPages(content, pageSize));
+    }
+
+    @Override
+    public void paginate(String content, TextMeasurer measurer, int maxWidth) {
+        if (content == null || content.isEmpty()) {
+            applyLayout(EMPTY_LAYOUT);
             return;
         }
 
-        List<PageData> newPages = splitIntoPages(content, pageSize);
-        pages.set(Collections.unmodifiableList(newPages));
+        applyLayout(splitByWidth(content, measurer, maxWidth));
+    }
 
-        // 默认定位到第一页
-        if (!newPages.isEmpty()) {
-            currentPage.set(newPages.get(0));
+    /**
+     * 按新的宽度重新分页，保持当前阅读位置
+     * 用于编辑器尺寸或字体变化后重新计算页边界
+     *
+     * @param measurer 字符宽度测量器
+     * @param maxWidth 每页最大宽度（像素）
+     */
+    public void relayout(TextMeasurer measurer, int maxWidth) {
+        String content = state.get().layout().source();
+        if (content.isEmpty()) {
+            return;
         }
 
-        log.info("分页完成，共 {} 页", newPages.size());
+        // 计算页边界耗时较长，在更新状态之外进行
+        Layout newLayout = splitByWidth(content, measurer, maxWidth);
+
+        while (true) {
+            State current = state.get();
+            if (current.layout().source() != content) {
+                // 计算期间已切换到其他内容，丢弃本次结果
+                return;
+            }
+
+            // 以最新的当前页定位（计算期间可能已翻页）
+            int position = current.currentPage() != null ? current.currentPage().startPos() : 0;
+            PageData page = newLayout.page(newLayout.pageIndexOf(position));
+            if (state.compareAndSet(current, new State(newLayout, page))) {
+                log.info("重新分页完成，共 {} 页", newLayout.pageCount());
+                return;
+            }
+        }
+    }
+
+    /**
+     * 应用分页结果并定位到第一页
+     *
+     * @param newLayout 分页结果
+     */
+    private void applyLayout(Layout newLayout) {
+        if (newLayout.pageCount() == 0) {
+            state.set(new State(newLayout, null));
+            log.debug("分页完成：内容为空");
+            return;
+        }
+
+        state.set(new State(newLayout, newLayout.page(0)));
+        log.info("分页完成，共 {} 页", newLayout.pageCount());
     }
 
     @Override
     @Nullable
     public PageData getCurrentPage() {
-        return currentPage.get();
+        return state.get().currentPage();
     }
 
     @Override
     @Nullable
     public PageData nextPage() {
-        PageData current = currentPage.get();
-        List<PageData> pageList = pages.get();
+        while (true) {
+            State current = state.get();
+            PageData page = current.currentPage();
+            if (page == null) {
+                return null;
+            }
 
-        if (current == null || pageList.isEmpty()) {
-            return null;
-        }
+            int nextIndex = page.pageIndex() + 1;
+            if (nextIndex >= current.layout().pageCount()) {
+                log.debug("已经是最后一页");
+                return null; // 已是最后一页
+            }
 
-        int nextIndex = current.pageIndex() + 1;
-        if (nextIndex >= pageList.size()) {
-            log.debug("已经是最后一页");
-            return null; // 已是最后一页
+            PageData next = current.layout().page(nextIndex);
+            if (state.compareAndSet(current, new State(current.layout(), next))) {
+                log.debug("翻到下一页: {}/{}", nextIndex + 1, next.totalPages());
+                return next;
+            }
         }
-
-        PageData next = pageList.get(nextIndex);
-        currentPage.set(next);
-        log.debug("翻到下一页: {}/{}", nextIndex + 1, pageList.size());
-        return next;
     }
 
     @Override
     @Nullable
     public PageData previousPage() {
-        PageData current = currentPage.get();
-        List<PageData> pageList = pages.get();
+        while (true) {
+            State current = state.get();
+            PageData page = current.currentPage();
+            if (page == null) {
+                return null;
+            }
 
-        if (current == null || pageList.isEmpty()) {
-            return null;
-        }
+            int prevIndex = page.pageIndex() - 1;
+            if (prevIndex < 0) {
+                log.debug("已经是第一页");
+                return null; // 已是第一页
+            }
 
-        int prevIndex = current.pageIndex() - 1;
-        if (prevIndex < 0) {
-            log.debug("已经是第一页");
-            return null; // 已是第一页
+            PageData prev = current.layout().page(prevIndex);
+            if (state.compareAndSet(current, new State(current.layout(), prev))) {
+                log.debug("翻到上一页: {}/{}", prevIndex + 1, prev.totalPages());
+                return prev;
+            }
         }
-
-        PageData prev = pageList.get(prevIndex);
-        currentPage.set(prev);
-        log.debug("翻到上一页: {}/{}", prevIndex + 1, pageList.size());
-        return prev;
     }
 
     @Override
     @Nullable
     public PageData goToPage(int pageIndex) {
-        List<PageData> pageList = pages.get();
+        while (true) {
+            State current = state.get();
+            Layout pages = current.layout();
 
-        if (pageList.isEmpty() || pageIndex < 0 || pageIndex >= pageList.size()) {
-            log.warn("无效的页码索引: {}", pageIndex);
-            return null;
-        }
+            if (pages.pageCount() == 0 || pageIndex < 0 || pageIndex >= pages.pageCount()) {
+                log.warn("无效的页码索引: {}", pageIndex);
+                return null;
+            }
 
-        PageData target = pageList.get(pageIndex);
-        currentPage.set(target);
-        log.debug("跳转到第 {} 页/{}", pageIndex + 1, pageList.size());
-        return target;
+            PageData target = pages.page(pageIndex);
+            if (state.compareAndSet(current, new State(pages, target))) {
+                log.debug("跳转到第 {} 页/{}", pageIndex + 1, pages.pageCount());
+                return target;
+            }
+        }
     }
 
     @Override
     public int getTotalPages() {
-        return pages.get().size();
+        return state.get().layout().pageCount();
     }
 
     /**
@@ -164,8 +260,41 @@ public final class PaginationManager implements IPaginationManager {
      */
     @Nullable
     public PageData goToLastPage() {
-        int totalPages = getTotalPages();
-        return totalPages > 0 ? goToPage(totalPages - 1) : null;
+        while (true) {
+            State current = state.get();
+            Layout pages = current.layout();
+            if (pages.pageCount() == 0) {
+                return null;
+            }
+
+            PageData target = pages.page(pages.pageCount() - 1);
+            if (state.compareAndSet(current, new State(pages, target))) {
+                return target;
+            }
+        }
+    }
+
+    /**
+     * 定位到包含指定字符位置的页
+     * 位置超出内容范围时定位到第一页或最后一页
+     *
+     * @param position 在完整内容中的字符位置
+     * @return 目标页数据，如果没有页则返回 null
+     */
+    @Nullable
+    public PageData goToPosition(int position) {
+        while (true) {
+            State current = state.get();
+            Layout pages = current.layout();
+            if (pages.pageCount() == 0) {
+                return null;
+            }
+
+            PageData target = pages.page(pages.pageIndexOf(position));
+            if (state.compareAndSet(current, new State(pages, target))) {
+                return target;
+            }
+        }
     }
 
     /**
@@ -184,63 +313,108 @@ public final class PaginationManager implements IPaginationManager {
      */
     public void setPageSize(int pageSize) {
         this.pageSize = pageSize;
-        if (sourceContent != null && !sourceContent.isEmpty()) {
-            paginate(sourceContent, pageSize);
+        String content = state.get().layout().source();
+        if (!content.isEmpty()) {
+            paginate(content, pageSize);
         }
     }
 
+
     /**
      * 清空分页数据
      */
     public void clear() {
-        pages.set(Collections.emptyList());
-        currentPage.set(null);
-        sourceContent = null;
+        state.set(EMPTY_STATE);
         log.debug("清空分页数据");
     }
 
     /**
-     * 将内容分割为页
+     * 计算页边界
      * 智能处理 Unicode 代理对（如 emoji），避免在字符中间截断
      *
      * @param content    完整内容
      * @param maxLength  每页最大字符数
-     * @return 页数据列表
+     * @return 分页结果
      */
-    private List<PageData> splitIntoPages(String content, int maxLength) {
+    private Layout splitIntoPages(String content, int maxLength) {
         // 添加参数验证
         if (maxLength <= 0) {
             log.warn("无效的页面大小: {}, 使用默认值 30", maxLength);
             maxLength = 30;
         }
 
-        List<PageData> result = new ArrayList<>();
+        int length = content.length();
+        // 代理对回退可能多出少量页，不足时再扩容
+        int[] boundaries = new int[length / maxLength + 2];
         int start = 0;
-        int pageIndex = 0;
+        int pageCount = 0;
 
-        while (start < content.length()) {
-            int end = Math.min(start + maxLength, content.length());
+        while (start < length) {
+            int end = Math.min(start + maxLength, length);
 
             // 避免在 Unicode 代理对中间截断
             // 代理对：高代理（U+D800 到 U+DBFF）+ 低代理（U+DC00 到 U+DFFF）
             // 例如 emoji "😀" 由两个 char 组成
-            if (end < content.length() && end > 0 && Character.isHighSurrogate(content.charAt(end - 1))) {
+            if (end < length && end > 0 && Character.isHighSurrogate(content.charAt(end - 1))) {
                 end--; // 回退一个字符，避免截断 emoji
             }
 
             // 防止无限循环：确保每次循环都推进至少 1 个字符
             if (end <= start) {
                 log.warn("分页异常：end({}) <= start({}), 强制推进", end, start);
-                end = Math.min(start + 1, content.length());
+                end = Math.min(start + 1, length);
+            }
+
+            if (pageCount + 2 > boundaries.length) {
+                boundaries = Arrays.copyOf(boundaries, boundaries.length + boundaries.length / 2 + 2);
+            }
+            boundaries[pageCount++] = start;
+
+            start = end;
+        }
+        boundaries[pageCount] = length;
+
+        return new Layout(content, boundaries, pageCount);
+    }
+
+    /**
+     * 按显示宽度计算页边界
+     * 逐个码点累加宽度，不会拆开代理对；单个字符超过最大宽度时独占一页
+     *
+     * @param content  完整内容
+     * @param measurer 字符宽度测量器
+     * @param maxWidth 每页最大宽度（像素）
+     * @return 分页结果
+     */
+    private Layout splitByWidth(String content, TextMeasurer measurer, int maxWidth) {
+        int length = content.length();
+        int[] boundaries = new int[length / DEFAULT_PAGE_SIZE + 2];
+        int start = 0;
+        int pageCount = 0;
+
+        while (start < length) {
+            int end = start;
+            int width = 0;
+
+            while (end < length) {
+                int codePoint = content.codePointAt(end);
+                int advance = measurer.advance(codePoint);
+                if (width + advance > maxWidth && end > start) {
+                    break;
+                }
+                width += advance;
+                end += Character.charCount(codePoint);
             }
 
-            String pageContent = content.substring(start, end);
-            result.add(new PageData(pageIndex, start, end, pageContent));
+            if (pageCount + 2 > boundaries.length) {
+                boundaries = Arrays.copyOf(boundaries, boundaries.length + boundaries.length / 2 + 2);
+            }
+            boundaries[pageCount++] = start;
 
             start = end;
-            pageIndex++;
         }
+        boundaries[pageCount] = length;
 
-        return result;
+        return new Layout(content, boundaries, pageCount);
     }
 }
@@ -0,0 +1,415 @@
+package com.nancheung.plugins.jetbrains.legadoreader.service;
+
+import cn.hutool.json.JSONUtil;
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.application.PathManager;
+import com.intellij.openapi.components.Service;
+import com.nancheung.plugins.jetbrains.legadoreader.api.ApiUtil;
+import com.nancheung.plugins.jetbrains.legadoreader.api.dto.BookChapterDTO;
+import com.nancheung.plugins.jetbrains.legadoreader.api.dto.BookDTO;
+import com.nancheung.plugins.jetbrains.legadoreader.api.dto.BookProgressDTO;
+import com.nancheung.plugins.jetbrains.legadoreader.manager.ReadingSessionManager;
+import com.nancheung.plugins.jetbrains.legadoreader.model.ReadingSession;
+import com.nancheung.plugins.jetbrains.legadoreader.storage.PluginSettingsStorage;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * 阅读进度同步服务（Application Service）
+ * 每本书只保留最新的一条进度，按固定间隔批量提交到服务器；
+ * 提交失败时按指数退避重试，未提交的进度持久化到本地发件箱，IDE 重启后继续提交
+ * <p>
+ * 发件箱在进度变化后延迟写入（连续翻页合并为一次写盘），由单独的线程执行，不等待网络提交，
+ * 提交阻塞或退避期间 IDE 崩溃也只丢失最后一个延迟内的进度；
+ * 关闭 IDE 时由 {@link ProgressSyncShutdownListener} 先写入发件箱，再在 HTTP 客户端关闭前限时提交最后一次
+ *
+ * @author NanCheung
+ */
+@Slf4j
+@Service
+public final class ProgressSyncService implements Disposable {
+
+    /**
+     * 重试的最大退避时间（毫秒）
+     */
+    private static final long MAX_BACKOFF_MILLIS = TimeUnit.MINUTES.toMillis(5);
+
+    /**
+     * 进度变化后写入发件箱的延迟（毫秒）
+     */
+    private static final long OUTBOX_SAVE_DELAY_MILLIS = 1000;
+
+    /**
+     * 关闭 IDE 时等待最后一次提交、同步线程结束的时间（毫秒）
+     * 在 EDT 上等待，只给很短的时间，未提交的进度已在发件箱中，下次启动后继续提交
+     */
+    private static final long SHUTDOWN_TIMEOUT_MILLIS = 500;
+
+    /**
+     * 发件箱文件
+     */
+    private final Path outboxFile;
+
+    /**
+     * 同步线程（单线程，保证同一本书的进度按顺序提交）
+     */
+    private final ScheduledThreadPoolExecutor scheduler;
+
+    /**
+     * 发件箱写入线程（与同步线程分开，提交阻塞时也能写入）
+     */
+    private final ScheduledThreadPoolExecutor outboxWriter;
+
+    /**
+     * 发件箱写入锁，保证后写入的总是更新的进度
+     */
+    private final Object outboxLock = new Object();
+
+    /**
+     * 待提交的进度
+     * key: 书籍 url
+     * value: 最新的待提交进度
+     */
+    private final Map<String, PendingProgress> pending = new LinkedHashMap<>();
+
+    /**
+     * 每本书最后一次提交成功的时间
+     * key: 书籍 url
+     * value: 提交时间（毫秒）
+     */
+    private final Map<String, Long> lastSyncedAt = new HashMap<>();
+
+    /**
+     * 已安排的下一次提交
+     */
+    private ScheduledFuture<?> scheduledFlush;
+
+    /**
+     * 已安排的下一次发件箱写入
+     */
+    private ScheduledFuture<?> scheduledOutboxSave;
+
+    /**
+     * 待提交的进度
+     *
+     * @param progress  进度
+     * @param attempts  已失败的次数
+     * @param notBefore 最早可提交的时间（毫秒）
+     */
+    private record PendingProgress(BookProgressDTO progress, int attempts, long notBefore) {
+    }
+
+    /**
+     * 构造函数（由 IntelliJ Platform 调用）
+     * 读取上次未提交完成的发件箱，并安排提交
+     */
+    public ProgressSyncService() {
+        this.outboxFile = Path.of(PathManager.getSystemPath(), "legado-reader", "progress-outbox.json");
+
+        this.scheduler = newScheduler("ProgressSync");
+        this.outboxWriter = newScheduler("ProgressSync-outbox");
+
+        scheduler.execute(this::loadOutbox);
+
+        log.debug("ProgressSyncService 已初始化");
+    }
+
+    private static ScheduledThreadPoolExecutor newScheduler(String name) {
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, r -> {
+            Thread thread = new Thread(r, name);
+            thread.setDaemon(true);
+            return thread;
+        });
+        // 关闭时丢弃尚未到期的定时任务，最后一次提交和写入由 flushBeforeExit、dispose 完成
+        executor.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+        return executor;
+    }
+
+    /**
+     * 获取服务实例
+     *
+     * @return 服务实例
+     */
+    public static ProgressSyncService getInstance() {
+        return ApplicationManager.getApplication().getService(ProgressSyncService.class);
+    }
+
+    /**
+     * 提交阅读进度（不等待）
+     * 同一本书尚未提交的旧进度会被直接替换
+     *
+     * @param book          书籍信息
+     * @param chapterIndex  章节索引
+     * @param chapterTitle  章节标题
+     * @param durChapterPos 章节内位置
+     */
+    public void submit(BookDTO book, int chapterIndex, String chapterTitle, int durChapterPos) {
+        BookProgressDTO progress = BookProgressDTO.builder()
+                .author(book.getAuthor())
+                .name(book.getName())
+                .durChapterIndex(chapterIndex)
+                .durChapterTitle(chapterTitle)
+                .durChapterTime(System.currentTimeMillis())
+                .durChapterPos(durChapterPos)
+                .url(book.getBookUrl())
+                .index(chapterIndex)
+                .build();
+
+        synchronized (pending) {
+            pending.put(book.getBookUrl(), new PendingProgress(progress, 0, 0));
+        }
+
+        scheduleOutboxSave();
+        scheduleFlush(PluginSettingsStorage.getInstance().getProgressSyncInterval().toMillis());
+    }
+
+    /**
+     * 提交当前阅读会话在章节内的位置（不等待）
+     * 用于页内翻页等不切换章节的进度变化，没有阅读会话时忽略
+     *
+     * @param durChapterPos 章节内位置（字符偏移）
+     */
+    public void submitPosition(int durChapterPos) {
+        ReadingSessionManager sessionManager = ReadingSessionManager.getInstance();
+        ReadingSession session = sessionManager.getSession();
+        BookChapterDTO chapter = session != null ? session.getCurrentChapter() : null;
+        if (chapter == null) {
+            return;
+        }
+
+        submit(session.book(), session.currentChapterIndex(), chapter.getTitle(), durChapterPos);
+    }
+
+    /**
+     * 安排一次提交
+     * 已有尚未执行的提交时不重复安排，间隔内的多次进度变化合并为一次提交
+     */
+    private void scheduleFlush(long delayMillis) {
+        synchronized (pending) {
+            if (scheduledFlush != null && !scheduledFlush.isDone()) {
+                return;
+            }
+            if (scheduler.isShutdown()) {
+                return;
+            }
+            scheduledFlush = scheduler.schedule(() -> flush(false), delayMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * 安排一次发件箱写入
+     * 已有尚未执行的写入时不重复安排，延迟内的多次进度变化合并为一次写入
+     */
+    private void scheduleOutboxSave() {
+        synchronized (pending) {
+            if (scheduledOutboxSave != null && !scheduledOutboxSave.isDone()) {
+                return;
+            }
+            if (outboxWriter.isShutdown()) {
+                return;
+            }
+            scheduledOutboxSave = outboxWriter.schedule(this::saveOutbox, OUTBOX_SAVE_DELAY_MILLIS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * 提交到期的进度（在同步线程中执行）
+     *
+     * @param force 是否忽略同步间隔和退避时间（关闭 IDE 时使用）
+     */
+    private void flush(boolean force) {
+        synchronized (pending) {
+            // 当前提交已开始执行，允许安排下一次
+            scheduledFlush = null;
+        }
+
+        long intervalMillis = PluginSettingsStorage.getInstance().getProgressSyncInterval().toMillis();
+        long now = System.currentTimeMillis();
+
+        // 1. 取出到期的进度
+        List<Map.Entry<String, PendingProgress>> due = new ArrayList<>();
+        synchronized (pending) {
+            for (Map.Entry<String, PendingProgress> entry : pending.entrySet()) {
+                if (force || isDue(entry.getKey(), entry.getValue(), now, intervalMillis)) {
+                    due.add(Map.entry(entry.getKey(), entry.getValue()));
+                }
+            }
+        }
+
+        // 2. 逐本提交
+        for (Map.Entry<String, PendingProgress> entry : due) {
+            String bookUrl = entry.getKey();
+            PendingProgress item = entry.getValue();
+
+            try {
+                ApiUtil.saveBookProgress(item.progress());
+
+                synchronized (pending) {
+                    // 提交期间可能有更新的进度，只移除已提交的那一条
+                    pending.remove(bookUrl, item);
+                    lastSyncedAt.put(bookUrl, System.currentTimeMillis());
+                }
+                log.debug("同步阅读进度成功：{} - {}", item.progress().getName(), item.progress().getDurChapterTitle());
+            } catch (Exception e) {
+                int attempts = item.attempts() + 1;
+                long backoff = Math.min(intervalMillis << Math.min(attempts, 16), MAX_BACKOFF_MILLIS);
+
+                synchronized (pending) {
+                    pending.replace(bookUrl, item, new PendingProgress(item.progress(), attempts, System.currentTimeMillis() + backoff));
+                }
+                log.warn("同步阅读进度失败，{} 毫秒后重试（第 {} 次）：{}", backoff, attempts, item.progress().getName(), e);
+            }
+        }
+
+        // 只在实际提交过时更新发件箱（成功的移除、失败的记录退避）
+        if (!due.isEmpty()) {
+            saveOutbox();
+        }
+
+        // 3. 还有未提交的进度时，安排下一次提交
+        if (!force) {
+            long nextDelay = nextDelay(System.currentTimeMillis(), intervalMillis);
+            if (nextDelay >= 0) {
+                scheduleFlush(nextDelay);
+            }
+        }
+    }
+
+    private boolean isDue(String bookUrl, PendingProgress item, long now, long intervalMillis) {
+        long lastSynced = lastSyncedAt.getOrDefault(bookUrl, 0L);
+        return now >= item.notBefore() && now - lastSynced >= intervalMillis;
+    }
+
+    /**
+     * 计算距离最早一条进度到期的时间
+     *
+     * @return 毫秒，没有待提交的进度时返回 -1
+     */
+    private long nextDelay(long now, long intervalMillis) {
+        synchronized (pending) {
+            long earliest = Long.MAX_VALUE;
+            for (Map.Entry<String, PendingProgress> entry : pending.entrySet()) {
+                long lastSynced = lastSyncedAt.getOrDefault(entry.getKey(), 0L);
+                long dueAt = Math.max(entry.getValue().notBefore(), lastSynced + intervalMillis);
+                earliest = Math.min(earliest, dueAt);
+            }
+            return earliest == Long.MAX_VALUE ? -1 : Math.max(0, earliest - now);
+        }
+    }
+
+    /**
+     * 读取发件箱（在同步线程中执行）
+     */
+    private void loadOutbox() {
+        if (!Files.isRegularFile(outboxFile)) {
+            return;
+        }
+
+        try {
+            List<BookProgressDTO> outbox = JSONUtil.toList(Files.readString(outboxFile, StandardCharsets.UTF_8), BookProgressDTO.class);
+
+            synchronized (pending) {
+                for (BookProgressDTO progress : outbox) {
+                    if (progress.getUrl() != null) {
+                        // 启动后提交的进度更新，不覆盖
+                        pending.putIfAbsent(progress.getUrl(), new PendingProgress(progress, 0, 0));
+                    }
+                }
+            }
+
+            if (!outbox.isEmpty()) {
+                log.info("发件箱中有 {} 条未同步的阅读进度", outbox.size());
+                scheduleFlush(0);
+            }
+        } catch (Exception e) {
+            log.warn("读取阅读进度发件箱失败: {}", outboxFile, e);
+        }
+    }
+
+    /**
+     * 将待提交的进度写入发件箱，没有待提交的进度时删除发件箱
+     * 在锁内取快照并写入，多个线程同时写入时，后写入的不会是更旧的进度
+     */
+    private void saveOutbox() {
+        synchronized (outboxLock) {
+            List<BookProgressDTO> outbox;
+            synchronized (pending) {
+                outbox = pending.values().stream().map(PendingProgress::progress).toList();
+            }
+
+            try {
+                if (outbox.isEmpty()) {
+                    Files.deleteIfExists(outboxFile);
+                    return;
+                }
+
+                Files.createDirectories(outboxFile.getParent());
+
+                // 先写临时文件再原子替换，避免读到半截内容
+                Path tempFile = Files.createTempFile(outboxFile.getParent(), "progress", ".tmp");
+                Files.writeString(tempFile, JSONUtil.toJsonStr(outbox), StandardCharsets.UTF_8);
+                Files.move(tempFile, outboxFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                log.warn("写入阅读进度发件箱失败: {}", outboxFile, e);
+            }
+        }
+    }
+
+    /**
+     * 写入发件箱并立即提交所有待提交的进度（关闭 IDE 时在 HTTP 客户端关闭之前调用）
+     * 先同步写入发件箱（只写本地文件），再在同步线程中提交并限时等待；
+     * 未能在限定时间内提交的进度保留在发件箱中，下次启动后继续提交
+     */
+    public void flushBeforeExit() {
+        saveOutbox();
+
+        if (scheduler.isShutdown()) {
+            return;
+        }
+
+        try {
+            scheduler.submit(() -> flush(true)).get(SHUTDOWN_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (TimeoutException e) {
+            log.info("关闭前同步阅读进度未完成，保留在发件箱中，下次启动后继续提交");
+        } catch (ExecutionException e) {
+            log.warn("关闭前同步阅读进度失败，保留在发件箱中", e);
+        }
+    }
+
+    /**
+     * 关闭同步线程并写入发件箱（由 IntelliJ Platform 在应用关闭时自动调用）
+     * 此时 HTTP 客户端可能已经关闭，不再提交，尚未提交的进度下次启动后继续提交
+     */
+    @Override
+    public void dispose() {
+        scheduler.shutdown();
+        outboxWriter.shutdown();
+
+        try {
+            // 短暂等待正在进行的提交结束，超时则中断，未提交的进度由下面的写入保留
+            if (!scheduler.awaitTermination(SHUTDOWN_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+                scheduler.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            scheduler.shutdownNow();
+        }
+
+        saveOutbox();
+        log.debug("ProgressSyncService 已关闭");
+    }
+}
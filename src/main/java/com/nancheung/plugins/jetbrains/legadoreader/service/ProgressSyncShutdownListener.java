@@ -0,0 +1,25 @@
+package com.nancheung.plugins.jetbrains.legadoreader.service;
+
+import com.intellij.ide.AppLifecycleListener;
+import com.intellij.openapi.application.ApplicationManager;
+
+/**
+ * 关闭 IDE 时提交阅读进度
+ * 应用服务按注册的逆序释放，{@link ProgressSyncService#dispose()} 执行时 HTTP 客户端可能已经关闭，
+ * 因此在应用开始关闭、服务释放之前提交最后一次
+ * <p>
+ * 在 EDT 上调用：只同步写入发件箱，网络提交限时等待，未完成的下次启动后继续提交
+ *
+ * @author NanCheung
+ */
+public class ProgressSyncShutdownListener implements AppLifecycleListener {
+
+    @Override
+    public void appWillBeClosed(boolean isRestart) {
+        // 本次运行没有创建过同步服务时，不为关闭而创建
+        ProgressSyncService service = ApplicationManager.getApplication().getServiceIfCreated(ProgressSyncService.class);
+        if (service != null) {
+            service.flushBeforeExit();
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.nancheung.plugins.jetbrains.legadoreader.service;
+
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.components.Service;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 插件线程池（Application Service）
+ * 插件的后台任务不使用 ForkJoinPool.commonPool()，避免阻塞的网络请求占满 IDE 和其他插件共用的线程
+ * <p>
+ * 分为两条互不影响的通道：
+ * <ul>
+ *     <li>io：网络请求等阻塞任务，使用虚拟线程，并发数有上限</li>
+ *     <li>cpu：事件分发等计算任务，使用固定数量的平台线程</li>
+ * </ul>
+ * 应用关闭时随服务一起关闭
+ *
+ * @author NanCheung
+ */
+@Slf4j
+@Service
+public final class ReaderExecutorService implements Disposable {
+
+    /**
+     * io 通道的最大并发数
+     * Legado 服务端多为手机，并发过高反而拖慢单个请求
+     */
+    private static final int IO_MAX_CONCURRENCY = 8;
+
+    /**
+     * cpu 通道的线程数
+     */
+    private static final int CPU_THREADS = Math.max(2, Runtime.getRuntime().availableProcessors() / 2);
+
+    private final ExecutorService io;
+
+    private final ExecutorService cpu;
+
+    /**
+     * 构造函数（由 IntelliJ Platform 调用）
+     */
+    public ReaderExecutorService() {
+        this.io = newVirtualThreadLane("LegadoReader-io", IO_MAX_CONCURRENCY);
+
+        AtomicInteger cpuThreadNumber = new AtomicInteger();
+        this.cpu = Executors.newFixedThreadPool(CPU_THREADS, r -> {
+            Thread thread = new Thread(r, "LegadoReader-cpu-" + cpuThreadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        log.debug("ReaderExecutorService 已初始化: io={}, cpu={}", IO_MAX_CONCURRENCY, CPU_THREADS);
+    }
+
+    /**
+     * 获取服务实例
+     *
+     * @return 服务实例
+     */
+    public static ReaderExecutorService getInstance() {
+        return ApplicationManager.getApplication().getService(ReaderExecutorService.class);
+    }
+
+    /**
+     * 获取 io 通道
+     * 用于网络请求、磁盘读写等会阻塞的任务
+     *
+     * @return 执行器
+     */
+    public ExecutorService io() {
+        return io;
+    }
+
+    /**
+     * 获取 cpu 通道
+     * 用于不阻塞的计算和事件分发
+     *
+     * @return 执行器
+     */
+    public ExecutorService cpu() {
+        return cpu;
+    }
+
+    /**
+     * 创建并发数有上限的虚拟线程执行器
+     * 超出上限的任务排队等待；线程空闲后自动回收，不长期占用资源
+     * 供需要独立限流的后台任务使用（调用方负责关闭）
+     *
+     * @param name           线程名前缀
+     * @param maxConcurrency 最大并发数
+     * @return 执行器
+     */
+    public static ExecutorService newVirtualThreadLane(String name, int maxConcurrency) {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                maxConcurrency,
+                maxConcurrency,
+                30, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(),
+                Thread.ofVirtual().name(name + "-", 1).factory()
+        );
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * 关闭线程池（由 IntelliJ Platform 在应用关闭时自动调用）
+     */
+    @Override
+    public void dispose() {
+        io.shutdownNow();
+        cpu.shutdownNow();
+        log.debug("ReaderExecutorService 已关闭");
+    }
+}
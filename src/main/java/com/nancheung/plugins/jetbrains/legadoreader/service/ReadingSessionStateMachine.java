@@ -4,6 +4,7 @@ import com.intellij.openapi.application.ApplicationManager;
 import com.intellij.openapi.components.Service;
 import com.nancheung.plugins.jetbrains.legadoreader.model.ReadingSessionState;
 import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.Map;
 import java.util.Set;
@@ -13,6 +14,10 @@ import java.util.concurrent.atomic.AtomicReference;
  * 阅读会话状态机（Application Service）
  * 管理阅读会话的生命周期状态转换
  * 确保状态转换的合法性
+ * <p>
+ * 状态带有单调递增的版本号（epoch），每次转换成功都会递增。
+ * 后台任务记下开始时的版本，完成时用 {@link #compareAndTransition} 提交，
+ * 期间有其他转换（被新的指令取代、返回书架）时提交失败，不会用过期的结果覆盖新状态
  *
  * @author NanCheung
  */
@@ -21,10 +26,23 @@ import java.util.concurrent.atomic.AtomicReference;
 public final class ReadingSessionStateMachine {
 
     /**
-     * 当前状态
+     * 当前状态和版本
      */
-    private final AtomicReference<ReadingSessionState> currentState =
-            new AtomicReference<>(ReadingSessionState.IDLE);
+    private final AtomicReference<VersionedState> currentState =
+            new AtomicReference<>(new VersionedState(ReadingSessionState.IDLE, 0));
+
+    /**
+     * 带版本的状态（不可变）
+     *
+     * @param state 状态
+     * @param epoch 版本号，每次转换成功递增
+     */
+    public record VersionedState(ReadingSessionState state, long epoch) {
+
+        private VersionedState next(ReadingSessionState newState) {
+            return new VersionedState(newState, epoch + 1);
+        }
+    }
 
     /**
      * 状态转换规则表
@@ -36,9 +54,9 @@ public final class ReadingSessionStateMachine {
             ReadingSessionState.IDLE,
             Set.of(ReadingSessionState.LOADING),
 
-            // 加载中 → 可以成功进入阅读、失败进入错误、或取消回到空闲
+            // 加载中 → 可以成功进入阅读、失败进入错误、取消回到空闲、或被新的加载取代
             ReadingSessionState.LOADING,
-            Set.of(ReadingSessionState.READING, ReadingSessionState.ERROR, ReadingSessionState.IDLE),
+            Set.of(ReadingSessionState.READING, ReadingSessionState.ERROR, ReadingSessionState.IDLE, ReadingSessionState.LOADING),
 
             // 阅读中 → 可以切换章节（加载）、翻页、或返回书架（空闲）
             ReadingSessionState.READING,
@@ -68,18 +86,42 @@ public final class ReadingSessionStateMachine {
      * @return true 如果转换成功，false 如果转换不合法
      */
     public boolean transition(ReadingSessionState newState) {
-        ReadingSessionState oldState = currentState.updateAndGet(current -> {
-            Set<ReadingSessionState> allowedStates = VALID_TRANSITIONS.getOrDefault(current, Set.of());
-            if (allowedStates.contains(newState)) {
-                log.debug("状态转换: {} → {}", current, newState);
-                return newState;
-            } else {
-                log.warn("非法状态转换: {} → {}，保持当前状态", current, newState);
-                return current;
+        while (true) {
+            VersionedState current = currentState.get();
+            if (!isValid(current.state(), newState)) {
+                log.warn("非法状态转换: {} → {}，保持当前状态", current.state(), newState);
+                return false;
             }
-        });
+            if (currentState.compareAndSet(current, current.next(newState))) {
+                log.debug("状态转换: {} → {}", current.state(), newState);
+                return true;
+            }
+        }
+    }
 
-        return oldState != newState || oldState == currentState.get();
+    /**
+     * 仅当状态仍为 expected（同一版本）时转换
+     * 用于后台任务提交结果：开始后状态被其他指令改变过则不提交
+     *
+     * @param expected 期望的当前状态（由 {@link #current()} 或上一次转换获得）
+     * @param newState 目标状态
+     * @return 转换后的状态，状态已改变或转换不合法时返回 null
+     */
+    @Nullable
+    public VersionedState compareAndTransition(VersionedState expected, ReadingSessionState newState) {
+        if (!isValid(expected.state(), newState)) {
+            log.warn("非法状态转换: {} → {}，保持当前状态", expected.state(), newState);
+            return null;
+        }
+
+        VersionedState next = expected.next(newState);
+        if (!currentState.compareAndSet(expected, next)) {
+            log.debug("状态已改变，放弃转换: {} → {}（版本 {}）", expected.state(), newState, expected.epoch());
+            return null;
+        }
+
+        log.debug("状态转换: {} → {}（版本 {}）", expected.state(), newState, next.epoch());
+        return next;
     }
 
     /**
@@ -89,8 +131,17 @@ public final class ReadingSessionStateMachine {
      * @param state 目标状态
      */
     public void forceSet(ReadingSessionState state) {
-        ReadingSessionState oldState = currentState.getAndSet(state);
-        log.warn("强制状态转换: {} → {}", oldState, state);
+        VersionedState oldState = currentState.getAndUpdate(current -> current.next(state));
+        log.warn("强制状态转换: {} → {}", oldState.state(), state);
+    }
+
+    /**
+     * 获取当前状态和版本
+     *
+     * @return 当前状态和版本
+     */
+    public VersionedState current() {
+        return currentState.get();
     }
 
     /**
@@ -99,7 +150,7 @@ public final class ReadingSessionStateMachine {
      * @return 当前状态
      */
     public ReadingSessionState getState() {
-        return currentState.get();
+        return currentState.get().state();
     }
 
     /**
@@ -108,7 +159,7 @@ public final class ReadingSessionStateMachine {
      * @return true 如果当前处于阅读状态
      */
     public boolean isReading() {
-        return currentState.get() == ReadingSessionState.READING;
+        return currentState.get().state() == ReadingSessionState.READING;
     }
 
     /**
@@ -117,7 +168,7 @@ public final class ReadingSessionStateMachine {
      * @return true 如果当前处于空闲状态
      */
     public boolean isIdle() {
-        return currentState.get() == ReadingSessionState.IDLE;
+        return currentState.get().state() == ReadingSessionState.IDLE;
     }
 
     /**
@@ -126,7 +177,7 @@ public final class ReadingSessionStateMachine {
      * @return true 如果当前处于加载状态
      */
     public boolean isLoading() {
-        return currentState.get() == ReadingSessionState.LOADING;
+        return currentState.get().state() == ReadingSessionState.LOADING;
     }
 
     /**
@@ -135,14 +186,18 @@ public final class ReadingSessionStateMachine {
      * @return true 如果当前处于错误状态
      */
     public boolean isError() {
-        return currentState.get() == ReadingSessionState.ERROR;
+        return currentState.get().state() == ReadingSessionState.ERROR;
     }
 
     /**
      * 重置到空闲状态
      */
     public void reset() {
-        ReadingSessionState oldState = currentState.getAndSet(ReadingSessionState.IDLE);
-        log.debug("重置状态: {} → IDLE", oldState);
+        VersionedState oldState = currentState.getAndUpdate(current -> current.next(ReadingSessionState.IDLE));
+        log.debug("重置状态: {} → IDLE", oldState.state());
+    }
+
+    private static boolean isValid(ReadingSessionState from, ReadingSessionState to) {
+        return VALID_TRANSITIONS.getOrDefault(from, Set.of()).contains(to);
     }
 }
@@ -0,0 +1,78 @@
+package com.nancheung.plugins.jetbrains.legadoreader.service;
+
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.components.Service;
+import com.nancheung.plugins.jetbrains.legadoreader.api.ApiUtil;
+import com.nancheung.plugins.jetbrains.legadoreader.api.dto.BookDTO;
+import com.nancheung.plugins.jetbrains.legadoreader.model.ChapterIndex;
+import com.nancheung.plugins.jetbrains.legadoreader.storage.AddressHistoryStorage;
+import com.nancheung.plugins.jetbrains.legadoreader.storage.OfflineBookStorage;
+import com.nancheung.plugins.jetbrains.legadoreader.storage.TocSnapshotStorage;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 章节目录同步服务（Application Service）
+ * 书架信息显示目录未变化时直接使用本地快照（优先使用已下载的离线目录），否则重新获取并只解码变化的尾部；
+ * 重新获取失败时，已下载的书籍回退到离线目录
+ *
+ * @author NanCheung
+ */
+@Slf4j
+@Service
+public final class TocSyncService {
+
+    /**
+     * 获取服务实例
+     *
+     * @return 服务实例
+     */
+    public static TocSyncService getInstance() {
+        return ApplicationManager.getApplication().getService(TocSyncService.class);
+    }
+
+    /**
+     * 获取书籍的章节目录
+     *
+     * @param book 书籍信息（来自书架）
+     * @return 章节目录
+     */
+    public ChapterIndex sync(BookDTO book) {
+        TocSnapshotStorage storage = TocSnapshotStorage.getInstance();
+        String address = AddressHistoryStorage.getInstance().getMostRecent();
+        String bookUrl = book.getBookUrl();
+
+        TocSnapshotStorage.Fingerprint fingerprint = TocSnapshotStorage.Fingerprint.of(book);
+
+        // 1. 已下载且指纹一致，直接使用离线目录
+        TocSnapshotStorage.Snapshot offline = OfflineBookStorage.getInstance().loadChapters(bookUrl);
+        if (offline != null && fingerprint != null && fingerprint.equals(offline.fingerprint())) {
+            log.info("目录未变化，使用离线目录: book={}, chapters={}", book.getName(), offline.chapters().size());
+            return offline.chapters();
+        }
+
+        // 2. 指纹一致，直接使用快照
+        TocSnapshotStorage.Snapshot snapshot = storage.load(address, bookUrl);
+        if (snapshot != null && fingerprint != null && fingerprint.equals(snapshot.fingerprint())) {
+            log.info("目录未变化，使用本地快照: book={}, chapters={}", book.getName(), snapshot.chapters().size());
+            return snapshot.chapters();
+        }
+
+        // 3. 指纹不一致，重新获取并复用未变化的前缀
+        ChapterIndex base = snapshot != null ? snapshot.chapters() : null;
+        ChapterIndex chapters;
+        try {
+            chapters = ApiUtil.getChapterList(bookUrl, base);
+        } catch (RuntimeException e) {
+            if (offline == null || Thread.currentThread().isInterrupted()) {
+                throw e;
+            }
+            log.warn("获取目录失败，使用离线目录: book={}", book.getName(), e);
+            return offline.chapters();
+        }
+
+        storage.save(address, bookUrl, new TocSnapshotStorage.Snapshot(fingerprint, chapters));
+
+        log.info("目录已同步: book={}, chapters={}, 原有={}", book.getName(), chapters.size(), base != null ? base.size() : 0);
+        return chapters;
+    }
+}
@@ -0,0 +1,101 @@
+package com.nancheung.plugins.jetbrains.legadoreader.storage;
+
+import cn.hutool.crypto.digest.DigestUtil;
+import cn.hutool.json.JSONUtil;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.application.PathManager;
+import com.intellij.openapi.components.Service;
+import com.nancheung.plugins.jetbrains.legadoreader.api.dto.BookDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 书架快照存储（Application Service）
+ * 按服务器地址保存最近一次获取的书架，打开工具窗口时先显示快照，不等待网络请求
+ *
+ * @author NanCheung
+ */
+@Slf4j
+@Service
+public final class BookshelfSnapshotStorage {
+
+    /**
+     * 快照目录
+     */
+    private final Path snapshotDir;
+
+    /**
+     * 构造函数（由 IntelliJ Platform 调用）
+     */
+    public BookshelfSnapshotStorage() {
+        this.snapshotDir = Path.of(PathManager.getSystemPath(), "legado-reader", "bookshelf");
+    }
+
+    /**
+     * 获取服务实例
+     *
+     * @return 服务实例
+     */
+    public static BookshelfSnapshotStorage getInstance() {
+        return ApplicationManager.getApplication().getService(BookshelfSnapshotStorage.class);
+    }
+
+    /**
+     * 读取书架快照
+     *
+     * @param address 服务器地址
+     * @return 书籍列表，不存在或损坏时返回 null
+     */
+    @Nullable
+    public List<BookDTO> load(String address) {
+        Path file = snapshotFile(address);
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(file))) {
+            return JSONUtil.toList(new String(in.readAllBytes(), StandardCharsets.UTF_8), BookDTO.class);
+        } catch (Exception e) {
+            log.warn("读取书架快照失败: {}", file, e);
+            return null;
+        }
+    }
+
+    /**
+     * 保存书架快照
+     *
+     * @param address 服务器地址
+     * @param books   书籍列表
+     */
+    public void save(String address, List<BookDTO> books) {
+        Path file = snapshotFile(address);
+
+        try {
+            Files.createDirectories(snapshotDir);
+
+            // 先写临时文件再原子替换，避免读到半截内容
+            Path tempFile = Files.createTempFile(snapshotDir, "bookshelf", ".tmp");
+            try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(tempFile))) {
+                out.write(JSONUtil.toJsonStr(books).getBytes(StandardCharsets.UTF_8));
+            }
+            Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("保存书架快照失败: {}", file, e);
+        }
+    }
+
+    private Path snapshotFile(String address) {
+        return snapshotDir.resolve(DigestUtil.sha256Hex(address) + ".json.gz");
+    }
+}
@@ -0,0 +1,290 @@
+package com.nancheung.plugins.jetbrains.legadoreader.storage;
+
+import cn.hutool.crypto.digest.DigestUtil;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.application.PathManager;
+import com.intellij.openapi.components.Service;
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 章节正文磁盘缓存（Application Service）
+ * 按（服务器地址, bookUrl, 章节索引）缓存正文，存储在 IDE system 目录下
+ * 条目使用 GZIP 压缩，总大小超过上限时按 LRU 淘汰
+ *
+ * @author NanCheung
+ */
+@Slf4j
+@Service
+public final class ChapterContentCache {
+
+    /**
+     * 缓存总大小上限（压缩后字节数）
+     */
+    private static final long DEFAULT_MAX_BYTES = 64L * 1024 * 1024;
+
+    /**
+     * 缓存文件后缀
+     */
+    private static final String ENTRY_SUFFIX = ".gz";
+
+    /**
+     * 缓存目录
+     */
+    private final Path cacheDir;
+
+    /**
+     * 缓存总大小上限
+     */
+    private final long maxBytes;
+
+    /**
+     * LRU 索引（按访问顺序排列）
+     * key: 缓存文件名
+     * value: 文件大小
+     */
+    private final LinkedHashMap<String, Long> entries = new LinkedHashMap<>(64, 0.75f, true);
+
+    /**
+     * 当前缓存总大小
+     */
+    private long totalBytes;
+
+    /**
+     * 索引是否已从磁盘加载
+     */
+    private boolean indexLoaded;
+
+    /**
+     * 构造函数（由 IntelliJ Platform 调用）
+     */
+    public ChapterContentCache() {
+        this(Path.of(PathManager.getSystemPath(), "legado-reader", "content-cache"), DEFAULT_MAX_BYTES);
+    }
+
+    /**
+     * 构造函数
+     *
+     * @param cacheDir 缓存目录
+     * @param maxBytes 缓存总大小上限
+     */
+    public ChapterContentCache(Path cacheDir, long maxBytes) {
+        this.cacheDir = cacheDir;
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * 获取服务实例
+     *
+     * @return 服务实例
+     */
+    public static ChapterContentCache getInstance() {
+        return ApplicationManager.getApplication().getService(ChapterContentCache.class);
+    }
+
+    /**
+     * 读取缓存的章节正文
+     *
+     * @param address 服务器地址
+     * @param bookUrl 书籍 url
+     * @param index   章节索引
+     * @return 章节正文，未命中时返回 null
+     */
+    @Nullable
+    public String get(String address, String bookUrl, int index) {
+        String fileName = fileName(address, bookUrl, index);
+
+        synchronized (entries) {
+            ensureIndexLoaded();
+            if (entries.get(fileName) == null) {
+                return null;
+            }
+        }
+
+        Path file = cacheDir.resolve(fileName);
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(file))) {
+            String content = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            // 记录访问时间，保证重启后 LRU 顺序不丢失
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+            log.debug("章节缓存命中: index={}", index);
+            return content;
+        } catch (IOException e) {
+            // 文件可能已被淘汰或损坏，视为未命中
+            log.debug("读取章节缓存失败: {}", file, e);
+            remove(fileName);
+            return null;
+        }
+    }
+
+    /**
+     * 写入章节正文缓存
+     *
+     * @param address 服务器地址
+     * @param bookUrl 书籍 url
+     * @param index   章节索引
+     * @param content 章节正文
+     */
+    public void put(String address, String bookUrl, int index, String content) {
+        if (content == null) {
+            return;
+        }
+
+        String fileName = fileName(address, bookUrl, index);
+        Path file = cacheDir.resolve(fileName);
+
+        // 先加载索引再创建临时文件：加载时会清理遗留的临时文件，不能误删正在写入的
+        synchronized (entries) {
+            ensureIndexLoaded();
+        }
+
+        long size;
+        try {
+            Files.createDirectories(cacheDir);
+
+            // 先写临时文件再原子替换，避免读到半截内容
+            Path tempFile = Files.createTempFile(cacheDir, "entry", ".tmp");
+            try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(tempFile))) {
+                out.write(content.getBytes(StandardCharsets.UTF_8));
+            }
+            size = Files.size(tempFile);
+            Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("写入章节缓存失败: {}", file, e);
+            return;
+        }
+
+        synchronized (entries) {
+            Long oldSize = entries.put(fileName, size);
+            totalBytes += size - (oldSize != null ? oldSize : 0);
+            evictIfNecessary();
+        }
+    }
+
+    /**
+     * 清空缓存
+     */
+    public void clear() {
+        synchronized (entries) {
+            ensureIndexLoaded();
+            for (String fileName : new ArrayList<>(entries.keySet())) {
+                deleteQuietly(cacheDir.resolve(fileName));
+            }
+            entries.clear();
+            totalBytes = 0;
+        }
+        log.info("已清空章节缓存");
+    }
+
+    /**
+     * 获取当前缓存总大小
+     *
+     * @return 字节数
+     */
+    public long getTotalBytes() {
+        synchronized (entries) {
+            ensureIndexLoaded();
+            return totalBytes;
+        }
+    }
+
+    private void remove(String fileName) {
+        synchronized (entries) {
+            Long size = entries.remove(fileName);
+            if (size != null) {
+                totalBytes -= size;
+            }
+        }
+    }
+
+    /**
+     * 淘汰最久未访问的条目，直到总大小不超过上限
+     * 调用方需持有 entries 锁
+     */
+    private void evictIfNecessary() {
+        Iterator<Map.Entry<String, Long>> iterator = entries.entrySet().iterator();
+        while (totalBytes > maxBytes && iterator.hasNext()) {
+            Map.Entry<String, Long> eldest = iterator.next();
+            deleteQuietly(cacheDir.resolve(eldest.getKey()));
+            totalBytes -= eldest.getValue();
+            iterator.remove();
+            log.debug("淘汰章节缓存: {}", eldest.getKey());
+        }
+    }
+
+    /**
+     * 首次访问时从磁盘加载索引，按最后访问时间恢复 LRU 顺序
+     * 调用方需持有 entries 锁
+     */
+    private void ensureIndexLoaded() {
+        if (indexLoaded) {
+            return;
+        }
+        indexLoaded = true;
+
+        if (!Files.isDirectory(cacheDir)) {
+            return;
+        }
+
+        record CachedFile(String name, long size, long lastAccess) {
+        }
+
+        List<CachedFile> files = new ArrayList<>();
+        try (Stream<Path> stream = Files.list(cacheDir)) {
+            stream.forEach(path -> {
+                String name = path.getFileName().toString();
+                if (!name.endsWith(ENTRY_SUFFIX)) {
+                    // 清理上次异常退出遗留的临时文件
+                    deleteQuietly(path);
+                    return;
+                }
+                try {
+                    BasicFileAttributes attrs = Files.readAttributes(path, BasicFileAttributes.class);
+                    files.add(new CachedFile(name, attrs.size(), attrs.lastModifiedTime().toMillis()));
+                } catch (IOException e) {
+                    log.debug("读取缓存文件属性失败: {}", path, e);
+                }
+            });
+        } catch (IOException e) {
+            log.warn("加载章节缓存索引失败: {}", cacheDir, e);
+            return;
+        }
+
+        files.sort(Comparator.comparingLong(CachedFile::lastAccess));
+        for (CachedFile file : files) {
+            entries.put(file.name(), file.size());
+            totalBytes += file.size();
+        }
+        evictIfNecessary();
+
+        log.info("章节缓存索引已加载，共 {} 条，{} 字节", entries.size(), totalBytes);
+    }
+
+    private static String fileName(String address, String bookUrl, int index) {
+        return DigestUtil.sha256Hex(address + "\n" + bookUrl + "\n" + index) + ENTRY_SUFFIX;
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.debug("删除缓存文件失败: {}", path, e);
+        }
+    }
+}
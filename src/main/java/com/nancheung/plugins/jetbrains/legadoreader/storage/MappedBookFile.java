@@ -0,0 +1,328 @@
+package com.nancheung.plugins.jetbrains.legadoreader.storage;
+
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * 单本书籍的离线存储文件（内存映射）
+ * <p>
+ * 由两个文件组成：
+ * <ul>
+ *     <li>数据文件：所有章节正文（UTF-8）首尾相接，按下载完成的顺序追加</li>
+ *     <li>索引文件：文件头 + 每章一个定长槽位（数据偏移 + 字节长度），按章节索引直接定位</li>
+ * </ul>
+ * 两个文件都通过 {@link FileChannel#map} 读取：查找章节只读一个槽位，解码直接读映射区，
+ * 跳转到任意章节都不需要把其他章节读入堆内存
+ * <p>
+ * 写入时先追加正文再写槽位（偏移最后写入），中断时最多留下无人引用的数据，不会出现指向半截正文的槽位；
+ * 线程被中断（加载被取代、下载被取消）时 {@link FileChannel} 会被关闭，下次使用时重新打开
+ *
+ * @author NanCheung
+ */
+@Slf4j
+final class MappedBookFile implements Closeable {
+
+    /**
+     * 索引文件魔数（"LGDB"）
+     */
+    private static final int MAGIC = 0x4C474442;
+
+    /**
+     * 索引文件格式版本
+     */
+    private static final int FORMAT_VERSION = 1;
+
+    /**
+     * 索引文件头：魔数、版本、章节数、保留
+     */
+    private static final int HEADER_BYTES = 16;
+
+    /**
+     * 章节数在文件头中的位置
+     */
+    private static final int CHAPTER_COUNT_POSITION = 8;
+
+    /**
+     * 每章槽位：数据偏移（long）+ 字节长度（int）
+     */
+    private static final int SLOT_BYTES = 12;
+
+    /**
+     * 未下载章节的数据偏移
+     */
+    private static final long MISSING = -1;
+
+    private final Path indexFile;
+
+    private final Path dataFile;
+
+    private FileChannel indexChannel;
+
+    private FileChannel dataChannel;
+
+    /**
+     * 是否已关闭（关闭后不再重新打开通道）
+     */
+    private boolean closed;
+
+    /**
+     * 索引文件映射（读写）
+     */
+    private MappedByteBuffer indexMap;
+
+    /**
+     * 数据文件映射（只读，可能落后于文件大小，需要时重新映射）
+     */
+    @Nullable
+    private MappedByteBuffer dataMap;
+
+    /**
+     * 清除所有章节（槽位数置为 0，重新打开后也视为未写入任何章节）
+     * 删除文件前调用，文件无法删除时书籍也已不可读
+     */
+    synchronized void clearAll() {
+        if (indexMap != null) {
+            indexMap.putInt(CHAPTER_COUNT_POSITION, 0);
+            chapterCount = 0;
+        }
+    }
+
+    /**
+     * 槽位数
+     */
+    private int chapterCount;
+
+    private MappedBookFile(Path indexFile, Path dataFile) {
+        this.indexFile = indexFile;
+        this.dataFile = dataFile;
+    }
+
+    /**
+     * 打开（不存在时创建）书籍存储文件
+     * 索引文件格式不兼容或已损坏时清空重建
+     *
+     * @param indexFile 索引文件
+     * @param dataFile  数据文件
+     * @return 存储文件
+     * @throws IOException 打开失败
+     */
+    static MappedBookFile open(Path indexFile, Path dataFile) throws IOException {
+        MappedBookFile file = new MappedBookFile(indexFile, dataFile);
+        try {
+            file.load();
+        } catch (IOException e) {
+            file.close();
+            throw e;
+        }
+        return file;
+    }
+
+    /**
+     * 章节是否已写入
+     *
+     * @param index 章节索引
+     * @return true 如果已写入
+     */
+    synchronized boolean contains(int index) {
+        return indexMap != null && index >= 0 && index < chapterCount && indexMap.getLong(slotPosition(index)) != MISSING;
+    }
+
+    /**
+     * 读取章节正文
+     * 直接从数据文件的映射区解码
+     *
+     * @param index 章节索引
+     * @return 章节正文，未写入（或已关闭）时返回 null
+     * @throws IOException 读取失败或索引指向文件之外
+     */
+    @Nullable
+    String read(int index) throws IOException {
+        ByteBuffer slice;
+        synchronized (this) {
+            if (indexMap == null || index < 0 || index >= chapterCount) {
+                return null;
+            }
+            int slot = slotPosition(index);
+            long offset = indexMap.getLong(slot);
+            if (offset == MISSING) {
+                return null;
+            }
+            int length = indexMap.getInt(slot + Long.BYTES);
+            slice = dataMap(offset + length).slice((int) offset, length);
+        }
+        return StandardCharsets.UTF_8.decode(slice).toString();
+    }
+
+    /**
+     * 写入章节正文
+     * 已写入的章节会被覆盖（旧正文留在数据文件中，不再被引用）
+     *
+     * @param index   章节索引
+     * @param content 章节正文
+     * @throws IOException 写入失败
+     */
+    synchronized void write(int index, String content) throws IOException {
+        if (indexMap == null) {
+            throw new IOException("离线书籍已关闭");
+        }
+        ensureCapacity(index + 1);
+
+        // 1. 追加正文
+        ByteBuffer bytes = StandardCharsets.UTF_8.encode(content);
+        int length = bytes.remaining();
+        FileChannel channel = dataChannel();
+        long offset = channel.size();
+        long position = offset;
+        while (bytes.hasRemaining()) {
+            position += channel.write(bytes, position);
+        }
+
+        // 2. 写入槽位（偏移最后写入，写入后章节才可见）
+        int slot = slotPosition(index);
+        indexMap.putInt(slot + Long.BYTES, length);
+        indexMap.putLong(slot, offset);
+    }
+
+    /**
+     * 清除章节（槽位标记为未写入，旧正文留在数据文件中，不再被引用）
+     *
+     * @param index 章节索引
+     */
+    synchronized void clear(int index) {
+        if (indexMap != null && index >= 0 && index < chapterCount) {
+            indexMap.putLong(slotPosition(index), MISSING);
+        }
+    }
+
+    /**
+     * 槽位数
+     *
+     * @return 槽位数，已关闭时返回 0
+     */
+    synchronized int chapterCount() {
+        return indexMap != null ? chapterCount : 0;
+    }
+
+    /**
+     * 确保至少有 count 个槽位
+     *
+     * @param count 章节数
+     * @throws IOException 扩展索引文件失败
+     */
+    synchronized void ensureCapacity(int count) throws IOException {
+        if (count <= chapterCount) {
+            return;
+        }
+
+        indexMap = indexChannel().map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES + (long) SLOT_BYTES * count);
+        for (int i = chapterCount; i < count; i++) {
+            indexMap.putLong(slotPosition(i), MISSING);
+        }
+        indexMap.putInt(CHAPTER_COUNT_POSITION, count);
+        chapterCount = count;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        // 映射区在失去引用后由 GC 释放，这里只关闭通道
+        closed = true;
+        indexMap = null;
+        dataMap = null;
+        try {
+            if (indexChannel != null) {
+                indexChannel.close();
+            }
+        } finally {
+            if (dataChannel != null) {
+                dataChannel.close();
+            }
+        }
+    }
+
+    /**
+     * 读取文件头，新文件写入空文件头
+     */
+    private void load() throws IOException {
+        FileChannel channel = indexChannel();
+        long size = channel.size();
+        if (size >= HEADER_BYTES) {
+            MappedByteBuffer map = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            int count = map.getInt(CHAPTER_COUNT_POSITION);
+            if (map.getInt(0) == MAGIC && map.getInt(4) == FORMAT_VERSION
+                    && count >= 0 && size >= HEADER_BYTES + (long) SLOT_BYTES * count) {
+                indexMap = map;
+                chapterCount = count;
+                return;
+            }
+            log.warn("离线书籍索引格式不兼容，重新创建");
+        }
+
+        channel.truncate(0);
+        dataChannel().truncate(0);
+        indexMap = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES);
+        indexMap.putInt(0, MAGIC);
+        indexMap.putInt(4, FORMAT_VERSION);
+        indexMap.putInt(CHAPTER_COUNT_POSITION, 0);
+        chapterCount = 0;
+    }
+
+    /**
+     * 获取覆盖 [0, end) 的数据文件映射，文件增长后重新映射
+     * 调用方需持有锁
+     */
+    private MappedByteBuffer dataMap(long end) throws IOException {
+        if (dataMap != null && dataMap.capacity() >= end) {
+            return dataMap;
+        }
+
+        FileChannel channel = dataChannel();
+        long size = channel.size();
+        if (end > size || size > Integer.MAX_VALUE) {
+            throw new IOException("离线书籍数据不完整: end=" + end + ", size=" + size);
+        }
+        dataMap = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        return dataMap;
+    }
+
+    /**
+     * 获取索引文件通道，未打开或已被中断关闭时重新打开
+     * 调用方需持有锁
+     */
+    private FileChannel indexChannel() throws IOException {
+        if (indexChannel == null || !indexChannel.isOpen()) {
+            indexChannel = reopen(indexFile);
+        }
+        return indexChannel;
+    }
+
+    /**
+     * 获取数据文件通道，未打开或已被中断关闭时重新打开
+     * 调用方需持有锁
+     */
+    private FileChannel dataChannel() throws IOException {
+        if (dataChannel == null || !dataChannel.isOpen()) {
+            dataChannel = reopen(dataFile);
+        }
+        return dataChannel;
+    }
+
+    private FileChannel reopen(Path file) throws IOException {
+        if (closed) {
+            throw new IOException("离线书籍已关闭");
+        }
+        return FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    }
+
+    private static int slotPosition(int index) {
+        return HEADER_BYTES + SLOT_BYTES * index;
+    }
+}
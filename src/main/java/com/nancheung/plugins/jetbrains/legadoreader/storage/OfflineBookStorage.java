@@ -0,0 +1,287 @@
+package com.nancheung.plugins.jetbrains.legadoreader.storage;
+
+import cn.hutool.crypto.digest.DigestUtil;
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.application.PathManager;
+import com.intellij.openapi.components.Service;
+import com.nancheung.plugins.jetbrains.legadoreader.model.ChapterIndex;
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 离线书籍存储（Application Service）
+ * 保存已下载书籍的章节目录和全部正文，存储在 IDE system 目录下，不参与 LRU 淘汰
+ * <p>
+ * 与服务器地址无关（仅按 bookUrl 区分），服务器不可用时也能读取；
+ * 每本书的正文存为一个索引文件和一个数据文件（见 {@link MappedBookFile}），按章节索引直接定位，
+ * 已写入的章节即为已下载，中断后再次下载只补齐缺少的章节
+ *
+ * @author NanCheung
+ */
+@Slf4j
+@Service
+public final class OfflineBookStorage implements Disposable {
+
+    /**
+     * 索引文件后缀
+     */
+    private static final String INDEX_SUFFIX = ".idx";
+
+    /**
+     * 数据文件后缀
+     */
+    private static final String DATA_SUFFIX = ".dat";
+
+    /**
+     * 存储根目录
+     */
+    private final Path rootDir;
+
+    /**
+     * 章节目录存储
+     */
+    private final TocSnapshotStorage tocStorage;
+
+    /**
+     * 已打开的书籍存储文件
+     * key: 书籍 url
+     */
+    private final Map<String, MappedBookFile> books = new ConcurrentHashMap<>();
+
+    /**
+     * 构造函数（由 IntelliJ Platform 调用）
+     */
+    public OfflineBookStorage() {
+        this(Path.of(PathManager.getSystemPath(), "legado-reader", "offline"));
+    }
+
+    /**
+     * 构造函数
+     *
+     * @param rootDir 存储根目录
+     */
+    public OfflineBookStorage(Path rootDir) {
+        this.rootDir = rootDir;
+        this.tocStorage = new TocSnapshotStorage(rootDir.resolve("toc"));
+    }
+
+    /**
+     * 获取服务实例
+     *
+     * @return 服务实例
+     */
+    public static OfflineBookStorage getInstance() {
+        return ApplicationManager.getApplication().getService(OfflineBookStorage.class);
+    }
+
+    /**
+     * 读取已下载的章节目录
+     *
+     * @param bookUrl 书籍 url
+     * @return 目录快照，未下载时返回 null
+     */
+    @Nullable
+    public TocSnapshotStorage.Snapshot loadChapters(String bookUrl) {
+        return tocStorage.load(null, bookUrl);
+    }
+
+    /**
+     * 保存章节目录，并为每一章预留索引槽位
+     * 正文按章节索引存储，目录变化（插入、删除、调整章节）后同一索引可能对应另一章，
+     * 因此先清除与旧目录不一致的章节（再次下载时重新获取），再保存新目录
+     *
+     * @param bookUrl  书籍 url
+     * @param snapshot 目录快照
+     * @throws IOException 创建书籍存储文件失败
+     */
+    public void saveChapters(String bookUrl, TocSnapshotStorage.Snapshot snapshot) throws IOException {
+        MappedBookFile file = open(bookUrl);
+        ChapterIndex chapters = snapshot.chapters();
+        TocSnapshotStorage.Snapshot previous = tocStorage.load(null, bookUrl);
+
+        // 没有旧目录时无法确认已有正文属于哪一章，全部清除
+        ChapterIndex previousChapters = previous != null ? previous.chapters() : ChapterIndex.empty();
+        int stale = 0;
+        for (int i = 0; i < file.chapterCount(); i++) {
+            if (file.contains(i) && !sameChapter(previousChapters, chapters, i)) {
+                file.clear(i);
+                stale++;
+            }
+        }
+        if (stale > 0) {
+            log.info("目录已变化，清除 {} 章离线正文: {}", stale, bookUrl);
+        }
+
+        file.ensureCapacity(chapters.size());
+        tocStorage.save(null, bookUrl, snapshot);
+    }
+
+    /**
+     * 章节正文是否已下载
+     *
+     * @param bookUrl 书籍 url
+     * @param index   章节索引
+     * @return true 如果已下载
+     */
+    public boolean hasContent(String bookUrl, int index) {
+        MappedBookFile file = openExisting(bookUrl);
+        return file != null && file.contains(index);
+    }
+
+    /**
+     * 读取已下载的章节正文
+     * 只读取该章节在数据文件中的区间，不加载其他章节
+     *
+     * @param bookUrl 书籍 url
+     * @param index   章节索引
+     * @return 章节正文，未下载或读取失败时返回 null
+     */
+    @Nullable
+    public String loadContent(String bookUrl, int index) {
+        MappedBookFile file = openExisting(bookUrl);
+        if (file == null) {
+            return null;
+        }
+
+        try {
+            String content = file.read(index);
+            if (content != null) {
+                log.debug("读取离线章节: index={}", index);
+            }
+            return content;
+        } catch (IOException e) {
+            log.warn("读取离线章节失败: index={}", index, e);
+            return null;
+        }
+    }
+
+    /**
+     * 保存章节正文
+     *
+     * @param bookUrl 书籍 url
+     * @param index   章节索引
+     * @param content 章节正文
+     * @throws IOException 写入失败
+     */
+    public void saveContent(String bookUrl, int index, String content) throws IOException {
+        open(bookUrl).write(index, content);
+    }
+
+    /**
+     * 删除已下载的书籍
+     * 先清空索引并删除目录快照（此后书籍即视为未下载），再删除索引文件和数据文件；
+     * 文件仍被映射时（Windows 下映射区释放前）可能无法删除，残留的文件在再次下载时被清空重建
+     *
+     * @param bookUrl 书籍 url
+     * @throws IOException 有文件未能删除
+     */
+    public void delete(String bookUrl) throws IOException {
+        String baseName = baseName(bookUrl);
+        List<Path> remaining = new ArrayList<>();
+
+        // 在 compute 中删除，避免与同一书籍的 open 交错
+        books.compute(bookUrl, (key, file) -> {
+            if (file != null) {
+                file.clearAll();
+                closeQuietly(file);
+            }
+            for (Path path : List.of(tocStorage.snapshotFile(null, key), rootDir.resolve(baseName + INDEX_SUFFIX), rootDir.resolve(baseName + DATA_SUFFIX))) {
+                try {
+                    Files.deleteIfExists(path);
+                } catch (IOException e) {
+                    log.warn("删除离线文件失败: {}", path, e);
+                    remaining.add(path);
+                }
+            }
+            return null;
+        });
+
+        if (!remaining.isEmpty()) {
+            throw new IOException("部分离线文件未能删除（可在重启 IDE 后重试）: " + remaining);
+        }
+        log.info("已删除离线书籍: {}", bookUrl);
+    }
+
+    /**
+     * 打开书籍存储文件，不存在时创建
+     */
+    private MappedBookFile open(String bookUrl) throws IOException {
+        try {
+            return books.computeIfAbsent(bookUrl, key -> {
+                try {
+                    Files.createDirectories(rootDir);
+                    String baseName = baseName(key);
+                    return MappedBookFile.open(rootDir.resolve(baseName + INDEX_SUFFIX), rootDir.resolve(baseName + DATA_SUFFIX));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * 打开已存在的书籍存储文件（未下载的书籍不创建文件）
+     */
+    @Nullable
+    private MappedBookFile openExisting(String bookUrl) {
+        MappedBookFile file = books.get(bookUrl);
+        if (file != null) {
+            return file;
+        }
+        if (!Files.isRegularFile(rootDir.resolve(baseName(bookUrl) + INDEX_SUFFIX))) {
+            return null;
+        }
+
+        try {
+            return open(bookUrl);
+        } catch (IOException e) {
+            log.warn("打开离线书籍失败: {}", bookUrl, e);
+            return null;
+        }
+    }
+
+    /**
+     * 两个目录的第 i 章是否是同一章（url 和标题都相同）
+     */
+    private static boolean sameChapter(ChapterIndex previous, ChapterIndex current, int i) {
+        return i < previous.size() && i < current.size()
+                && previous.url(i).equals(current.url(i))
+                && previous.title(i).equals(current.title(i));
+    }
+
+    private static String baseName(String bookUrl) {
+        return DigestUtil.sha256Hex(bookUrl);
+    }
+
+    private static void closeQuietly(@Nullable MappedBookFile file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            file.close();
+        } catch (IOException e) {
+            log.debug("关闭离线书籍失败", e);
+        }
+    }
+
+    /**
+     * 关闭所有书籍存储文件（由 IntelliJ Platform 在应用关闭时自动调用）
+     */
+    @Override
+    public void dispose() {
+        books.values().forEach(OfflineBookStorage::closeQuietly);
+        books.clear();
+    }
+}
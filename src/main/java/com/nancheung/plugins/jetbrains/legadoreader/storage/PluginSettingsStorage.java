@@ -7,11 +7,13 @@ import com.intellij.openapi.components.PersistentStateComponent;
 import com.intellij.openapi.components.Service;
 import com.intellij.openapi.components.State;
 import com.intellij.openapi.components.Storage;
+import com.intellij.util.messages.Topic;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import javax.swing.*;
 import java.awt.*;
+import java.time.Duration;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -26,6 +28,24 @@ import java.util.stream.Collectors;
 @State(name = "LegadoReaderSettings", storages = @Storage("nancheung-legadoReader-settings.xml"))
 public final class PluginSettingsStorage implements PersistentStateComponent<PluginSettingsStorage.State> {
 
+    /**
+     * 设置变更通知（Application 级别）
+     */
+    @Topic.AppLevel
+    public static final Topic<SettingsChangedListener> SETTINGS_CHANGED =
+            Topic.create("LegadoReader.SettingsChanged", SettingsChangedListener.class);
+
+    /**
+     * 设置变更监听器
+     */
+    public interface SettingsChangedListener {
+
+        /**
+         * 设置已变更
+         */
+        void settingsChanged();
+    }
+
     /**
      * 内部状态类，用于 XML 序列化
      * PersistentStateComponent 框架会自动检测字段变化并持久化
@@ -59,6 +79,26 @@ public final class PluginSettingsStorage implements PersistentStateComponent<Plu
          * 是否启用行内模式
          */
         public Boolean enableShowBodyInLine = false;
+        /**
+         * 向后预加载的章节数
+         */
+        public Integer prefetchNextCount = 2;
+        /**
+         * 向前预加载的章节数
+         */
+        public Integer prefetchPreviousCount = 1;
+        /**
+         * API 连接超时（毫秒）
+         */
+        public Integer apiConnectTimeoutMillis = 3000;
+        /**
+         * API 读取超时（毫秒）
+         */
+        public Integer apiReadTimeoutMillis = 30000;
+        /**
+         * 阅读进度同步间隔（毫秒），同一本书在一个间隔内最多同步一次
+         */
+        public Integer progressSyncIntervalMillis = 5000;
     }
 
     private State state = new State();
@@ -147,10 +187,22 @@ public final class PluginSettingsStorage implements PersistentStateComponent<Plu
 
         // 直接修改 State 字段，框架会自动持久化
         currentState.enableShowBodyInLine = newState;
+        fireSettingsChanged();
 
         return newState;
     }
 
+    /**
+     * 通知设置已变更
+     * 直接修改 State 字段后调用，订阅者据此刷新依赖设置的缓存
+     */
+    public void fireSettingsChanged() {
+        ApplicationManager.getApplication()
+                .getMessageBus()
+                .syncPublisher(SETTINGS_CHANGED)
+                .settingsChanged();
+    }
+
     /**
      * 获取正文字体名称
      * 如果未设置，返回 IDE 编辑器字体
@@ -172,6 +224,67 @@ public final class PluginSettingsStorage implements PersistentStateComponent<Plu
         return family;
     }
 
+    /**
+     * 获取向后预加载的章节数
+     * 如果未设置或超出范围，返回默认值 2
+     *
+     * @return 章节数（0 表示不预加载）
+     */
+    public int getPrefetchNextCount() {
+        Integer count = getState().prefetchNextCount;
+        if (count == null || count < 0 || count > 10) {
+            return 2;
+        }
+        return count;
+    }
+
+    /**
+     * 获取向前预加载的章节数
+     * 如果未设置或超出范围，返回默认值 1
+     *
+     * @return 章节数（0 表示不预加载）
+     */
+    public int getPrefetchPreviousCount() {
+        Integer count = getState().prefetchPreviousCount;
+        if (count == null || count < 0 || count > 10) {
+            return 1;
+        }
+        return count;
+    }
+
+    /**
+     * 获取 API 连接超时
+     * 如果未设置或不是正数，返回默认值 3 秒
+     *
+     * @return 连接超时
+     */
+    public Duration getApiConnectTimeout() {
+        Integer millis = getState().apiConnectTimeoutMillis;
+        return Duration.ofMillis(millis == null || millis <= 0 ? 3000 : millis);
+    }
+
+    /**
+     * 获取 API 读取超时（从发出请求到收到完整响应）
+     * 如果未设置或不是正数，返回默认值 30 秒
+     *
+     * @return 读取超时
+     */
+    public Duration getApiReadTimeout() {
+        Integer millis = getState().apiReadTimeoutMillis;
+        return Duration.ofMillis(millis == null || millis <= 0 ? 30000 : millis);
+    }
+
+    /**
+     * 获取阅读进度同步间隔
+     * 如果未设置或小于 500 毫秒，返回默认值 5 秒
+     *
+     * @return 同步间隔
+     */
+    public Duration getProgressSyncInterval() {
+        Integer millis = getState().progressSyncIntervalMillis;
+        return Duration.ofMillis(millis == null || millis < 500 ? 5000 : millis);
+    }
+
     /**
      * 获取正文字体行高
      * 如果未设置或超出范围，返回默认值 1.5
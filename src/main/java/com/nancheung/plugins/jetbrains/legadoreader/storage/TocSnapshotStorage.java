@@ -0,0 +1,191 @@
+package com.nancheung.plugins.jetbrains.legadoreader.storage;
+
+import cn.hutool.crypto.digest.DigestUtil;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.application.PathManager;
+import com.intellij.openapi.components.Service;
+import com.nancheung.plugins.jetbrains.legadoreader.api.dto.BookDTO;
+import com.nancheung.plugins.jetbrains.legadoreader.model.ChapterIndex;
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Objects;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 章节目录快照存储（Application Service）
+ * 按（服务器地址, bookUrl）将最近一次获取的章节目录及其指纹持久化到 IDE system 目录下，
+ * 不同服务器上同一 bookUrl 的目录互不影响
+ *
+ * @author NanCheung
+ */
+@Slf4j
+@Service
+public final class TocSnapshotStorage {
+
+    /**
+     * 快照文件格式版本
+     */
+    private static final int FORMAT_VERSION = 1;
+
+    /**
+     * 快照目录
+     */
+    private final Path snapshotDir;
+
+    /**
+     * 目录指纹
+     * 书架信息中的这些字段都没有变化时，认为目录没有变化
+     *
+     * @param totalChapterNum    章节总数
+     * @param latestChapterTitle 最新章节标题
+     * @param lastCheckTime      最后检查更新时间
+     */
+    public record Fingerprint(int totalChapterNum, @Nullable String latestChapterTitle, long lastCheckTime) {
+
+        /**
+         * 从书籍信息计算指纹
+         *
+         * @param book 书籍信息
+         * @return 指纹，章节总数未知时返回 null
+         */
+        @Nullable
+        public static Fingerprint of(BookDTO book) {
+            if (book.getTotalChapterNum() == null) {
+                return null;
+            }
+            return new Fingerprint(
+                    book.getTotalChapterNum(),
+                    book.getLatestChapterTitle(),
+                    Objects.requireNonNullElse(book.getLastCheckTime(), 0L)
+            );
+        }
+    }
+
+    /**
+     * 目录快照
+     *
+     * @param fingerprint 指纹（可能为 null）
+     * @param chapters    章节目录
+     */
+    public record Snapshot(@Nullable Fingerprint fingerprint, ChapterIndex chapters) {
+    }
+
+    /**
+     * 构造函数（由 IntelliJ Platform 调用）
+     */
+    public TocSnapshotStorage() {
+        this(Path.of(PathManager.getSystemPath(), "legado-reader", "toc"));
+    }
+
+    /**
+     * 构造函数
+     *
+     * @param snapshotDir 快照目录
+     */
+    public TocSnapshotStorage(Path snapshotDir) {
+        this.snapshotDir = snapshotDir;
+    }
+
+    /**
+     * 获取服务实例
+     *
+     * @return 服务实例
+     */
+    public static TocSnapshotStorage getInstance() {
+        return ApplicationManager.getApplication().getService(TocSnapshotStorage.class);
+    }
+
+    /**
+     * 读取目录快照
+     *
+     * @param address 服务器地址（为 null 时与服务器无关，如离线书籍）
+     * @param bookUrl 书籍 url
+     * @return 快照，不存在或损坏时返回 null
+     */
+    @Nullable
+    public Snapshot load(@Nullable String address, String bookUrl) {
+        Path file = snapshotFile(address, bookUrl);
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(Files.newInputStream(file))))) {
+            if (in.readInt() != FORMAT_VERSION) {
+                return null;
+            }
+
+            Fingerprint fingerprint = null;
+            if (in.readBoolean()) {
+                int totalChapterNum = in.readInt();
+                String latestChapterTitle = in.readBoolean() ? in.readUTF() : null;
+                long lastCheckTime = in.readLong();
+                fingerprint = new Fingerprint(totalChapterNum, latestChapterTitle, lastCheckTime);
+            }
+
+            return new Snapshot(fingerprint, ChapterIndex.readFrom(in));
+        } catch (IOException e) {
+            log.warn("读取目录快照失败: {}", file, e);
+            return null;
+        }
+    }
+
+    /**
+     * 保存目录快照
+     *
+     * @param address  服务器地址（为 null 时与服务器无关，如离线书籍）
+     * @param bookUrl  书籍 url
+     * @param snapshot 快照
+     */
+    public void save(@Nullable String address, String bookUrl, Snapshot snapshot) {
+        Path file = snapshotFile(address, bookUrl);
+        Path tempFile = null;
+
+        try {
+            Files.createDirectories(snapshotDir);
+
+            // 先写临时文件再原子替换，避免读到半截内容
+            tempFile = Files.createTempFile(snapshotDir, "toc", ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(Files.newOutputStream(tempFile))))) {
+                out.writeInt(FORMAT_VERSION);
+
+                Fingerprint fingerprint = snapshot.fingerprint();
+                out.writeBoolean(fingerprint != null);
+                if (fingerprint != null) {
+                    out.writeInt(fingerprint.totalChapterNum());
+                    out.writeBoolean(fingerprint.latestChapterTitle() != null);
+                    if (fingerprint.latestChapterTitle() != null) {
+                        out.writeUTF(fingerprint.latestChapterTitle());
+                    }
+                    out.writeLong(fingerprint.lastCheckTime());
+                }
+
+                snapshot.chapters().writeTo(out);
+            }
+            Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("保存目录快照失败: {}", file, e);
+            if (tempFile != null) {
+                deleteQuietly(tempFile);
+            }
+        }
+    }
+
+    Path snapshotFile(@Nullable String address, String bookUrl) {
+        String key = address != null ? address + "\n" + bookUrl : bookUrl;
+        return snapshotDir.resolve(DigestUtil.sha256Hex(key) + ".bin");
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.debug("删除临时文件失败: {}", path, e);
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.nancheung.plugins.jetbrains.legadoreader.toolwindow;
+
+import com.nancheung.plugins.jetbrains.legadoreader.api.dto.BookDTO;
+
+import javax.swing.table.AbstractTableModel;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * 书架表格模型
+ * 直接以书籍列表作为数据，单元格内容在绘制时按需读取，不为每行复制数据
+ * <p>
+ * 刷新时按书籍标识（作者 + 书名）与当前列表比较，只对新增、删除、变化和移动的行发出事件，
+ * 书架未变化时不触发任何重绘
+ *
+ * @author NanCheung
+ */
+public class BookshelfTableModel extends AbstractTableModel {
+
+    /**
+     * 列名
+     */
+    private static final String[] COLUMN_NAMES = {"name", "current", "new", "author"};
+
+    /**
+     * 当前显示的书籍（与表格行一一对应）
+     */
+    private final List<BookDTO> books = new ArrayList<>();
+
+    @Override
+    public int getRowCount() {
+        return books.size();
+    }
+
+    @Override
+    public int getColumnCount() {
+        return COLUMN_NAMES.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return COLUMN_NAMES[column];
+    }
+
+    @Override
+    public Object getValueAt(int rowIndex, int columnIndex) {
+        BookDTO book = books.get(rowIndex);
+        return switch (columnIndex) {
+            case 0 -> book.getName();
+            case 1 -> book.getDurChapterTitle();
+            case 2 -> book.getLatestChapterTitle();
+            case 3 -> book.getAuthor();
+            default -> null;
+        };
+    }
+
+    @Override
+    public boolean isCellEditable(int rowIndex, int columnIndex) {
+        // 表格不允许被编辑
+        return false;
+    }
+
+    /**
+     * 获取行对应的书籍
+     *
+     * @param rowIndex 行索引（模型索引）
+     * @return 书籍信息
+     */
+    public BookDTO getBook(int rowIndex) {
+        return books.get(rowIndex);
+    }
+
+    /**
+     * 更新书架（在 EDT 中调用）
+     * 依次删除已不在书架上的书籍，再按新顺序逐行对齐：相同则跳过，内容变化则更新，
+     * 位置变化则移动（删除后插入），新书则插入
+     *
+     * @param newBooks 新的书籍列表
+     */
+    public void update(List<BookDTO> newBooks) {
+        // 1. 删除已不在书架上的书籍（从后向前，连续的行合并为一个事件）
+        Set<String> newKeys = new HashSet<>(newBooks.size() * 2);
+        for (BookDTO book : newBooks) {
+            newKeys.add(key(book));
+        }
+        int end = books.size();
+        for (int i = books.size() - 1; i >= -1; i--) {
+            if (i >= 0 && !newKeys.contains(key(books.get(i)))) {
+                continue;
+            }
+            if (i + 1 < end) {
+                books.subList(i + 1, end).clear();
+                fireTableRowsDeleted(i + 1, end - 1);
+            }
+            end = i;
+        }
+
+        // 2. 按新顺序对齐（此时当前列表中的书籍都在新列表中）
+        for (int i = 0; i < newBooks.size(); i++) {
+            BookDTO book = newBooks.get(i);
+            String key = key(book);
+
+            if (i < books.size() && key.equals(key(books.get(i)))) {
+                if (!book.equals(books.get(i))) {
+                    books.set(i, book);
+                    fireTableRowsUpdated(i, i);
+                }
+                continue;
+            }
+
+            int from = indexOf(key, i + 1);
+            if (from >= 0) {
+                books.remove(from);
+                fireTableRowsDeleted(from, from);
+            }
+            books.add(i, book);
+            fireTableRowsInserted(i, i);
+        }
+
+        // 3. 删除多余的行（新列表中有重复标识时）
+        if (books.size() > newBooks.size()) {
+            int last = books.size() - 1;
+            books.subList(newBooks.size(), books.size()).clear();
+            fireTableRowsDeleted(newBooks.size(), last);
+        }
+    }
+
+    private int indexOf(String key, int fromIndex) {
+        for (int i = fromIndex; i < books.size(); i++) {
+            if (key.equals(key(books.get(i)))) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static String key(BookDTO book) {
+        return Objects.toString(book.getAuthor(), "") + "#" + Objects.toString(book.getName(), "");
+    }
+}
@@ -0,0 +1,64 @@
+package com.nancheung.plugins.jetbrains.legadoreader.toolwindow;
+
+import lombok.experimental.UtilityClass;
+
+import javax.swing.text.AttributeSet;
+import javax.swing.text.BadLocationException;
+import javax.swing.text.DefaultStyledDocument;
+import javax.swing.text.SimpleAttributeSet;
+import javax.swing.text.StyleConstants;
+import javax.swing.text.StyledDocument;
+
+/**
+ * 正文文档构建工具
+ * 在后台线程构建章节正文的文档（尚未关联到任何组件，可以在 EDT 之外修改），
+ * 段落属性（行高）在构建时一并设置，EDT 只需替换文档并完成一次布局
+ *
+ * @author NanCheung
+ */
+@UtilityClass
+class ChapterDocumentBuilder {
+
+    /**
+     * 构建正文文档
+     *
+     * @param text                文档内容
+     * @param paragraphAttributes 段落属性
+     * @return 文档
+     */
+    StyledDocument build(String text, AttributeSet paragraphAttributes) {
+        DefaultStyledDocument document = new DefaultStyledDocument();
+        insert(document, 0, text, paragraphAttributes);
+        return document;
+    }
+
+    /**
+     * 插入文本并为其所在段落设置段落属性
+     *
+     * @param document            文档
+     * @param offset              插入位置
+     * @param text                文本
+     * @param paragraphAttributes 段落属性
+     */
+    void insert(StyledDocument document, int offset, String text, AttributeSet paragraphAttributes) {
+        try {
+            document.insertString(offset, text, null);
+        } catch (BadLocationException e) {
+            // 调用方保证插入位置在文档范围内
+            throw new IllegalStateException(e);
+        }
+        document.setParagraphAttributes(offset, text.length(), paragraphAttributes, false);
+    }
+
+    /**
+     * 创建段落属性
+     *
+     * @param lineHeight 行高倍数
+     * @return 段落属性
+     */
+    AttributeSet paragraphAttributes(double lineHeight) {
+        SimpleAttributeSet attributes = new SimpleAttributeSet();
+        StyleConstants.setLineSpacing(attributes, (float) (lineHeight - 1.0));
+        return attributes;
+    }
+}
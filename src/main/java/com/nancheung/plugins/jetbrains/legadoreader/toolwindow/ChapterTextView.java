@@ -0,0 +1,425 @@
+package com.nancheung.plugins.jetbrains.legadoreader.toolwindow;
+
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.Nullable;
+
+import javax.swing.*;
+import javax.swing.text.AttributeSet;
+import javax.swing.text.BadLocationException;
+import javax.swing.text.StyledDocument;
+import java.awt.*;
+import java.awt.geom.Rectangle2D;
+import java.util.function.IntConsumer;
+
+/**
+ * 工具窗口正文视图（窗口化）
+ * 章节较短时整章放入文档；超长章节只在文档中保留当前位置附近的一段（窗口，按段落对齐），
+ * 滚动接近窗口边缘时向该方向追加一段并裁掉另一端，文档和视图树的大小始终有上限
+ * <p>
+ * 文档偏移与章节字符位置（不含标题）相互换算，用于翻页时的光标同步和滚动后的阅读进度记录
+ * <p>
+ * 除 {@link #prepare} 外的方法都必须在 EDT 中调用
+ *
+ * @author NanCheung
+ */
+@Slf4j
+final class ChapterTextView {
+
+    /**
+     * 超过该长度（字符数）的章节才窗口化显示
+     */
+    private static final int WINDOW_THRESHOLD_CHARS = 48 * 1024;
+
+    /**
+     * 窗口大小（字符数）
+     */
+    private static final int WINDOW_CHARS = 32 * 1024;
+
+    /**
+     * 每次追加的大小（字符数），也是段落对齐时最多移动的距离
+     */
+    private static final int CHUNK_CHARS = 8 * 1024;
+
+    /**
+     * 滚动停止多久后记录阅读进度
+     */
+    private static final int PROGRESS_DELAY_MILLIS = 1000;
+
+    private final JTextPane textPane;
+
+    private final JScrollPane scrollPane;
+
+    /**
+     * 阅读进度回调（参数为章节内位置）
+     */
+    private final IntConsumer progressListener;
+
+    /**
+     * 滚动停止后记录进度的定时器
+     */
+    private final Timer progressTimer;
+
+    /**
+     * 当前显示的章节（显示提示文字时为 null）
+     */
+    @Nullable
+    private Prepared chapter;
+
+    /**
+     * 窗口在章节中的范围 [windowStart, windowEnd)
+     */
+    private int windowStart;
+
+    private int windowEnd;
+
+    /**
+     * 最近一次定位或记录的章节位置
+     * 该位置仍在可见范围内时不记录进度，避免把行首位置反复提交为新进度
+     */
+    private int anchorPosition;
+
+    /**
+     * 是否已安排窗口移动（同一时间只安排一次）
+     */
+    private boolean shiftScheduled;
+
+    /**
+     * 在后台构建好的章节文档
+     *
+     * @param heading             标题行（标题 + 换行），只在窗口从章节开头开始时显示
+     * @param content             章节正文
+     * @param paragraphAttributes 段落属性
+     * @param windowStart         文档对应的章节起始位置
+     * @param windowEnd           文档对应的章节结束位置
+     * @param document            文档
+     */
+    record Prepared(String heading, String content, AttributeSet paragraphAttributes,
+                    int windowStart, int windowEnd, StyledDocument document) {
+    }
+
+    /**
+     * 构造函数
+     *
+     * @param textPane         正文面板
+     * @param scrollPane       正文面板所在的滚动面板
+     * @param progressListener 阅读进度回调（滚动停止后调用，参数为章节内位置）
+     */
+    ChapterTextView(JTextPane textPane, JScrollPane scrollPane, IntConsumer progressListener) {
+        this.textPane = textPane;
+        this.scrollPane = scrollPane;
+        this.progressListener = progressListener;
+
+        this.progressTimer = new Timer(PROGRESS_DELAY_MILLIS, e -> reportProgress());
+        this.progressTimer.setRepeats(false);
+
+        scrollPane.getVerticalScrollBar().addAdjustmentListener(e -> onScrolled());
+    }
+
+    /**
+     * 构建章节文档（可以在后台线程调用）
+     * 超长章节只构建 position 附近的窗口
+     *
+     * @param title      章节标题
+     * @param content    章节正文
+     * @param lineHeight 行高倍数
+     * @param position   初始显示的章节内位置
+     * @return 构建好的文档
+     */
+    static Prepared prepare(String title, String content, double lineHeight, int position) {
+        return prepare(title + "\n", content, ChapterDocumentBuilder.paragraphAttributes(lineHeight), position);
+    }
+
+    private static Prepared prepare(String heading, String content, AttributeSet paragraphAttributes, int position) {
+        int start = 0;
+        int end = content.length();
+        if (content.length() > WINDOW_THRESHOLD_CHARS) {
+            start = alignStart(content, Math.max(0, Math.min(position, content.length()) - WINDOW_CHARS / 2));
+            end = alignEnd(content, Math.min(content.length(), start + WINDOW_CHARS));
+        }
+
+        String text = (start == 0 ? heading : "") + content.substring(start, end);
+        StyledDocument document = ChapterDocumentBuilder.build(text, paragraphAttributes);
+        return new Prepared(heading, content, paragraphAttributes, start, end, document);
+    }
+
+    /**
+     * 显示章节
+     *
+     * @param prepared 构建好的文档
+     * @param position 光标定位的章节内位置
+     */
+    void show(Prepared prepared, int position) {
+        chapter = prepared;
+        windowStart = prepared.windowStart();
+        windowEnd = prepared.windowEnd();
+        anchorPosition = position;
+
+        textPane.setDocument(prepared.document());
+        textPane.setCaretPosition(toDocumentOffset(position));
+
+        if (windowed()) {
+            log.debug("窗口化显示章节: length={}, window=[{}, {})", prepared.content().length(), windowStart, windowEnd);
+        }
+    }
+
+    /**
+     * 显示提示文字（加载中、清空等），不再跟踪章节位置
+     *
+     * @param message 提示文字
+     */
+    void showMessage(String message) {
+        chapter = null;
+        progressTimer.stop();
+        textPane.setText(message);
+    }
+
+    /**
+     * 定位到章节内位置并滚动到可见
+     * 位置不在当前窗口内时以该位置为中心重建窗口
+     *
+     * @param position 章节内位置
+     */
+    void scrollToChapterPosition(int position) {
+        Prepared current = chapter;
+        if (current == null) {
+            return;
+        }
+
+        if (position < windowStart || position > windowEnd) {
+            // 窗口大小有上限，直接在 EDT 中重建
+            Prepared recentered = prepare(current.heading(), current.content(), current.paragraphAttributes(), position);
+            chapter = recentered;
+            windowStart = recentered.windowStart();
+            windowEnd = recentered.windowEnd();
+            textPane.setDocument(recentered.document());
+            log.debug("正文窗口重建: [{}, {})", windowStart, windowEnd);
+        }
+
+        anchorPosition = position;
+        int offset = toDocumentOffset(position);
+        textPane.setCaretPosition(offset);
+
+        // 滚动到光标位置（确保光标可见）
+        Rectangle2D rect = modelToView(offset);
+        if (rect != null) {
+            textPane.scrollRectToVisible(rect.getBounds());
+        }
+    }
+
+    /**
+     * 获取可见区域顶部的章节内位置
+     *
+     * @return 章节内位置，未显示章节时返回 -1
+     */
+    int visibleChapterPosition() {
+        if (chapter == null) {
+            return -1;
+        }
+        return toChapterPosition(textPane.viewToModel2D(scrollPane.getViewport().getViewPosition()));
+    }
+
+    /**
+     * 滚动时安排窗口移动，并重新开始进度计时
+     */
+    private void onScrolled() {
+        if (chapter == null) {
+            return;
+        }
+        progressTimer.restart();
+
+        if (!windowed() || shiftScheduled) {
+            return;
+        }
+        shiftScheduled = true;
+        SwingUtilities.invokeLater(() -> {
+            shiftScheduled = false;
+            shiftWindowIfNeeded();
+        });
+    }
+
+    /**
+     * 可见区域距离窗口边缘不足一屏时，向该方向移动窗口
+     * 每次只移动一段，移动后仍接近边缘时由随之产生的滚动事件继续移动
+     */
+    private void shiftWindowIfNeeded() {
+        if (!windowed()) {
+            return;
+        }
+
+        JScrollBar bar = scrollPane.getVerticalScrollBar();
+        int value = bar.getValue();
+        int extent = bar.getVisibleAmount();
+
+        if (value < extent && windowStart > 0) {
+            extendBackward();
+        } else if (value + extent * 2 > bar.getMaximum() && windowEnd < chapter.content().length()) {
+            extendForward();
+        }
+    }
+
+    /**
+     * 在窗口末尾追加一段，超出窗口大小时裁掉开头（保持可见内容不动）
+     */
+    private void extendForward() {
+        String content = chapter.content();
+        StyledDocument document = textPane.getStyledDocument();
+
+        int newEnd = alignEnd(content, Math.min(content.length(), windowEnd + CHUNK_CHARS));
+        ChapterDocumentBuilder.insert(document, document.getLength(), content.substring(windowEnd, newEnd), chapter.paragraphAttributes());
+        windowEnd = newEnd;
+
+        if (windowEnd - windowStart > WINDOW_CHARS + CHUNK_CHARS) {
+            int newStart = alignStart(content, windowEnd - WINDOW_CHARS);
+            if (newStart > windowStart) {
+                keepViewStable(() -> {
+                    remove(document, 0, toDocumentOffset(newStart));
+                    windowStart = newStart;
+                });
+            }
+        }
+        log.debug("正文窗口后移: [{}, {})", windowStart, windowEnd);
+    }
+
+    /**
+     * 在窗口开头插入一段（保持可见内容不动），超出窗口大小时裁掉末尾
+     */
+    private void extendBackward() {
+        String content = chapter.content();
+        StyledDocument document = textPane.getStyledDocument();
+
+        int newStart = alignStart(content, Math.max(0, windowStart - CHUNK_CHARS));
+        keepViewStable(() -> {
+            // 窗口到达章节开头时连同标题一起插入
+            String text = (newStart == 0 ? chapter.heading() : "") + content.substring(newStart, windowStart);
+            ChapterDocumentBuilder.insert(document, 0, text, chapter.paragraphAttributes());
+            windowStart = newStart;
+        });
+
+        if (windowEnd - windowStart > WINDOW_CHARS + CHUNK_CHARS) {
+            int newEnd = alignEnd(content, windowStart + WINDOW_CHARS);
+            if (newEnd < windowEnd) {
+                int from = toDocumentOffset(newEnd);
+                remove(document, from, document.getLength() - from);
+                windowEnd = newEnd;
+            }
+        }
+        log.debug("正文窗口前移: [{}, {})", windowStart, windowEnd);
+    }
+
+    /**
+     * 修改文档开头部分，并滚动使修改前位于可见区域顶部的内容仍在原来的位置
+     */
+    private void keepViewStable(Runnable mutation) {
+        JViewport viewport = scrollPane.getViewport();
+        Point viewPosition = viewport.getViewPosition();
+
+        int anchor = toChapterPosition(textPane.viewToModel2D(viewPosition));
+        Rectangle2D before = modelToView(toDocumentOffset(anchor));
+
+        mutation.run();
+
+        if (before == null) {
+            return;
+        }
+
+        // 立即完成布局，才能得到锚点的新位置
+        scrollPane.validate();
+        Rectangle2D after = modelToView(toDocumentOffset(anchor));
+        if (after != null) {
+            double delta = viewPosition.getY() - before.getY();
+            viewport.setViewPosition(new Point(viewPosition.x, (int) Math.max(0, after.getY() + delta)));
+        }
+    }
+
+    /**
+     * 滚动停止后记录可见区域顶部的章节位置
+     */
+    private void reportProgress() {
+        if (chapter == null || !textPane.isShowing()) {
+            return;
+        }
+
+        Rectangle viewRect = scrollPane.getViewport().getViewRect();
+        int top = toChapterPosition(textPane.viewToModel2D(viewRect.getLocation()));
+        int bottom = toChapterPosition(textPane.viewToModel2D(
+                new Point(viewRect.x + viewRect.width, viewRect.y + viewRect.height - 1)));
+
+        if (anchorPosition >= top && anchorPosition <= bottom) {
+            return;
+        }
+
+        anchorPosition = top;
+        progressListener.accept(top);
+    }
+
+    private boolean windowed() {
+        return chapter != null && (windowStart > 0 || windowEnd < chapter.content().length());
+    }
+
+    /**
+     * 章节内位置转换为文档偏移（超出窗口时取窗口边界）
+     */
+    private int toDocumentOffset(int position) {
+        int clamped = Math.max(windowStart, Math.min(position, windowEnd));
+        return headingLength() + clamped - windowStart;
+    }
+
+    /**
+     * 文档偏移转换为章节内位置（标题内的偏移视为章节开头）
+     */
+    private int toChapterPosition(int offset) {
+        int relative = Math.max(0, Math.min(offset - headingLength(), windowEnd - windowStart));
+        return windowStart + relative;
+    }
+
+    private int headingLength() {
+        return windowStart == 0 && chapter != null ? chapter.heading().length() : 0;
+    }
+
+    @Nullable
+    private Rectangle2D modelToView(int offset) {
+        try {
+            return textPane.modelToView2D(offset);
+        } catch (BadLocationException e) {
+            log.debug("获取文档位置失败: offset={}", offset);
+            return null;
+        }
+    }
+
+    private static void remove(StyledDocument document, int offset, int length) {
+        try {
+            document.remove(offset, length);
+        } catch (BadLocationException e) {
+            // 调用方保证范围在文档内
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * 向前对齐到段落开头（附近没有换行时不对齐）
+     */
+    private static int alignStart(String content, int position) {
+        if (position <= 0) {
+            return 0;
+        }
+        int newline = content.lastIndexOf('\n', position - 1);
+        if (newline >= 0 && position - newline <= CHUNK_CHARS) {
+            return newline + 1;
+        }
+        return Character.isLowSurrogate(content.charAt(position)) ? position - 1 : position;
+    }
+
+    /**
+     * 向后对齐到段落结尾（附近没有换行时不对齐）
+     */
+    private static int alignEnd(String content, int position) {
+        if (position >= content.length()) {
+            return content.length();
+        }
+        int newline = content.indexOf('\n', position);
+        if (newline >= 0 && newline - position < CHUNK_CHARS) {
+            return newline + 1;
+        }
+        return Character.isLowSurrogate(content.charAt(position)) ? position + 1 : position;
+    }
+}
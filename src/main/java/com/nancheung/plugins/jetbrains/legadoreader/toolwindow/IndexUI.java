@@ -4,41 +4,44 @@ import com.intellij.openapi.actionSystem.ActionManager;
 import com.intellij.openapi.actionSystem.ActionToolbar;
 import com.intellij.openapi.actionSystem.DefaultActionGroup;
 import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.ui.Messages;
 import com.intellij.ui.JBColor;
 import com.nancheung.plugins.jetbrains.legadoreader.api.ApiUtil;
 import com.nancheung.plugins.jetbrains.legadoreader.api.dto.BookDTO;
 import com.nancheung.plugins.jetbrains.legadoreader.command.Command;
 import com.nancheung.plugins.jetbrains.legadoreader.command.CommandBus;
 import com.nancheung.plugins.jetbrains.legadoreader.command.CommandType;
+import com.nancheung.plugins.jetbrains.legadoreader.command.payload.DownloadBookPayload;
 import com.nancheung.plugins.jetbrains.legadoreader.command.payload.SelectBookPayload;
 import com.nancheung.plugins.jetbrains.legadoreader.common.Constant;
+import com.nancheung.plugins.jetbrains.legadoreader.common.PluginDisposable;
+import com.nancheung.plugins.jetbrains.legadoreader.event.DeliveryPolicy;
+import com.nancheung.plugins.jetbrains.legadoreader.event.EventPublisher;
 import com.nancheung.plugins.jetbrains.legadoreader.event.PaginationEvent;
-import com.nancheung.plugins.jetbrains.legadoreader.event.ReaderEvent;
-import com.nancheung.plugins.jetbrains.legadoreader.event.ReaderEventListener;
 import com.nancheung.plugins.jetbrains.legadoreader.event.ReadingEvent;
 import com.nancheung.plugins.jetbrains.legadoreader.gui.SettingFactory;
-import com.nancheung.plugins.jetbrains.legadoreader.manager.ReadingSessionManager;
-import com.nancheung.plugins.jetbrains.legadoreader.model.ReadingSession;
+import com.nancheung.plugins.jetbrains.legadoreader.metrics.LatencyMetrics;
+import com.nancheung.plugins.jetbrains.legadoreader.metrics.LatencyStage;
+import com.nancheung.plugins.jetbrains.legadoreader.service.BookDownloadService;
 import com.nancheung.plugins.jetbrains.legadoreader.service.IPaginationManager;
 import com.nancheung.plugins.jetbrains.legadoreader.service.PaginationManager;
+import com.nancheung.plugins.jetbrains.legadoreader.service.ProgressSyncService;
+import com.nancheung.plugins.jetbrains.legadoreader.service.ReaderExecutorService;
 import com.nancheung.plugins.jetbrains.legadoreader.storage.AddressHistoryStorage;
+import com.nancheung.plugins.jetbrains.legadoreader.storage.BookshelfSnapshotStorage;
+import com.nancheung.plugins.jetbrains.legadoreader.storage.OfflineBookStorage;
 import com.nancheung.plugins.jetbrains.legadoreader.storage.PluginSettingsStorage;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
 import javax.swing.*;
-import javax.swing.table.DefaultTableModel;
-import javax.swing.table.TableModel;
 import java.awt.*;
 import java.awt.event.*;
+import java.io.IOException;
 import java.util.List;
-import java.util.Map;
-import java.util.Vector;
+import java.util.Objects;
 import java.util.concurrent.CompletableFuture;
-import java.util.function.BiFunction;
 import java.util.function.Consumer;
-import java.util.function.Function;
-import java.util.stream.Collectors;
 
 @Slf4j
 @Getter
@@ -131,13 +134,7 @@ public class IndexUI {
      */
     private JTextPane textBodyErrorTipsPane;
 
-    private static final DefaultTableModel BOOK_SHELF_TABLE_MODEL = new DefaultTableModel(null, new String[]{"name", "current", "new", "author"}) {
-        @Override
-        public boolean isCellEditable(int row, int column) {
-            // 表格不允许被编辑
-            return false;
-        }
-    };
+    private static final BookshelfTableModel BOOK_SHELF_TABLE_MODEL = new BookshelfTableModel();
 
     public static final DefaultComboBoxModel<String> ADDRESS_HISTORY_BOX_MODEL = new DefaultComboBoxModel<>();
 
@@ -147,70 +144,116 @@ public class IndexUI {
     private static IndexUI INSTANCE;
 
     /**
-     * 书架目录（临时存储在内存）
-     * key: author + "#" + name
-     * value: 书籍信息
+     * 当前显示的书架所属的服务器地址（尚未显示书架时为 null）
      */
-    private Map<String, BookDTO> bookshelf;
+    private String bookshelfAddress;
 
-    private static final BiFunction<String, String, String> BOOK_MAP_KEY_FUNC = (author, name) -> author + "#" + name;
+    /**
+     * 正文渲染序号（仅在 EDT 中访问）
+     * 开始加载、加载成功和会话结束时递增，用于丢弃过期的后台文档构建结果
+     */
+    private int renderSequence;
 
+    /**
+     * 正文视图（超长章节窗口化显示，滚动后记录阅读进度）
+     */
+    private ChapterTextView chapterTextView;
 
     public IndexUI() {
         // 初始化界面设置
         initIndexUI();
 
-        // 订阅阅读事件（使用新的事件系统）
-        ApplicationManager.getApplication()
-                .getMessageBus()
-                .connect()
-                .subscribe(ReaderEventListener.TOPIC, (ReaderEventListener) event -> {
-                    // 使用 pattern matching 处理不同事件
-                    switch (event) {
-                        case ReadingEvent e -> INSTANCE.onReadingEvent(e);
-                        case PaginationEvent e -> INSTANCE.onPaginationEvent(e);
-                        default -> {}
-                    }
-                });
+        // 订阅阅读事件（使用新的事件系统），界面是应用级单例，订阅随插件释放
+        EventPublisher.getInstance().subscribe(PluginDisposable.getInstance(), "IndexUI", DeliveryPolicy.COALESCE, event -> {
+            // 使用 pattern matching 处理不同事件
+            switch (event) {
+                case ReadingEvent e -> INSTANCE.onReadingEvent(e);
+                case PaginationEvent e -> INSTANCE.onPaginationEvent(e);
+                default -> {}
+            }
+        });
 
-        // 初始化使用默认ip刷新书架目录
+        // 先显示上次保存的书架快照，再使用默认ip刷新书架目录
+        showBookshelfSnapshot();
         refreshBookshelf(bookDTOS -> refreshBookshelfButton.setEnabled(true), throwable -> refreshBookshelfButton.setEnabled(true));
 
         // 刷新书架目录按钮事件
         refreshBookshelfButton.addActionListener(refreshBookshelfActionListener());
         // 表格数据点击事件
         bookshelfTable.addMouseListener(toTextBodyMouseAdapter());
+        // 表格右键菜单（下载到本地、删除离线书籍）
+        bookshelfTable.addMouseListener(bookshelfPopupMouseAdapter());
 
         // ip输入框的历史记录点击事件
         addressHistoryBox.addItemListener(selectAddressHistoryItemListener());
     }
 
     public void refreshBookshelf(Consumer<List<BookDTO>> acceptConsumer, Consumer<Throwable> throwableConsumer) {
-        // 调用API获取书架目录
-        CompletableFuture.supplyAsync(ApiUtil::getBookshelf)
-                .thenAccept(books -> {
-                    // 保存书架目录信息
-                    this.bookshelf = books.stream()
-                            .collect(Collectors.toMap(
-                                    book -> BOOK_MAP_KEY_FUNC.apply(book.getAuthor(), book.getName()),
-                                    Function.identity()
-                            ));
-                    // 设置书架目录UI
-                    setBookshelfUI(books);
-
-                    acceptConsumer.accept(books);
-                }).exceptionally(throwable -> {
-                    showErrorTips(bookshelfScrollPane, bookshelfErrorTipsPane);
+        String address = AddressHistoryStorage.getInstance().getMostRecent();
+
+        // 调用API获取书架目录，并保存快照供下次打开时立即显示
+        CompletableFuture.supplyAsync(() -> {
+                    List<BookDTO> books = ApiUtil.getBookshelf();
+                    BookshelfSnapshotStorage.getInstance().save(address, books);
+                    return books;
+                }, ReaderExecutorService.getInstance().io())
+                .whenComplete((books, throwable) -> ApplicationManager.getApplication().invokeLater(() -> {
+                    if (throwable == null) {
+                        // 设置书架目录UI
+                        applyBookshelf(address, books);
+                        acceptConsumer.accept(books);
+                        return;
+                    }
+
+                    // 已显示该地址的书架（快照或上次结果）时保留显示，否则显示错误提示
+                    if (!Objects.equals(address, bookshelfAddress)) {
+                        showErrorTips(bookshelfScrollPane, bookshelfErrorTipsPane);
+                    }
 
                     if (Boolean.TRUE.equals(PluginSettingsStorage.getInstance().getState().enableErrorLog)) {
                         log.error("获取书架列表失败", throwable.getCause());
                     }
 
                     throwableConsumer.accept(throwable);
-                    return null;
+                }));
+    }
+
+    /**
+     * 显示上次保存的书架快照
+     * 快照读取完成前刷新结果已先到达时忽略快照
+     */
+    private void showBookshelfSnapshot() {
+        String address = AddressHistoryStorage.getInstance().getMostRecent();
+        if (address == null) {
+            return;
+        }
+
+        CompletableFuture.supplyAsync(() -> BookshelfSnapshotStorage.getInstance().load(address), ReaderExecutorService.getInstance().io())
+                .thenAccept(books -> {
+                    if (books == null) {
+                        return;
+                    }
+                    ApplicationManager.getApplication().invokeLater(() -> {
+                        if (bookshelfAddress == null) {
+                            applyBookshelf(address, books);
+                            log.debug("显示书架快照: {} 本", books.size());
+                        }
+                    });
                 });
     }
 
+    /**
+     * 显示书架（在 EDT 中调用）
+     * 表格只更新有变化的行
+     *
+     * @param address 服务器地址
+     * @param books   书籍列表
+     */
+    private void applyBookshelf(String address, List<BookDTO> books) {
+        this.bookshelfAddress = address;
+        setBookshelfUI(books);
+    }
+
     private void initIndexUI() {
         // 隐藏正文面板
         textBodyPanel.setVisible(false);
@@ -231,6 +274,10 @@ public class IndexUI {
         // 设置正文面板的错误提示为不可编辑
         textBodyErrorTipsPane.setEditable(false);
 
+        // 正文视图，滚动停止后记录可见位置为阅读进度
+        chapterTextView = new ChapterTextView(textBodyPane, textBodyScrollPane,
+                position -> ProgressSyncService.getInstance().submitPosition(position));
+
         // 创建action bar
         final ActionManager actionManager = ActionManager.getInstance();
         ActionToolbar actionToolbar = actionManager.createActionToolbar(Constant.PLUGIN_TOOL_BAR_ID, (DefaultActionGroup) actionManager.getAction(Constant.PLUGIN_TOOL_BAR_ID), true);
@@ -270,6 +317,11 @@ public class IndexUI {
         return new MouseAdapter() {
             @Override
             public void mouseClicked(MouseEvent evt) {
+                // 右键用于弹出菜单，不打开书籍
+                if (!SwingUtilities.isLeftMouseButton(evt)) {
+                    return;
+                }
+
                 int row = bookshelfTable.rowAtPoint(evt.getPoint());
                 int col = bookshelfTable.columnAtPoint(evt.getPoint());
 
@@ -278,12 +330,7 @@ public class IndexUI {
                 }
 
                 // 获取当前点击的书籍信息
-                TableModel model = ((JTable) evt.getSource()).getModel();
-                String name = model.getValueAt(row, 0).toString();
-                String author = model.getValueAt(row, 3).toString();
-
-                // 获取书籍信息
-                BookDTO book = getBook(author, name);
+                BookDTO book = getBook(row);
 
                 // 加载章节（事件驱动）
                 CommandBus.getInstance().dispatchAsync(Command.of(
@@ -294,19 +341,63 @@ public class IndexUI {
         };
     }
 
+    private MouseAdapter bookshelfPopupMouseAdapter() {
+        return new MouseAdapter() {
+            @Override
+            public void mousePressed(MouseEvent evt) {
+                showPopup(evt);
+            }
+
+            @Override
+            public void mouseReleased(MouseEvent evt) {
+                showPopup(evt);
+            }
+
+            private void showPopup(MouseEvent evt) {
+                // 不同平台在按下或松开时触发弹出菜单
+                if (!evt.isPopupTrigger()) {
+                    return;
+                }
+
+                int row = bookshelfTable.rowAtPoint(evt.getPoint());
+                if (row < 0) {
+                    return;
+                }
+
+                BookDTO book = getBook(row);
+
+                // 下载过程中不重复下载，也不删除正在写入的文件
+                boolean downloading = BookDownloadService.getInstance().isDownloading(book.getBookUrl());
+
+                JMenuItem downloadItem = new JMenuItem(downloading ? "正在下载到本地..." : "下载到本地（离线阅读）");
+                downloadItem.setEnabled(!downloading);
+                downloadItem.addActionListener(e -> CommandBus.getInstance().dispatchAsync(Command.of(
+                        CommandType.DOWNLOAD_BOOK,
+                        new DownloadBookPayload(book)
+                )));
+
+                JMenuItem deleteItem = new JMenuItem("删除离线书籍");
+                deleteItem.setEnabled(!downloading);
+                deleteItem.addActionListener(e -> CompletableFuture.runAsync(() -> {
+                    try {
+                        OfflineBookStorage.getInstance().delete(book.getBookUrl());
+                    } catch (IOException ex) {
+                        ApplicationManager.getApplication().invokeLater(() ->
+                                Messages.showErrorDialog(bookshelfTable, "删除失败：" + ex.getMessage(), "删除离线书籍"));
+                    }
+                }, ReaderExecutorService.getInstance().io()));
+
+                JPopupMenu popupMenu = new JPopupMenu();
+                popupMenu.add(downloadItem);
+                popupMenu.add(deleteItem);
+                popupMenu.show(bookshelfTable, evt.getX(), evt.getY());
+            }
+        };
+    }
+
     private void setBookshelfUI(List<BookDTO> books) {
-        // 清空表格
-        IndexUI.BOOK_SHELF_TABLE_MODEL.getDataVector().clear();
-
-        // 添加表格数据
-        books.stream().map(book -> {
-            Vector<String> bookVector = new Vector<>();
-            bookVector.add(book.getName());
-            bookVector.add(book.getDurChapterTitle());
-            bookVector.add(book.getLatestChapterTitle());
-            bookVector.add(book.getAuthor());
-            return bookVector;
-        }).forEach(IndexUI.BOOK_SHELF_TABLE_MODEL::addRow);
+        // 按书籍标识比较，只更新有变化的行
+        IndexUI.BOOK_SHELF_TABLE_MODEL.update(books);
 
         if (!bookshelfScrollPane.isShowing()) {
             bookshelfScrollPane.setVisible(true);
@@ -355,15 +446,11 @@ public class IndexUI {
     /**
      * 获取书籍
      *
-     * @param author 作者
-     * @param name   书名
+     * @param row 表格行索引
      * @return 书籍信息
      */
-    private BookDTO getBook(String author, String name) {
-        if (bookshelf == null) {
-            return null;
-        }
-        return bookshelf.get(BOOK_MAP_KEY_FUNC.apply(author, name));
+    private BookDTO getBook(int row) {
+        return BOOK_SHELF_TABLE_MODEL.getBook(bookshelfTable.convertRowIndexToModel(row));
     }
 
     /**
@@ -383,11 +470,16 @@ public class IndexUI {
      * @param event 阅读事件
      */
     public void onReadingEvent(ReadingEvent event) {
+        // 渲染耗时从收到事件时开始（此时指令可能已经结束，LatencyMetrics 会保留其跟踪），包含等待 EDT 的时间
+        LatencyMetrics.Timer renderTimer = event.type() == ReadingEvent.ReadingEventType.CHAPTER_LOADED
+                ? LatencyMetrics.getInstance().start(event.commandId(), LatencyStage.RENDER)
+                : null;
+
         // 确保在 EDT 线程中执行 UI 更新
         ApplicationManager.getApplication().invokeLater(() -> {
             switch (event.type()) {
                 case CHAPTER_LOADING -> handleLoadingStarted(event);
-                case CHAPTER_LOADED -> handleLoadingSuccess(event);
+                case CHAPTER_LOADED -> handleLoadingSuccess(event, renderTimer);
                 case CHAPTER_LOAD_FAILED -> handleLoadingFailed(event);
                 case SESSION_ENDED -> handleSessionEnded();
             }
@@ -400,6 +492,7 @@ public class IndexUI {
      */
     private void handleSessionEnded() {
         currentState = UIState.INITIALIZED;
+        renderSequence++;
 
         log.info("会话结束，返回书架");
 
@@ -408,7 +501,7 @@ public class IndexUI {
         textBodyPanel.setVisible(false);
 
         // 清空正文内容
-        textBodyPane.setText("");
+        chapterTextView.showMessage("");
     }
 
     /**
@@ -440,37 +533,11 @@ public class IndexUI {
                 return;
             }
 
-            // 获取当前阅读会话以获取标题
-            ReadingSession session = ReadingSessionManager.getInstance().getSession();
-            if (session == null || session.currentContent() == null) {
-                log.debug("无当前阅读会话，跳过光标同步");
-                return;
-            }
-
-            // 计算标题长度（标题 + 换行符）
-            String title = session.chapters().get(session.currentChapterIndex()).getTitle();
-            int titleLength = (title != null && !title.isEmpty()) ? title.length() + 1 : 0;
-
-            // 计算光标位置
-            int caretPosition = titleLength + currentPage.startPos();
-
-            // 限制在有效范围内
-            String currentText = textBodyPane.getText();
-            caretPosition = Math.min(caretPosition, currentText.length());
-
-            // 设置光标位置
-            textBodyPane.setCaretPosition(caretPosition);
-
-            // 滚动到光标位置（确保光标可见）
-            try {
-                Rectangle viewRect = textBodyPane.modelToView2D(caretPosition).getBounds();
-                textBodyPane.scrollRectToVisible(viewRect);
-            } catch (javax.swing.text.BadLocationException e) {
-                log.debug("滚动到光标位置失败: {}", e.getMessage());
-            }
+            // 定位到当前页起始位置（不在正文窗口内时重建窗口）
+            chapterTextView.scrollToChapterPosition(currentPage.startPos());
 
             log.debug("光标同步完成：页码 {}/{}, 光标位置 {}",
-                    event.currentPage(), event.totalPages(), caretPosition);
+                    event.currentPage(), event.totalPages(), currentPage.startPos());
         });
     }
 
@@ -482,6 +549,7 @@ public class IndexUI {
      */
     private void handleLoadingStarted(ReadingEvent event) {
         currentState = UIState.LOADING;
+        renderSequence++;
 
         log.info("UI 进入加载状态: book={}, chapterIndex={}",
                 event.book().getName(), event.chapter().getIndex());
@@ -499,7 +567,7 @@ public class IndexUI {
         }
 
         // 设置加载提示
-        textBodyPane.setText("加载中...");
+        chapterTextView.showMessage("加载中...");
 
         // 获取焦点
         textBodyPane.requestFocus();
@@ -507,12 +575,14 @@ public class IndexUI {
 
     /**
      * 处理"加载成功"事件
-     * UI 进入成功状态，显示章节内容
+     * UI 进入成功状态，在后台构建正文文档后显示章节内容
      *
-     * @param event 阅读事件
+     * @param event       阅读事件
+     * @param renderTimer 渲染阶段计时器，文档显示后关闭
      */
-    private void handleLoadingSuccess(ReadingEvent event) {
+    private void handleLoadingSuccess(ReadingEvent event, LatencyMetrics.Timer renderTimer) {
         currentState = UIState.SUCCESS;
+        int sequence = ++renderSequence;
 
         log.info("UI 加载成功: book={}, chapter={}",
                 event.book().getName(), event.chapter().getTitle());
@@ -523,34 +593,30 @@ public class IndexUI {
         Font font = storage.getTextBodyFont(); // 已支持自定义字体
         double lineHeight = storage.getTextBodyLineHeight();
 
-        textBodyPane.setForeground(new JBColor(fontColor, fontColor));
-        textBodyPane.setFont(font);
-
-        // 设置正文内容
+        // 在后台构建正文文档（包含行高，超长章节只构建阅读位置附近的窗口），EDT 只替换文档，长章节不会卡住界面
         String title = event.chapter().getTitle();
         String content = event.content();
-        textBodyPane.setText(title + "\n" + content);
-
-        // 应用行高（在 setText 之后）
-        applyLineHeight(textBodyPane, lineHeight);
+        int chapterPosition = event.chapterPosition();
+        CompletableFuture.supplyAsync(() -> ChapterTextView.prepare(title, content, lineHeight, chapterPosition), ReaderExecutorService.getInstance().cpu())
+                .whenComplete((prepared, throwable) -> ApplicationManager.getApplication().invokeLater(() -> {
+                    // 构建期间已开始加载其他章节或返回书架，丢弃结果
+                    if (sequence != renderSequence) {
+                        log.debug("丢弃过期的正文文档: chapter={}", title);
+                        return;
+                    }
+                    if (throwable != null) {
+                        log.warn("构建正文文档失败: chapter={}", title, throwable);
+                        return;
+                    }
 
-        // 设置光标位置
-        textBodyPane.setCaretPosition(event.chapterPosition());
-    }
+                    textBodyPane.setForeground(new JBColor(fontColor, fontColor));
+                    textBodyPane.setFont(font);
 
-    /**
-     * 应用行高到 JTextPane
-     *
-     * @param textPane   文本面板
-     * @param lineHeight 行高倍数
-     */
-    private void applyLineHeight(JTextPane textPane, double lineHeight) {
-        javax.swing.text.SimpleAttributeSet attrs = new javax.swing.text.SimpleAttributeSet();
-        float lineSpacing = (float) (lineHeight - 1.0);
-        javax.swing.text.StyleConstants.setLineSpacing(attrs, lineSpacing);
+                    // 设置正文内容和光标位置
+                    chapterTextView.show(prepared, chapterPosition);
 
-        javax.swing.text.StyledDocument doc = textPane.getStyledDocument();
-        doc.setParagraphAttributes(0, doc.getLength(), attrs, false);
+                    renderTimer.close();
+                }));
     }
 
     /**
@@ -1,5 +1,6 @@
 package com.nancheung.plugins.jetbrains.legadoreader.ui;
 
+import com.intellij.openapi.Disposable;
 import com.intellij.openapi.application.ApplicationManager;
 import com.nancheung.plugins.jetbrains.legadoreader.event.*;
 import lombok.extern.slf4j.Slf4j;
@@ -16,13 +17,13 @@ public abstract class UIEventSubscriber implements ReaderEventListener {
 
     /**
      * 构造函数中自动订阅事件
-     * 子类需要调用 super() 来激活订阅
+     * 子类需要调用 super(parentDisposable) 来激活订阅
+     * 事件排队投递（连续的分页事件合并），随后切换到 EDT 处理
+     *
+     * @param parentDisposable 订阅的生命周期（通常是组件所在的工具窗口或项目）
      */
-    protected UIEventSubscriber() {
-        ApplicationManager.getApplication()
-                .getMessageBus()
-                .connect()
-                .subscribe(ReaderEventListener.TOPIC, this);
+    protected UIEventSubscriber(Disposable parentDisposable) {
+        EventPublisher.getInstance().subscribe(parentDisposable, getClass().getSimpleName(), DeliveryPolicy.COALESCE, this);
 
         log.debug("UI 订阅器已注册: {}", this.getClass().getSimpleName());
     }
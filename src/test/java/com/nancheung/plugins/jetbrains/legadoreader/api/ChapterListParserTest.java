@@ -0,0 +1,93 @@
+package com.nancheung.plugins.jetbrains.legadoreader.api;
+
+import com.nancheung.plugins.jetbrains.legadoreader.fixture.LegadoFixtures;
+import com.nancheung.plugins.jetbrains.legadoreader.model.ChapterIndex;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.*;
+
+/**
+ * 章节目录流式解析测试
+ *
+ * @author NanCheung
+ */
+public class ChapterListParserTest {
+
+    private static final String BOOK_URL = LegadoFixtures.bookUrl(0);
+
+    @Test
+    public void parsesAllFields() throws IOException {
+        ChapterIndex chapters = parse(LegadoFixtures.chapterListJson(BOOK_URL, 250), null);
+
+        assertEquals(250, chapters.size());
+        assertEquals(BOOK_URL, chapters.bookUrl());
+        assertTrue(chapters.isVolume(0));
+        assertEquals("第1卷", chapters.title(0));
+        assertEquals(LegadoFixtures.chapterTitle(42), chapters.title(42));
+        assertEquals(42, chapters.chapterIndex(42));
+        assertEquals(BOOK_URL + "200042.html", chapters.get(42).getUrl());
+        assertEquals(BOOK_URL, chapters.get(42).getBaseUrl());
+    }
+
+    @Test
+    public void incrementalParseEqualsFullParse() throws IOException {
+        ChapterIndex base = parse(LegadoFixtures.chapterListJson(BOOK_URL, 200), null);
+        String updated = LegadoFixtures.chapterListJson(BOOK_URL, 230);
+
+        ChapterIndex incremental = parse(updated, base);
+
+        assertEquals(parse(updated, null), incremental);
+    }
+
+    @Test
+    public void incrementalParseHandlesShrinkingToc() throws IOException {
+        ChapterIndex base = parse(LegadoFixtures.chapterListJson(BOOK_URL, 200), null);
+        String updated = LegadoFixtures.chapterListJson(BOOK_URL, 150);
+
+        assertEquals(parse(updated, null), parse(updated, base));
+    }
+
+    @Test
+    public void chapterWithSameTitleButNewUrlIsNotReused() throws IOException {
+        ChapterIndex base = parse(LegadoFixtures.chapterListJson(BOOK_URL, 200), null);
+        // 标题不变，只有 url 变化（如换源）
+        String updated = LegadoFixtures.chapterListJson(BOOK_URL, 200)
+                .replace(BOOK_URL + "200050.html", BOOK_URL + "moved-50.html");
+
+        ChapterIndex incremental = parse(updated, base);
+
+        assertEquals(BOOK_URL + "moved-50.html", incremental.get(50).getUrl());
+        assertEquals(parse(updated, null), incremental);
+    }
+
+    @Test
+    public void nullChapterIsSkippedWithoutTruncatingToc() throws IOException {
+        String json = LegadoFixtures.chapterListJson(BOOK_URL, 20);
+        // 在第 10 章之前插入一个 null 元素
+        int tenth = json.indexOf("{\"url\":\"" + BOOK_URL + "200010.html");
+        String withNull = json.substring(0, tenth) + "null," + json.substring(tenth);
+
+        assertEquals(parse(json, null), parse(withNull, null));
+    }
+
+    @Test
+    public void nonObjectChapterThrows() {
+        String json = LegadoFixtures.chapterListJson(BOOK_URL, 5).replaceFirst("\\[\\{", "[42,{");
+
+        assertThrows(IOException.class, () -> parse(json, null));
+    }
+
+    @Test
+    public void failureResponseThrowsWithServerMessage() {
+        IOException e = assertThrows(IOException.class, () -> parse(LegadoFixtures.failure("书源失效"), null));
+        assertEquals("书源失效", e.getMessage());
+    }
+
+    private static ChapterIndex parse(String json, ChapterIndex base) throws IOException {
+        return ChapterListParser.parse(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)), base);
+    }
+}
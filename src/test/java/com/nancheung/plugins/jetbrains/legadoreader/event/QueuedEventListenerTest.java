@@ -0,0 +1,101 @@
+package com.nancheung.plugins.jetbrains.legadoreader.event;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+
+import static org.junit.Assert.*;
+
+/**
+ * 排队投递的事件监听器测试
+ * 事件线程由测试手动执行，检查队列满时的取舍顺序以及队列不会超过容量
+ *
+ * @author NanCheung
+ */
+public class QueuedEventListenerTest {
+
+    private static final int CAPACITY = 4;
+
+    private final Queue<Runnable> tasks = new ArrayDeque<>();
+
+    private final List<ReaderEvent> received = new ArrayList<>();
+
+    private QueuedEventListener listener;
+
+    @Before
+    public void setUp() {
+        listener = new QueuedEventListener("test", DeliveryPolicy.QUEUE, CAPACITY, received::add, tasks::add);
+    }
+
+    @Test
+    public void oldestPaginationIsDroppedFirst() {
+        PaginationEvent page = PaginationEvent.pageChanged(1, 2, 10, "第二页");
+        listener.onEvent(page);
+        List<ReaderEvent> kept = publishBookshelfEvents(CAPACITY);
+
+        runEventThread();
+
+        assertEquals(kept, received);
+        assertEquals(0, listener.droppedCount());
+    }
+
+    @Test
+    public void supersededReadingEventIsDroppedNext() {
+        ReadingEvent first = ReadingEvent.sessionEnded(1);
+        listener.onEvent(first);
+        List<ReaderEvent> kept = publishBookshelfEvents(CAPACITY - 1);
+        ReadingEvent latest = ReadingEvent.sessionEnded(2);
+        listener.onEvent(latest);
+
+        runEventThread();
+
+        kept.add(latest);
+        assertEquals(kept, received);
+        assertEquals(0, listener.droppedCount());
+    }
+
+    @Test
+    public void newEventIsDroppedWhenNothingCanBeMerged() {
+        List<ReaderEvent> kept = publishBookshelfEvents(CAPACITY);
+        publishBookshelfEvents(3);
+
+        runEventThread();
+
+        assertEquals(kept, received);
+        assertEquals(3, listener.droppedCount());
+    }
+
+    @Test
+    public void queueAcceptsEventsAgainAfterDraining() {
+        publishBookshelfEvents(CAPACITY + 1);
+        runEventThread();
+        received.clear();
+
+        List<ReaderEvent> kept = publishBookshelfEvents(CAPACITY);
+        runEventThread();
+
+        assertEquals(kept, received);
+        assertEquals(1, listener.droppedCount());
+    }
+
+    private List<ReaderEvent> publishBookshelfEvents(int count) {
+        List<ReaderEvent> events = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            BookshelfEvent event = BookshelfEvent.loading(i);
+            listener.onEvent(event);
+            events.add(event);
+        }
+        return events;
+    }
+
+    private void runEventThread() {
+        Runnable task;
+        while ((task = tasks.poll()) != null) {
+            task.run();
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.nancheung.plugins.jetbrains.legadoreader.metrics;
+
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * 延迟直方图测试
+ * 百分位返回所在桶的上界，借此检查桶的划分
+ *
+ * @author NanCheung
+ */
+public class LatencyHistogramTest {
+
+    /**
+     * 远大于被测值的第二个样本，使 50 分位返回被测值所在桶的上界（而不是被最大值截断）
+     */
+    private static final long LARGE_MICROS = TimeUnit.MINUTES.toMicros(10);
+
+    @Test
+    public void emptyHistogramReportsZero() {
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        assertEquals(0, histogram.getTotalCount());
+        assertEquals(0, histogram.getPercentileMicros(99));
+        assertEquals(0, histogram.getMaxMicros());
+    }
+
+    @Test
+    public void smallValuesAreExact() {
+        for (long micros = 0; micros < 128; micros++) {
+            assertEquals(micros, bucketUpperBound(micros));
+        }
+    }
+
+    @Test
+    public void bucketUpperBoundIsWithinRelativeError() {
+        for (long micros = 128; micros < TimeUnit.SECONDS.toMicros(30); micros = micros * 17 / 16 + 1) {
+            long upper = bucketUpperBound(micros);
+            assertTrue("上界不低于实际值: " + micros, upper >= micros);
+            assertTrue("相对误差不超过 1/64: " + micros + " -> " + upper, upper - micros <= micros / 64);
+        }
+    }
+
+    @Test
+    public void adjacentBucketsDoNotOverlap() {
+        // 每个 2 的幂区间的边界两侧落在不同的桶
+        for (int shift = 7; shift < 30; shift++) {
+            long boundary = 1L << shift;
+            assertTrue(bucketUpperBound(boundary - 1) < boundary);
+            assertTrue(bucketUpperBound(boundary) >= boundary);
+        }
+    }
+
+    @Test
+    public void percentilesFollowDistribution() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int millis = 1; millis <= 100; millis++) {
+            histogram.recordNanos(TimeUnit.MILLISECONDS.toNanos(millis));
+        }
+
+        assertEquals(100, histogram.getTotalCount());
+        assertEquals(100_000, histogram.getMaxMicros());
+        assertWithinRelativeError(50_000, histogram.getPercentileMicros(50));
+        assertWithinRelativeError(95_000, histogram.getPercentileMicros(95));
+        assertEquals(100_000, histogram.getPercentileMicros(100));
+    }
+
+    @Test
+    public void valuesBeyondRangeAreClamped() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.recordNanos(TimeUnit.HOURS.toNanos(5));
+        histogram.recordNanos(-1);
+
+        assertEquals(2, histogram.getTotalCount());
+        assertEquals(TimeUnit.HOURS.toMicros(1), histogram.getMaxMicros());
+        assertEquals(0, histogram.getPercentileMicros(50));
+    }
+
+    @Test
+    public void resetClearsAllCounts() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.recordNanos(TimeUnit.MILLISECONDS.toNanos(3));
+        histogram.reset();
+
+        assertEquals(0, histogram.getTotalCount());
+        assertEquals(0, histogram.getMaxMicros());
+        assertEquals(0, histogram.getPercentileMicros(50));
+    }
+
+    /**
+     * 获取值所在桶的上界
+     */
+    private static long bucketUpperBound(long micros) {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.recordNanos(TimeUnit.MICROSECONDS.toNanos(micros));
+        histogram.recordNanos(TimeUnit.MICROSECONDS.toNanos(LARGE_MICROS));
+        return histogram.getPercentileMicros(50);
+    }
+
+    private static void assertWithinRelativeError(long expected, long actual) {
+        assertTrue(expected + " -> " + actual, actual >= expected && actual - expected <= expected / 64);
+    }
+}
@@ -0,0 +1,91 @@
+package com.nancheung.plugins.jetbrains.legadoreader.metrics;
+
+import com.intellij.testFramework.fixtures.BasePlatformTestCase;
+import com.nancheung.plugins.jetbrains.legadoreader.command.Command;
+import com.nancheung.plugins.jetbrains.legadoreader.command.CommandType;
+import com.nancheung.plugins.jetbrains.legadoreader.event.CommandEvent;
+import com.nancheung.plugins.jetbrains.legadoreader.event.DeliveryPolicy;
+import com.nancheung.plugins.jetbrains.legadoreader.event.EventPublisher;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 指令延迟统计测试
+ * 重点检查排队投递的订阅者在指令完成之后开始的渲染计时仍被记录（延迟诊断中显示 RENDER 行）
+ *
+ * @author NanCheung
+ */
+public class LatencyMetricsTest extends BasePlatformTestCase {
+
+    private LatencyMetrics metrics;
+
+    private EventPublisher publisher;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        metrics = LatencyMetrics.getInstance();
+        metrics.reset();
+        publisher = EventPublisher.getInstance();
+    }
+
+    public void testRenderStartedByQueuedSubscriberAfterCompletionIsRecorded() throws Exception {
+        Command command = Command.of(CommandType.NEXT_PAGE);
+        CountDownLatch rendered = new CountDownLatch(1);
+
+        // 与工具窗口相同：排队投递，收到事件时指令已经结束
+        publisher.subscribe(getTestRootDisposable(), "LatencyMetricsTest", DeliveryPolicy.COALESCE, event -> {
+            if (event instanceof CommandEvent e && e.commandId() == command.id()) {
+                try (LatencyMetrics.Timer ignored = metrics.start(e.commandId(), LatencyStage.RENDER)) {
+                    Thread.onSpinWait();
+                }
+                rendered.countDown();
+            }
+        });
+
+        metrics.queued(command);
+        metrics.started(command);
+        publisher.publish(CommandEvent.completed(command, null));
+
+        assertTrue(rendered.await(5, TimeUnit.SECONDS));
+        assertEquals(1, count(CommandType.NEXT_PAGE, LatencyStage.QUEUE));
+        assertEquals(1, count(CommandType.NEXT_PAGE, LatencyStage.HANDLER));
+        assertEquals(1, count(CommandType.NEXT_PAGE, LatencyStage.RENDER));
+        assertEquals(0, metrics.getUntrackedStarts());
+    }
+
+    public void testStageOfUnknownCommandIsCountedNotRecorded() {
+        metrics.start(Long.MAX_VALUE, LatencyStage.RENDER).close();
+
+        assertEquals(1, metrics.getUntrackedStarts());
+        assertTrue(metrics.snapshot().isEmpty());
+        assertTrue(metrics.toJson().contains("\"untrackedStageStarts\": 1"));
+    }
+
+    public void testCancelledCommandStopsTracking() {
+        Command command = Command.of(CommandType.NEXT_CHAPTER);
+        metrics.started(command);
+        publisher.publish(CommandEvent.cancelled(command));
+
+        metrics.start(command.id(), LatencyStage.RENDER).close();
+
+        assertEquals(0, count(CommandType.NEXT_CHAPTER, LatencyStage.HANDLER));
+        assertEquals(0, count(CommandType.NEXT_CHAPTER, LatencyStage.RENDER));
+        assertEquals(1, metrics.getUntrackedStarts());
+    }
+
+    public void testResetClearsUntrackedCount() {
+        metrics.start(Long.MAX_VALUE, LatencyStage.NETWORK).close();
+        metrics.reset();
+
+        assertEquals(0, metrics.getUntrackedStarts());
+    }
+
+    private long count(CommandType type, LatencyStage stage) {
+        return metrics.snapshot().stream()
+                .filter(row -> row.type() == type && row.stage() == stage)
+                .mapToLong(LatencyMetrics.Row::count)
+                .sum();
+    }
+}
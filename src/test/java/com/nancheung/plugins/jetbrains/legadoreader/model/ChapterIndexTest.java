@@ -0,0 +1,131 @@
+package com.nancheung.plugins.jetbrains.legadoreader.model;
+
+import com.nancheung.plugins.jetbrains.legadoreader.fixture.LegadoFixtures;
+import org.junit.Test;
+
+import java.io.*;
+
+import static org.junit.Assert.*;
+
+/**
+ * 紧凑章节目录测试
+ *
+ * @author NanCheung
+ */
+public class ChapterIndexTest {
+
+    private static final String BOOK_URL = LegadoFixtures.bookUrl(1);
+
+    @Test
+    public void buildWithPrefixConcatenatesPrefixAndTail() {
+        ChapterIndex prefix = chapters(0, 5, BOOK_URL);
+
+        // 尾部不设置书籍 url，沿用前缀的
+        ChapterIndex.Builder tail = new ChapterIndex.Builder();
+        append(tail, 4, 3);
+        ChapterIndex result = tail.build(prefix, 4);
+
+        ChapterIndex expected = chapters(0, 7, BOOK_URL);
+        assertEquals(7, result.size());
+        assertEquals(BOOK_URL, result.bookUrl());
+        assertEquals(expected, result);
+    }
+
+    @Test
+    public void unsetIndexFollowsPositionAfterPrefix() {
+        ChapterIndex prefix = chapters(0, 5, BOOK_URL);
+
+        ChapterIndex.Builder tail = new ChapterIndex.Builder();
+        for (int i = 0; i < 2; i++) {
+            tail.begin().text(ChapterIndex.TITLE, LegadoFixtures.chapterTitle(5 + i)).end();
+        }
+        ChapterIndex result = tail.build(prefix, 5);
+
+        assertEquals(5, result.chapterIndex(5));
+        assertEquals(6, result.chapterIndex(6));
+        assertEquals(1, tail.build().chapterIndex(1));
+    }
+
+    @Test
+    public void buildWithEmptyPrefixIsPlainBuild() {
+        ChapterIndex.Builder builder = new ChapterIndex.Builder().bookUrl(BOOK_URL);
+        append(builder, 0, 3);
+
+        assertEquals(chapters(0, 3, BOOK_URL), builder.build(chapters(0, 5, BOOK_URL), 0));
+    }
+
+    @Test
+    public void prefixBuiltIndexSurvivesBinaryRoundTrip() throws IOException {
+        ChapterIndex.Builder tail = new ChapterIndex.Builder();
+        append(tail, 10, 20);
+        ChapterIndex index = tail.build(chapters(0, 30, BOOK_URL), 10);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        index.writeTo(new DataOutputStream(bytes));
+        ChapterIndex read = ChapterIndex.readFrom(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+        assertEquals(index, read);
+        assertEquals(BOOK_URL, read.bookUrl());
+    }
+
+    @Test
+    public void currentEqualsComparesWholeEntry() {
+        ChapterIndex base = chapters(0, 1, BOOK_URL);
+
+        ChapterIndex.Builder identical = new ChapterIndex.Builder().begin();
+        chapter(identical, 0);
+        assertTrue(identical.currentEquals(base, 0));
+
+        ChapterIndex.Builder movedUrl = new ChapterIndex.Builder().begin();
+        chapter(movedUrl, 0);
+        movedUrl.text(ChapterIndex.URL, BOOK_URL + "moved.html");
+        assertFalse(movedUrl.currentEquals(base, 0));
+
+        ChapterIndex.Builder newTag = new ChapterIndex.Builder().begin();
+        chapter(newTag, 0);
+        newTag.text(ChapterIndex.TAG, "VIP");
+        assertFalse(newTag.currentEquals(base, 0));
+
+        ChapterIndex.Builder otherIndex = new ChapterIndex.Builder().begin();
+        chapter(otherIndex, 0);
+        otherIndex.index(7);
+        assertFalse(otherIndex.currentEquals(base, 0));
+    }
+
+    @Test
+    public void discardReleasesChapterText() {
+        ChapterIndex.Builder builder = new ChapterIndex.Builder().bookUrl(BOOK_URL);
+        append(builder, 0, 2);
+        builder.begin();
+        chapter(builder, 99);
+        builder.discard();
+        append(builder, 2, 1);
+
+        assertEquals(chapters(0, 3, BOOK_URL), builder.build());
+    }
+
+    /**
+     * 构建第 from 章起的 count 章
+     */
+    private static ChapterIndex chapters(int from, int count, String bookUrl) {
+        ChapterIndex.Builder builder = new ChapterIndex.Builder().bookUrl(bookUrl);
+        append(builder, from, count);
+        return builder.build();
+    }
+
+    private static void append(ChapterIndex.Builder builder, int from, int count) {
+        for (int i = from; i < from + count; i++) {
+            builder.begin();
+            chapter(builder, i);
+            builder.end();
+        }
+    }
+
+    private static void chapter(ChapterIndex.Builder builder, int i) {
+        builder.text(ChapterIndex.TITLE, LegadoFixtures.chapterTitle(i))
+                .text(ChapterIndex.URL, BOOK_URL + i + ".html")
+                .text(ChapterIndex.BASE_URL, BOOK_URL)
+                .index(i)
+                .volume(i % 100 == 0);
+    }
+}
@@ -0,0 +1,211 @@
+package com.nancheung.plugins.jetbrains.legadoreader.service;
+
+import com.intellij.testFramework.fixtures.BasePlatformTestCase;
+import com.nancheung.plugins.jetbrains.legadoreader.common.IdSequence;
+import com.nancheung.plugins.jetbrains.legadoreader.model.ReadingSessionState;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 章节加载协调器测试
+ * 检查新加载取代旧加载、按版本提交，以及并发开始时不会把内部的重试占位返回给调用方
+ *
+ * @author NanCheung
+ */
+public class ChapterLoadCoordinatorTest extends BasePlatformTestCase {
+
+    private static final int CHAPTER_COUNT = 100;
+
+    private ChapterLoadCoordinator coordinator;
+
+    private ReadingSessionStateMachine stateMachine;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        stateMachine = ReadingSessionStateMachine.getInstance();
+        stateMachine.reset();
+        coordinator = new ChapterLoadCoordinator();
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        try {
+            coordinator.cancelAll();
+            stateMachine.reset();
+        } finally {
+            super.tearDown();
+        }
+    }
+
+    public void testRelativeLoadsStackOnPendingTarget() {
+        ChapterLoadCoordinator.ChapterLoad first = next(5);
+        CompletableFuture<Void> firstTask = new CompletableFuture<>();
+        coordinator.attach(first, firstTask);
+
+        ChapterLoadCoordinator.ChapterLoad second = next(5);
+
+        assertEquals(6, first.targetIndex());
+        assertEquals(7, second.targetIndex());
+        assertTrue("被取代的加载应取消其后台任务", firstTask.isCancelled());
+        assertEquals(7, coordinator.baseIndex(5));
+    }
+
+    public void testSupersededLoadCannotCommit() {
+        ChapterLoadCoordinator.ChapterLoad first = next(0);
+        ChapterLoadCoordinator.ChapterLoad second = next(0);
+
+        AtomicBoolean firstCommitted = new AtomicBoolean();
+        assertFalse(coordinator.complete(first, () -> firstCommitted.set(true)));
+        assertFalse(firstCommitted.get());
+
+        AtomicBoolean secondCommitted = new AtomicBoolean();
+        assertTrue(coordinator.complete(second, () -> secondCommitted.set(true)));
+        assertTrue(secondCommitted.get());
+        assertEquals(ReadingSessionState.READING, stateMachine.getState());
+        assertEquals("提交后不再以加载的目标为基准", 3, coordinator.baseIndex(3));
+    }
+
+    public void testAttachAfterSupersedeCancelsImmediately() {
+        ChapterLoadCoordinator.ChapterLoad first = next(0);
+        next(0);
+
+        CompletableFuture<Void> lateTask = new CompletableFuture<>();
+        coordinator.attach(first, lateTask);
+
+        assertTrue(lateTask.isCancelled());
+    }
+
+    public void testOutOfRangeTargetKeepsPendingLoad() {
+        ChapterLoadCoordinator.ChapterLoad last = next(CHAPTER_COUNT - 2);
+        CompletableFuture<Void> task = new CompletableFuture<>();
+        coordinator.attach(last, task);
+
+        assertNull(next(CHAPTER_COUNT - 2));
+        assertFalse(task.isCancelled());
+        assertEquals(CHAPTER_COUNT - 1, coordinator.baseIndex(0));
+        assertTrue(coordinator.complete(last, () -> {
+        }));
+    }
+
+    public void testFailedLoadDoesNotBecomeBase() {
+        ChapterLoadCoordinator.ChapterLoad load = coordinator.begin(IdSequence.next(), 42);
+
+        assertTrue(coordinator.fail(load, ReadingSessionState.ERROR));
+        assertEquals(ReadingSessionState.ERROR, stateMachine.getState());
+        assertEquals(10, coordinator.baseIndex(10));
+
+        // 错误状态下可以重新加载
+        assertNotNull(coordinator.begin(IdSequence.next(), 42));
+    }
+
+    public void testStateChangeInvalidatesPendingLoad() {
+        ChapterLoadCoordinator.ChapterLoad load = coordinator.begin(IdSequence.next(), 3);
+        CompletableFuture<Void> task = new CompletableFuture<>();
+        coordinator.attach(load, task);
+
+        // 返回书架：取消加载并重置状态，加载的版本随之失效
+        coordinator.cancelAll();
+        stateMachine.reset();
+
+        assertTrue(task.isCancelled());
+        assertFalse(coordinator.complete(load, () -> fail("过期的加载不应提交")));
+        assertFalse(coordinator.fail(load, ReadingSessionState.ERROR));
+        assertEquals(ReadingSessionState.IDLE, stateMachine.getState());
+    }
+
+    public void testConcurrentBeginsNeverExposeRetryPlaceholder() throws Exception {
+        int threads = 8;
+        int perThread = 200;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+
+        try {
+            List<Future<List<ChapterLoadCoordinator.ChapterLoad>>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    List<ChapterLoadCoordinator.ChapterLoad> loads = new ArrayList<>(perThread);
+                    for (int i = 0; i < perThread; i++) {
+                        long commandId = IdSequence.next();
+                        ChapterLoadCoordinator.ChapterLoad load = coordinator.begin(commandId, i % CHAPTER_COUNT);
+                        assertNotNull(load);
+                        assertEquals(commandId, load.commandId());
+                        loads.add(load);
+                    }
+                    return loads;
+                }));
+            }
+            start.countDown();
+
+            List<ChapterLoadCoordinator.ChapterLoad> all = new ArrayList<>();
+            for (Future<List<ChapterLoadCoordinator.ChapterLoad>> future : futures) {
+                all.addAll(future.get(30, TimeUnit.SECONDS));
+            }
+
+            // 只有最后生效的加载能提交
+            int committed = 0;
+            for (ChapterLoadCoordinator.ChapterLoad load : all) {
+                if (coordinator.complete(load, () -> {
+                })) {
+                    committed++;
+                }
+            }
+            assertEquals(1, committed);
+            assertEquals(ReadingSessionState.READING, stateMachine.getState());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    public void testConcurrentNextAtLastChapterLeavesCommittableLoad() throws Exception {
+        int threads = 4;
+        int rounds = 500;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+        try {
+            for (int round = 0; round < rounds; round++) {
+                coordinator.cancelAll();
+                stateMachine.reset();
+                assertNotNull(coordinator.begin(IdSequence.next(), CHAPTER_COUNT - 2));
+
+                // 第一个"下一章"到达最后一章，其余的以它为基准超出范围
+                CountDownLatch start = new CountDownLatch(1);
+                List<Future<ChapterLoadCoordinator.ChapterLoad>> futures = new ArrayList<>();
+                for (int t = 0; t < threads; t++) {
+                    futures.add(executor.submit(() -> {
+                        start.await();
+                        return next(CHAPTER_COUNT - 2);
+                    }));
+                }
+                start.countDown();
+
+                List<ChapterLoadCoordinator.ChapterLoad> loads = new ArrayList<>();
+                for (Future<ChapterLoadCoordinator.ChapterLoad> future : futures) {
+                    ChapterLoadCoordinator.ChapterLoad load = future.get(30, TimeUnit.SECONDS);
+                    if (load != null) {
+                        loads.add(load);
+                    }
+                }
+
+                assertEquals(1, loads.size());
+                assertEquals(CHAPTER_COUNT - 1, loads.get(0).targetIndex());
+                assertTrue("超出范围的指令不应使胜出的加载失效", coordinator.complete(loads.get(0), () -> {
+                }));
+                assertEquals(ReadingSessionState.READING, stateMachine.getState());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * 以 currentIndex 为当前章节开始"下一章"加载
+     */
+    private ChapterLoadCoordinator.ChapterLoad next(int currentIndex) {
+        return coordinator.begin(IdSequence.next(), currentIndex, i -> i + 1, CHAPTER_COUNT);
+    }
+}
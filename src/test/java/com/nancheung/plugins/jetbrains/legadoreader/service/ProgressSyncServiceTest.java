@@ -0,0 +1,181 @@
+package com.nancheung.plugins.jetbrains.legadoreader.service;
+
+import com.intellij.openapi.application.PathManager;
+import com.intellij.testFramework.fixtures.BasePlatformTestCase;
+import com.nancheung.plugins.jetbrains.legadoreader.api.dto.BookDTO;
+import com.nancheung.plugins.jetbrains.legadoreader.fixture.FakeLegadoServer;
+import com.nancheung.plugins.jetbrains.legadoreader.fixture.LegadoFixtures;
+import com.nancheung.plugins.jetbrains.legadoreader.storage.AddressHistoryStorage;
+import com.nancheung.plugins.jetbrains.legadoreader.storage.PluginSettingsStorage;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+/**
+ * 阅读进度同步测试
+ * 使用 {@link FakeLegadoServer} 检查同一本书的进度合并提交、失败后的退避重试和发件箱的写入时机
+ *
+ * @author NanCheung
+ */
+public class ProgressSyncServiceTest extends BasePlatformTestCase {
+
+    /**
+     * 同步间隔（允许的最小值），首次失败后退避 2 倍间隔
+     */
+    private static final int INTERVAL_MILLIS = 500;
+
+    private static final String SAVE_PROGRESS = "/saveBookProgress";
+
+    private FakeLegadoServer server;
+
+    private ProgressSyncService service;
+
+    private Path outboxFile;
+
+    private Integer originalInterval;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        server = FakeLegadoServer.start(FakeLegadoServer.Library.builder().bookCount(2).chapterCount(10).build());
+        AddressHistoryStorage.getInstance().addAddress(server.address());
+
+        PluginSettingsStorage.State settings = PluginSettingsStorage.getInstance().getState();
+        originalInterval = settings.progressSyncIntervalMillis;
+        settings.progressSyncIntervalMillis = INTERVAL_MILLIS;
+
+        outboxFile = Path.of(PathManager.getSystemPath(), "legado-reader", "progress-outbox.json");
+        Files.deleteIfExists(outboxFile);
+
+        service = new ProgressSyncService();
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        try {
+            service.dispose();
+            server.close();
+            PluginSettingsStorage.getInstance().getState().progressSyncIntervalMillis = originalInterval;
+            Files.deleteIfExists(outboxFile);
+        } finally {
+            super.tearDown();
+        }
+    }
+
+    public void testRapidPositionChangesAreCoalesced() throws Exception {
+        BookDTO book = book(0);
+        for (int position = 0; position < 50; position++) {
+            service.submit(book, 3, LegadoFixtures.chapterTitle(3), position);
+        }
+
+        waitUntil(() -> !server.savedProgress().isEmpty(), 5000);
+        // 再等一个间隔，确认没有补发中间进度
+        Thread.sleep(INTERVAL_MILLIS * 2L);
+
+        List<String> saved = server.savedProgress();
+        assertEquals(1, saved.size());
+        assertTrue(saved.getFirst(), saved.getFirst().contains("\"durChapterPos\":49"));
+    }
+
+    public void testEachBookKeepsItsLatestProgress() throws Exception {
+        service.submit(book(0), 1, LegadoFixtures.chapterTitle(1), 10);
+        service.submit(book(1), 5, LegadoFixtures.chapterTitle(5), 20);
+        service.submit(book(0), 2, LegadoFixtures.chapterTitle(2), 30);
+
+        waitUntil(() -> server.savedProgress().size() >= 2, 5000);
+        Thread.sleep(INTERVAL_MILLIS * 2L);
+
+        List<String> saved = server.savedProgress();
+        assertEquals(2, saved.size());
+        assertTrue(saved.stream().anyMatch(json -> json.contains("\"durChapterIndex\":2") && json.contains("\"durChapterPos\":30")));
+        assertTrue(saved.stream().anyMatch(json -> json.contains("\"durChapterIndex\":5") && json.contains("\"durChapterPos\":20")));
+    }
+
+    public void testFailedSubmitBacksOffThenRetries() throws Exception {
+        server.setProfile(FakeLegadoServer.NetworkProfile.builder().errorRate(1).build());
+        service.submit(book(0), 7, LegadoFixtures.chapterTitle(7), 100);
+
+        waitUntil(() -> server.requestCount(SAVE_PROGRESS) == 1, 5000);
+        // 失败的进度写入发件箱，退避期间（2 倍间隔）不重试
+        waitUntil(() -> Files.exists(outboxFile), 2000);
+        Thread.sleep(INTERVAL_MILLIS);
+        assertEquals(1, server.requestCount(SAVE_PROGRESS));
+
+        server.setProfile(FakeLegadoServer.NetworkProfile.IDEAL);
+        waitUntil(() -> server.savedProgress().size() == 1, 5000);
+        assertTrue(server.savedProgress().getFirst().contains("\"durChapterPos\":100"));
+
+        // 提交成功后清空发件箱
+        waitUntil(() -> !Files.exists(outboxFile), 2000);
+    }
+
+    public void testSubmitDefersOutboxWrite() throws Exception {
+        service.submit(book(0), 1, LegadoFixtures.chapterTitle(1), 1);
+        service.submit(book(0), 1, LegadoFixtures.chapterTitle(1), 2);
+
+        // 连续的进度变化合并为一次延迟写入
+        assertFalse(Files.exists(outboxFile));
+    }
+
+    public void testOutboxIsWrittenWhileSubmitIsBlocked() throws Exception {
+        // 提交卡在网络上时，发件箱仍按时写入
+        server.setProfile(FakeLegadoServer.NetworkProfile.builder().latencyMillis(10_000).build());
+        service.submit(book(0), 2, LegadoFixtures.chapterTitle(2), 32);
+
+        waitUntil(() -> server.requestCount(SAVE_PROGRESS) == 1, 5000);
+        service.submit(book(1), 6, LegadoFixtures.chapterTitle(6), 48);
+
+        waitUntil(() -> outboxContains("\"durChapterPos\":48"), 3000);
+        assertTrue(outboxContains("\"durChapterPos\":32"));
+    }
+
+    public void testFlushBeforeExitSubmitsImmediately() {
+        service.submit(book(1), 4, LegadoFixtures.chapterTitle(4), 64);
+
+        service.flushBeforeExit();
+
+        List<String> saved = server.savedProgress();
+        assertEquals(1, saved.size());
+        assertTrue(saved.getFirst().contains("\"durChapterPos\":64"));
+    }
+
+    public void testFlushBeforeExitWritesOutboxWithoutWaitingForServer() throws Exception {
+        server.setProfile(FakeLegadoServer.NetworkProfile.builder().latencyMillis(10_000).build());
+        service.submit(book(0), 8, LegadoFixtures.chapterTitle(8), 128);
+
+        long start = System.currentTimeMillis();
+        service.flushBeforeExit();
+
+        assertTrue("关闭时不应长时间等待网络", System.currentTimeMillis() - start < 5000);
+        assertTrue(outboxContains("\"durChapterPos\":128"));
+    }
+
+    private boolean outboxContains(String text) {
+        try {
+            return Files.exists(outboxFile) && Files.readString(outboxFile).contains(text);
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private BookDTO book(int bookIndex) {
+        BookDTO book = new BookDTO();
+        book.setBookUrl(server.bookUrl(bookIndex));
+        book.setName("示例书籍" + bookIndex);
+        book.setAuthor("作者" + bookIndex);
+        return book;
+    }
+
+    private static void waitUntil(BooleanSupplier condition, long timeoutMillis) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) {
+                fail("等待超时");
+            }
+            Thread.sleep(20);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.nancheung.plugins.jetbrains.legadoreader.storage;
+
+import com.nancheung.plugins.jetbrains.legadoreader.fixture.LegadoFixtures;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.junit.Assert.*;
+
+/**
+ * 章节正文磁盘缓存测试
+ * 检查冷启动时加载索引（清理遗留临时文件）不会影响同时进行的写入
+ *
+ * @author NanCheung
+ */
+public class ChapterContentCacheTest {
+
+    private static final String ADDRESS = "127.0.0.1:1122";
+
+    private static final String BOOK_URL = LegadoFixtures.bookUrl(1);
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void leftoverTempFilesAreRemovedOnFirstAccess() throws IOException {
+        Path cacheDir = folder.getRoot().toPath();
+        Path leftover = Files.createTempFile(cacheDir, "entry", ".tmp");
+
+        ChapterContentCache cache = new ChapterContentCache(cacheDir, Long.MAX_VALUE);
+        cache.put(ADDRESS, BOOK_URL, 0, "第一章");
+
+        assertFalse(Files.exists(leftover));
+        assertEquals("第一章", cache.get(ADDRESS, BOOK_URL, 0));
+    }
+
+    @Test
+    public void concurrentPutsOnColdStartAreAllKept() throws Exception {
+        Path cacheDir = folder.getRoot().toPath();
+        Files.createTempFile(cacheDir, "entry", ".tmp");
+
+        int threads = 8;
+        ChapterContentCache cache = new ChapterContentCache(cacheDir, Long.MAX_VALUE);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                int index = i;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    cache.put(ADDRESS, BOOK_URL, index, LegadoFixtures.chapterContent(index, 2000));
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        for (int i = 0; i < threads; i++) {
+            assertEquals(LegadoFixtures.chapterContent(i, 2000), cache.get(ADDRESS, BOOK_URL, i));
+        }
+    }
+}
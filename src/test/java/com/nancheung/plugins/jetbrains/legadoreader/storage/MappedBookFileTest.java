@@ -0,0 +1,136 @@
+package com.nancheung.plugins.jetbrains.legadoreader.storage;
+
+import com.nancheung.plugins.jetbrains.legadoreader.fixture.LegadoFixtures;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static org.junit.Assert.*;
+
+/**
+ * 离线书籍存储文件测试
+ * 重点检查写入中断后重新打开时的恢复行为
+ *
+ * @author NanCheung
+ */
+public class MappedBookFileTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Path indexFile;
+
+    private Path dataFile;
+
+    @Before
+    public void setUp() {
+        indexFile = folder.getRoot().toPath().resolve("book.idx");
+        dataFile = folder.getRoot().toPath().resolve("book.dat");
+    }
+
+    @Test
+    public void chaptersSurviveReopen() throws IOException {
+        String first = LegadoFixtures.chapterContent(0, 4000);
+        String third = LegadoFixtures.chapterContent(2, 4000);
+
+        try (MappedBookFile file = MappedBookFile.open(indexFile, dataFile)) {
+            file.write(0, first);
+            file.write(2, third);
+        }
+
+        try (MappedBookFile file = MappedBookFile.open(indexFile, dataFile)) {
+            assertEquals(first, file.read(0));
+            assertFalse(file.contains(1));
+            assertNull(file.read(1));
+            assertEquals(third, file.read(2));
+            assertNull(file.read(3));
+        }
+    }
+
+    @Test
+    public void rewrittenChapterReturnsLatestContent() throws IOException {
+        try (MappedBookFile file = MappedBookFile.open(indexFile, dataFile)) {
+            file.write(0, "旧的正文");
+            file.write(0, "新的正文");
+
+            assertEquals("新的正文", file.read(0));
+        }
+    }
+
+    @Test
+    public void dataAppendedWithoutSlotIsIgnored() throws IOException {
+        String content = LegadoFixtures.chapterContent(5, 2000);
+        try (MappedBookFile file = MappedBookFile.open(indexFile, dataFile)) {
+            file.write(0, content);
+            file.ensureCapacity(2);
+        }
+
+        // 模拟第 1 章正文已追加、槽位尚未写入时进程退出
+        try (FileChannel channel = FileChannel.open(dataFile, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            channel.write(ByteBuffer.wrap("半截正文".getBytes(StandardCharsets.UTF_8)));
+        }
+
+        try (MappedBookFile file = MappedBookFile.open(indexFile, dataFile)) {
+            assertEquals(content, file.read(0));
+            assertFalse(file.contains(1));
+
+            // 重新下载后可以正常读取
+            file.write(1, "第二章");
+            assertEquals("第二章", file.read(1));
+            assertEquals(content, file.read(0));
+        }
+    }
+
+    @Test
+    public void truncatedDataFileIsReportedInsteadOfReadingGarbage() throws IOException {
+        try (MappedBookFile file = MappedBookFile.open(indexFile, dataFile)) {
+            file.write(0, LegadoFixtures.chapterContent(1, 2000));
+        }
+
+        try (FileChannel channel = FileChannel.open(dataFile, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() / 2);
+        }
+
+        try (MappedBookFile file = MappedBookFile.open(indexFile, dataFile)) {
+            assertThrows(IOException.class, () -> file.read(0));
+        }
+    }
+
+    @Test
+    public void corruptIndexIsRebuilt() throws IOException {
+        try (MappedBookFile file = MappedBookFile.open(indexFile, dataFile)) {
+            file.write(0, "第一章");
+        }
+
+        // 文件头完整但槽位区被截断（章节数与文件大小不符）
+        try (FileChannel channel = FileChannel.open(indexFile, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 1);
+        }
+
+        try (MappedBookFile file = MappedBookFile.open(indexFile, dataFile)) {
+            assertFalse(file.contains(0));
+            assertEquals(0, Files.size(dataFile));
+
+            file.write(0, "重新下载");
+            assertEquals("重新下载", file.read(0));
+        }
+    }
+
+    @Test
+    public void closedFileRejectsWrites() throws IOException {
+        MappedBookFile file = MappedBookFile.open(indexFile, dataFile);
+        file.close();
+
+        assertNull(file.read(0));
+        assertThrows(IOException.class, () -> file.write(0, "正文"));
+    }
+}
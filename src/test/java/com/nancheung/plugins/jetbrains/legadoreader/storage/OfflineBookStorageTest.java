@@ -0,0 +1,121 @@
+package com.nancheung.plugins.jetbrains.legadoreader.storage;
+
+import com.nancheung.plugins.jetbrains.legadoreader.fixture.LegadoFixtures;
+import com.nancheung.plugins.jetbrains.legadoreader.model.ChapterIndex;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.*;
+
+/**
+ * 离线书籍存储测试
+ * 检查目录变化后不会按旧的章节索引返回正文，以及删除后书籍不再可读
+ *
+ * @author NanCheung
+ */
+public class OfflineBookStorageTest {
+
+    private static final String BOOK_URL = LegadoFixtures.bookUrl(1);
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private OfflineBookStorage storage;
+
+    @Before
+    public void setUp() {
+        storage = new OfflineBookStorage(folder.getRoot().toPath());
+    }
+
+    @After
+    public void tearDown() {
+        storage.dispose();
+    }
+
+    @Test
+    public void unchangedChaptersKeepContentAfterTocUpdate() throws IOException {
+        storage.saveChapters(BOOK_URL, snapshot(List.of(0, 1, 2)));
+        storage.saveContent(BOOK_URL, 0, "第一章正文");
+        storage.saveContent(BOOK_URL, 2, "第三章正文");
+
+        // 末尾追加新章节
+        storage.saveChapters(BOOK_URL, snapshot(List.of(0, 1, 2, 3)));
+
+        assertEquals("第一章正文", storage.loadContent(BOOK_URL, 0));
+        assertEquals("第三章正文", storage.loadContent(BOOK_URL, 2));
+        assertFalse(storage.hasContent(BOOK_URL, 3));
+    }
+
+    @Test
+    public void shiftedChaptersAreClearedAfterTocUpdate() throws IOException {
+        storage.saveChapters(BOOK_URL, snapshot(List.of(0, 1, 2)));
+        storage.saveContent(BOOK_URL, 0, "第一章正文");
+        storage.saveContent(BOOK_URL, 1, "第二章正文");
+        storage.saveContent(BOOK_URL, 2, "第三章正文");
+
+        // 在第二章前插入一章，原第二、三章后移
+        storage.saveChapters(BOOK_URL, snapshot(List.of(0, 9, 1, 2)));
+
+        assertEquals("第一章正文", storage.loadContent(BOOK_URL, 0));
+        assertFalse("索引 1 已是另一章，不应返回旧正文", storage.hasContent(BOOK_URL, 1));
+        assertNull(storage.loadContent(BOOK_URL, 2));
+        assertFalse(storage.hasContent(BOOK_URL, 3));
+    }
+
+    @Test
+    public void removedChaptersAreClearedAfterTocUpdate() throws IOException {
+        storage.saveChapters(BOOK_URL, snapshot(List.of(0, 1, 2)));
+        storage.saveContent(BOOK_URL, 2, "第三章正文");
+
+        storage.saveChapters(BOOK_URL, snapshot(List.of(0, 1)));
+        storage.saveChapters(BOOK_URL, snapshot(List.of(0, 1, 5)));
+
+        assertFalse(storage.hasContent(BOOK_URL, 2));
+    }
+
+    @Test
+    public void deletedBookIsNoLongerReadable() throws IOException {
+        storage.saveChapters(BOOK_URL, snapshot(List.of(0, 1)));
+        storage.saveContent(BOOK_URL, 0, "第一章正文");
+
+        storage.delete(BOOK_URL);
+
+        assertNull(storage.loadChapters(BOOK_URL));
+        assertFalse(storage.hasContent(BOOK_URL, 0));
+        assertNull(storage.loadContent(BOOK_URL, 0));
+        try (Stream<Path> files = Files.list(folder.getRoot().toPath())) {
+            assertTrue(files.noneMatch(Files::isRegularFile));
+        }
+
+        // 删除后可以重新下载
+        storage.saveChapters(BOOK_URL, snapshot(List.of(0, 1)));
+        assertFalse(storage.hasContent(BOOK_URL, 0));
+        storage.saveContent(BOOK_URL, 0, "重新下载");
+        assertEquals("重新下载", storage.loadContent(BOOK_URL, 0));
+    }
+
+    /**
+     * 按给定的章节编号依次构建目录（编号决定章节 url 和标题）
+     */
+    private static TocSnapshotStorage.Snapshot snapshot(List<Integer> chapterIds) {
+        ChapterIndex.Builder builder = new ChapterIndex.Builder().bookUrl(BOOK_URL);
+        for (int i = 0; i < chapterIds.size(); i++) {
+            int id = chapterIds.get(i);
+            builder.begin()
+                    .text(ChapterIndex.TITLE, LegadoFixtures.chapterTitle(id))
+                    .text(ChapterIndex.URL, BOOK_URL + id + ".html")
+                    .index(i)
+                    .end();
+        }
+        return new TocSnapshotStorage.Snapshot(null, builder.build());
+    }
+}
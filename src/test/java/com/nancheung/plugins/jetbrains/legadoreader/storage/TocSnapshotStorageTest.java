@@ -0,0 +1,61 @@
+package com.nancheung.plugins.jetbrains.legadoreader.storage;
+
+import com.nancheung.plugins.jetbrains.legadoreader.fixture.LegadoFixtures;
+import com.nancheung.plugins.jetbrains.legadoreader.model.ChapterIndex;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.*;
+
+/**
+ * 章节目录快照存储测试
+ *
+ * @author NanCheung
+ */
+public class TocSnapshotStorageTest {
+
+    private static final String BOOK_URL = LegadoFixtures.bookUrl(1);
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void sameBookOnDifferentServersKeepsSeparateSnapshots() {
+        TocSnapshotStorage storage = new TocSnapshotStorage(folder.getRoot().toPath());
+        storage.save("http://192.168.1.2:1122", BOOK_URL, snapshot(3));
+        storage.save("http://192.168.1.3:1122", BOOK_URL, snapshot(5));
+
+        assertEquals(3, storage.load("http://192.168.1.2:1122", BOOK_URL).chapters().size());
+        assertEquals(5, storage.load("http://192.168.1.3:1122", BOOK_URL).chapters().size());
+        assertNull(storage.load(null, BOOK_URL));
+    }
+
+    @Test
+    public void failedWriteLeavesNoTempFile() throws IOException {
+        Path dir = folder.getRoot().toPath();
+        TocSnapshotStorage storage = new TocSnapshotStorage(dir);
+        // 目标位置是非空目录，替换失败
+        Path target = storage.snapshotFile(null, BOOK_URL);
+        Files.createDirectories(target.resolve("occupied"));
+
+        storage.save(null, BOOK_URL, snapshot(3));
+
+        try (Stream<Path> files = Files.list(dir)) {
+            assertTrue(files.noneMatch(path -> path.getFileName().toString().endsWith(".tmp")));
+        }
+    }
+
+    private static TocSnapshotStorage.Snapshot snapshot(int chapterCount) {
+        ChapterIndex.Builder builder = new ChapterIndex.Builder().bookUrl(BOOK_URL);
+        for (int i = 0; i < chapterCount; i++) {
+            builder.begin().text(ChapterIndex.TITLE, LegadoFixtures.chapterTitle(i)).end();
+        }
+        return new TocSnapshotStorage.Snapshot(null, builder.build());
+    }
+}
@@ -0,0 +1,141 @@
+package com.nancheung.plugins.jetbrains.legadoreader.toolwindow;
+
+import cn.hutool.core.lang.TypeReference;
+import cn.hutool.json.JSONUtil;
+import com.nancheung.plugins.jetbrains.legadoreader.api.dto.BookDTO;
+import com.nancheung.plugins.jetbrains.legadoreader.api.dto.R;
+import com.nancheung.plugins.jetbrains.legadoreader.fixture.LegadoFixtures;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.swing.event.TableModelEvent;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * 书架表格模型测试
+ * 检查刷新时只对变化的行发出事件，且刷新后的行与新列表一致
+ *
+ * @author NanCheung
+ */
+public class BookshelfTableModelTest {
+
+    private static final int BOOK_COUNT = 20;
+
+    private BookshelfTableModel model;
+
+    private final List<TableModelEvent> events = new ArrayList<>();
+
+    @Before
+    public void setUp() {
+        model = new BookshelfTableModel();
+        model.update(books());
+        model.addTableModelListener(events::add);
+    }
+
+    @Test
+    public void unchangedBookshelfFiresNoEvents() {
+        List<BookDTO> books = books();
+        model.update(books);
+
+        assertTrue(events.isEmpty());
+        assertRows(books);
+    }
+
+    @Test
+    public void changedBookFiresSingleRowUpdate() {
+        List<BookDTO> books = books();
+        books.get(3).setDurChapterTitle("第9999章 新的进度");
+        model.update(books);
+
+        assertEquals(1, events.size());
+        assertEvent(events.get(0), TableModelEvent.UPDATE, 3, 3);
+        assertEquals("第9999章 新的进度", model.getValueAt(3, 1));
+        assertRows(books);
+    }
+
+    @Test
+    public void removedBooksFireDeletes() {
+        List<BookDTO> books = books();
+        books.subList(5, 8).clear();
+        books.remove(0);
+        model.update(books);
+
+        // 从后向前删除，连续的行合并为一个事件
+        assertEquals(2, events.size());
+        assertEvent(events.get(0), TableModelEvent.DELETE, 5, 7);
+        assertEvent(events.get(1), TableModelEvent.DELETE, 0, 0);
+        assertRows(books);
+    }
+
+    @Test
+    public void newBookIsInsertedInPlace() {
+        List<BookDTO> books = books();
+        BookDTO added = books().get(0);
+        added.setName("新加入书架的书");
+        books.add(2, added);
+        model.update(books);
+
+        assertEquals(1, events.size());
+        assertEvent(events.get(0), TableModelEvent.INSERT, 2, 2);
+        assertRows(books);
+    }
+
+    @Test
+    public void movedBookKeepsOtherRowsUntouched() {
+        List<BookDTO> books = books();
+        // 最近阅读的书移到最前
+        books.add(0, books.remove(10));
+        model.update(books);
+
+        assertRows(books);
+        for (TableModelEvent event : events) {
+            assertNotEquals("只移动行，不更新内容", TableModelEvent.UPDATE, event.getType());
+        }
+    }
+
+    @Test
+    public void reversedBookshelfMatchesNewOrder() {
+        List<BookDTO> books = books();
+        Collections.reverse(books);
+        model.update(books);
+
+        assertRows(books);
+    }
+
+    @Test
+    public void duplicateKeysDoNotLeaveExtraRows() {
+        List<BookDTO> books = books().subList(0, 3);
+        List<BookDTO> withDuplicate = new ArrayList<>(books);
+        withDuplicate.add(books().get(1));
+        model.update(withDuplicate);
+
+        assertEquals(withDuplicate.size(), model.getRowCount());
+        assertRows(withDuplicate);
+    }
+
+    /**
+     * 每次调用都解析出新的对象，修改不会影响模型中已有的行
+     */
+    private static List<BookDTO> books() {
+        R<List<BookDTO>> r = JSONUtil.toBean(LegadoFixtures.bookshelfJson(BOOK_COUNT), new TypeReference<>() {
+        }, true);
+        return new ArrayList<>(r.getData());
+    }
+
+    private void assertRows(List<BookDTO> expected) {
+        assertEquals(expected.size(), model.getRowCount());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals("row " + i, expected.get(i), model.getBook(i));
+        }
+    }
+
+    private static void assertEvent(TableModelEvent event, int type, int firstRow, int lastRow) {
+        assertEquals(type, event.getType());
+        assertEquals(firstRow, event.getFirstRow());
+        assertEquals(lastRow, event.getLastRow());
+    }
+}
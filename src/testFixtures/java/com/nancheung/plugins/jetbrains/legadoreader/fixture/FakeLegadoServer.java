@@ -0,0 +1,345 @@
+package com.nancheung.plugins.jetbrains.legadoreader.fixture;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import lombok.Builder;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 本地 Legado 服务模拟器
+ * 基于 JDK 内置 HttpServer 实现 /getBookshelf、/getChapterList、/getBookContent 和 /saveBookProgress，
+ * 数据来自 {@link LegadoFixtures}，并可注入延迟、抖动、带宽限制和错误率，用于离线测量端到端延迟
+ * <p>
+ * 用法：
+ * <pre>{@code
+ * try (FakeLegadoServer server = FakeLegadoServer.start(FakeLegadoServer.Library.builder().build())) {
+ *     server.setProfile(FakeLegadoServer.NetworkProfile.builder().latencyMillis(80).jitterMillis(40).build());
+ *     String address = server.address(); // 如 http://127.0.0.1:51234
+ * }
+ * }</pre>
+ *
+ * @author NanCheung
+ */
+@Slf4j
+public final class FakeLegadoServer implements AutoCloseable {
+
+    /**
+     * 书籍数据
+     *
+     * @param bookCount      书籍数
+     * @param chapterCount   每本书的章节数
+     * @param chapterChars   每章正文的字符数
+     */
+    @Builder
+    public record Library(int bookCount, int chapterCount, int chapterChars) {
+
+        /**
+         * 默认值：20 本书，每本 1000 章，每章约 8000 字
+         */
+        public Library {
+            bookCount = bookCount > 0 ? bookCount : 20;
+            chapterCount = chapterCount > 0 ? chapterCount : 1000;
+            chapterChars = chapterChars > 0 ? chapterChars : 8000;
+        }
+    }
+
+    /**
+     * 网络模拟参数
+     *
+     * @param latencyMillis        每个请求的固定延迟（毫秒）
+     * @param jitterMillis         在固定延迟上随机增加的最大延迟（毫秒）
+     * @param bytesPerSecond       响应带宽（字节/秒），0 表示不限制
+     * @param errorRate            返回 HTTP 500 的概率（0 ~ 1）
+     * @param failureResponseRate  返回 isSuccess=false 的概率（0 ~ 1）
+     */
+    @Builder
+    public record NetworkProfile(long latencyMillis, long jitterMillis, long bytesPerSecond,
+                                 double errorRate, double failureResponseRate) {
+
+        /**
+         * 不注入任何延迟和错误
+         */
+        public static final NetworkProfile IDEAL = new NetworkProfile(0, 0, 0, 0, 0);
+    }
+
+    /**
+     * 带宽限制时每次写出的字节数
+     */
+    private static final int THROTTLE_CHUNK_BYTES = 4096;
+
+    private final HttpServer server;
+
+    private final ExecutorService executor;
+
+    private final Library library;
+
+    /**
+     * 当前网络模拟参数，可在运行中修改
+     */
+    private volatile NetworkProfile profile = NetworkProfile.IDEAL;
+
+    /**
+     * 章节目录响应缓存
+     * key: 书籍序号
+     */
+    private final Map<Integer, byte[]> chapterListCache = new ConcurrentHashMap<>();
+
+    /**
+     * 书架响应缓存
+     */
+    private volatile byte[] bookshelfCache;
+
+    /**
+     * 每个接口收到的请求数
+     */
+    private final Map<String, AtomicLong> requestCounts = new ConcurrentHashMap<>();
+
+    /**
+     * 收到的阅读进度（请求体 JSON，按收到的顺序）
+     */
+    private final List<String> savedProgress = new CopyOnWriteArrayList<>();
+
+    private FakeLegadoServer(Library library) throws IOException {
+        this.library = library;
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        this.executor = Executors.newCachedThreadPool(r -> {
+            Thread thread = new Thread(r, "FakeLegadoServer");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        server.createContext("/getBookshelf", exchange -> handle(exchange, this::bookshelf));
+        server.createContext("/getChapterList", exchange -> handle(exchange, this::chapterList));
+        server.createContext("/getBookContent", exchange -> handle(exchange, this::bookContent));
+        server.createContext("/saveBookProgress", exchange -> handle(exchange, this::saveBookProgress));
+        server.setExecutor(executor);
+    }
+
+    /**
+     * 在随机端口上启动模拟器
+     *
+     * @param library 书籍数据
+     * @return 已启动的模拟器
+     * @throws IOException 端口绑定失败
+     */
+    public static FakeLegadoServer start(Library library) throws IOException {
+        FakeLegadoServer fake = new FakeLegadoServer(library);
+        fake.server.start();
+        log.info("FakeLegadoServer 已启动: {}", fake.address());
+        return fake;
+    }
+
+    /**
+     * 获取服务地址（与 AddressHistoryStorage 中保存的格式一致）
+     *
+     * @return 如 http://127.0.0.1:51234
+     */
+    public String address() {
+        InetSocketAddress address = server.getAddress();
+        return "http://" + address.getHostString() + ":" + address.getPort();
+    }
+
+    /**
+     * 修改网络模拟参数，立即对后续请求生效
+     *
+     * @param profile 网络模拟参数
+     */
+    public void setProfile(NetworkProfile profile) {
+        this.profile = Objects.requireNonNull(profile);
+    }
+
+    /**
+     * 获取第 i 本书的 url
+     *
+     * @param bookIndex 书籍序号
+     * @return 书籍 url
+     */
+    public String bookUrl(int bookIndex) {
+        return LegadoFixtures.bookUrl(bookIndex);
+    }
+
+    /**
+     * 获取接口收到的请求数
+     *
+     * @param path 接口路径，如 /getBookContent
+     * @return 请求数
+     */
+    public long requestCount(String path) {
+        AtomicLong count = requestCounts.get(path);
+        return count != null ? count.get() : 0;
+    }
+
+    /**
+     * 获取收到的阅读进度
+     *
+     * @return 请求体 JSON 列表（按收到的顺序）
+     */
+    public List<String> savedProgress() {
+        return List.copyOf(savedProgress);
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+        log.info("FakeLegadoServer 已关闭");
+    }
+
+    /**
+     * 接口处理逻辑
+     */
+    @FunctionalInterface
+    private interface Endpoint {
+
+        /**
+         * 生成响应正文
+         *
+         * @param query   查询参数
+         * @param body    请求正文
+         * @return 响应 JSON（UTF-8）
+         */
+        byte[] respond(Map<String, String> query, byte[] body);
+    }
+
+    private void handle(HttpExchange exchange, Endpoint endpoint) throws IOException {
+        String path = exchange.getRequestURI().getPath();
+        requestCounts.computeIfAbsent(path, p -> new AtomicLong()).incrementAndGet();
+        NetworkProfile current = profile;
+
+        try (exchange) {
+            byte[] requestBody;
+            try (InputStream in = exchange.getRequestBody()) {
+                requestBody = in.readAllBytes();
+            }
+
+            sleep(current.latencyMillis() + (current.jitterMillis() > 0 ? ThreadLocalRandom.current().nextLong(current.jitterMillis() + 1) : 0));
+
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            if (random.nextDouble() < current.errorRate()) {
+                send(exchange, 500, "Injected error".getBytes(StandardCharsets.UTF_8), current);
+                return;
+            }
+
+            byte[] response;
+            if (random.nextDouble() < current.failureResponseRate()) {
+                response = LegadoFixtures.failure("Injected failure").getBytes(StandardCharsets.UTF_8);
+            } else {
+                try {
+                    response = endpoint.respond(parseQuery(exchange.getRequestURI().getRawQuery()), requestBody);
+                } catch (IllegalArgumentException e) {
+                    response = LegadoFixtures.failure(e.getMessage()).getBytes(StandardCharsets.UTF_8);
+                }
+            }
+
+            exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+            send(exchange, 200, response, current);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private byte[] bookshelf(Map<String, String> query, byte[] body) {
+        byte[] cached = bookshelfCache;
+        if (cached == null) {
+            cached = LegadoFixtures.bookshelfJson(library.bookCount()).getBytes(StandardCharsets.UTF_8);
+            bookshelfCache = cached;
+        }
+        return cached;
+    }
+
+    private byte[] chapterList(Map<String, String> query, byte[] body) {
+        int bookIndex = bookIndex(query.get("url"));
+        return chapterListCache.computeIfAbsent(bookIndex, i ->
+                LegadoFixtures.chapterListJson(bookUrl(i), library.chapterCount()).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private byte[] bookContent(Map<String, String> query, byte[] body) {
+        int bookIndex = bookIndex(query.get("url"));
+        int chapterIndex = parseInt(query.get("index"), "index");
+        if (chapterIndex < 0 || chapterIndex >= library.chapterCount()) {
+            throw new IllegalArgumentException("章节索引越界: " + chapterIndex);
+        }
+
+        String content = LegadoFixtures.chapterContent(bookIndex * 100_000 + chapterIndex, library.chapterChars());
+        return LegadoFixtures.bookContentJson(content).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private byte[] saveBookProgress(Map<String, String> query, byte[] body) {
+        savedProgress.add(new String(body, StandardCharsets.UTF_8));
+        return LegadoFixtures.success("\"\"").getBytes(StandardCharsets.UTF_8);
+    }
+
+    private int bookIndex(String bookUrl) {
+        for (int i = 0; i < library.bookCount(); i++) {
+            if (bookUrl(i).equals(bookUrl)) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("未找到书籍: " + bookUrl);
+    }
+
+    /**
+     * 写出响应，按带宽限制分块写出
+     */
+    private void send(HttpExchange exchange, int status, byte[] body, NetworkProfile current) throws IOException, InterruptedException {
+        exchange.sendResponseHeaders(status, body.length);
+
+        try (OutputStream out = exchange.getResponseBody()) {
+            if (current.bytesPerSecond() <= 0) {
+                out.write(body);
+                return;
+            }
+
+            for (int offset = 0; offset < body.length; offset += THROTTLE_CHUNK_BYTES) {
+                int length = Math.min(THROTTLE_CHUNK_BYTES, body.length - offset);
+                out.write(body, offset, length);
+                out.flush();
+                sleep(length * 1000L / current.bytesPerSecond());
+            }
+        }
+    }
+
+    private static void sleep(long millis) throws InterruptedException {
+        if (millis > 0) {
+            Thread.sleep(millis);
+        }
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery) {
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return Map.of();
+        }
+
+        Map<String, String> query = new HashMap<>();
+        for (String pair : rawQuery.split("&")) {
+            int eq = pair.indexOf('=');
+            String name = URLDecoder.decode(eq >= 0 ? pair.substring(0, eq) : pair, StandardCharsets.UTF_8);
+            String value = eq >= 0 ? URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8) : "";
+            query.put(name, value);
+        }
+        return query;
+    }
+
+    private static int parseInt(String value, String name) {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("参数 " + name + " 无效: " + value);
+        }
+    }
+}
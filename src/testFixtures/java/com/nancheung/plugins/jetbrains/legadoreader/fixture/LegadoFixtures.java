@@ -0,0 +1,218 @@
+package com.nancheung.plugins.jetbrains.legadoreader.fixture;
+
+import lombok.experimental.UtilityClass;
+
+import java.util.SplittableRandom;
+
+/**
+ * Legado 接口测试数据
+ * 按固定种子生成与真实服务端响应结构一致的 JSON，同样的参数总是得到同样的结果
+ *
+ * @author NanCheung
+ */
+@UtilityClass
+public class LegadoFixtures {
+
+    /**
+     * 常用汉字，用于生成正文
+     */
+    private final String HANZI = "的一是在不了有和人这中大为上个国我以要他时来用们生到作地于出就分对成会可主发年动同工也能下过子说产种面而方后多定行学法所民得经十三之进着等部度家电力里如水化高自二理起小物现实加量都两体制机当使点从业本去把性好应开它合还因由其些然前外天政四日那社义事平形相全表间样与关各重新线内数正心反你明看原又么利比或但质气第向道命此变条只没结解问意建月公无系军很情者最立代想已通并提直题党程展五果料象员革位入常文总次品式活设及管特件长求老头基资边流路级少图山统接知较将组见计别她手角期根论运农指几九区强放决西被干做必战先回则任取据处队南给色光门即保治北造百规热领七海口东导器压志世金增争济阶油思术极交受联什认六共权收证改清己美再采转更单风切打白教速花带安场身车例真务具万每目至达走积示议声报斗完类八离华名确才科张信马节话米整空元况今集温传土许步群广石记需段研界拉林律叫且究观越织装影算低持音众书布复容儿须际商非验连断深难近矿千周委素技备半办青省列习响约支般史感劳便团往酸历市克何除消构府称太准精值号率族维划选标写存候毛亲快效斯院查江型眼王按格养易置派层片始却专状育厂京识适属圆包火住调满县局照参红细引听该铁价严";
+
+    /**
+     * 常见的 emoji（均为代理对）
+     */
+    private final String[] EMOJI = {"😀", "😂", "🤔", "👍", "🎉", "🔥", "💡", "📚"};
+
+    /**
+     * 生成章节正文
+     * 由若干段中文组成，每段以全角空格缩进，夹杂少量标点和 emoji
+     *
+     * @param chapterIndex 章节索引（作为随机种子）
+     * @param targetChars  目标字符数
+     * @return 章节正文
+     */
+    public String chapterContent(int chapterIndex, int targetChars) {
+        SplittableRandom random = new SplittableRandom(chapterIndex * 31L + 7);
+        StringBuilder sb = new StringBuilder(targetChars + 64);
+
+        while (sb.length() < targetChars) {
+            sb.append("　　");
+            int paragraphLength = 40 + random.nextInt(160);
+            for (int i = 0; i < paragraphLength; i++) {
+                int roll = random.nextInt(100);
+                if (roll < 2) {
+                    sb.append(EMOJI[random.nextInt(EMOJI.length)]);
+                } else if (roll < 10) {
+                    sb.append(roll < 6 ? '，' : '。');
+                } else {
+                    sb.append(HANZI.charAt(random.nextInt(HANZI.length())));
+                }
+            }
+            sb.append('\n');
+        }
+
+        return sb.toString();
+    }
+
+    /**
+     * 生成书籍 url
+     *
+     * @param bookIndex 书籍序号
+     * @return 书籍 url
+     */
+    public String bookUrl(int bookIndex) {
+        return "https://www.example.com/book/" + (100000 + bookIndex) + "/";
+    }
+
+    /**
+     * 生成章节标题
+     *
+     * @param chapterIndex 章节索引
+     * @return 章节标题
+     */
+    public String chapterTitle(int chapterIndex) {
+        SplittableRandom random = new SplittableRandom(chapterIndex);
+        StringBuilder sb = new StringBuilder("第").append(chapterIndex + 1).append("章 ");
+        int length = 2 + random.nextInt(8);
+        for (int i = 0; i < length; i++) {
+            sb.append(HANZI.charAt(random.nextInt(HANZI.length())));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * 生成 /getChapterList 响应
+     *
+     * @param bookUrl      书籍 url
+     * @param chapterCount 章节数
+     * @return 响应 JSON
+     */
+    public String chapterListJson(String bookUrl, int chapterCount) {
+        StringBuilder sb = new StringBuilder(chapterCount * 220);
+        sb.append('[');
+        for (int i = 0; i < chapterCount; i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            boolean volume = i % 100 == 0;
+            sb.append("{\"url\":");
+            quote(sb, bookUrl + (200000 + i) + ".html");
+            sb.append(",\"title\":");
+            quote(sb, volume ? "第" + (i / 100 + 1) + "卷" : chapterTitle(i));
+            sb.append(",\"isVolume\":").append(volume);
+            sb.append(",\"baseUrl\":");
+            quote(sb, bookUrl);
+            sb.append(",\"bookUrl\":");
+            quote(sb, bookUrl);
+            sb.append(",\"index\":").append(i);
+            sb.append(",\"isVip\":false,\"isPay\":false");
+            sb.append(",\"tag\":");
+            quote(sb, "2024-0" + (1 + i % 9) + "-1" + (i % 10));
+            sb.append('}');
+        }
+        sb.append(']');
+        return success(sb.toString());
+    }
+
+    /**
+     * 生成 /getBookshelf 响应
+     *
+     * @param bookCount 书籍数
+     * @return 响应 JSON
+     */
+    public String bookshelfJson(int bookCount) {
+        StringBuilder sb = new StringBuilder(bookCount * 700);
+        sb.append('[');
+        for (int i = 0; i < bookCount; i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            SplittableRandom random = new SplittableRandom(i);
+            int totalChapterNum = 50 + random.nextInt(5000);
+            int durChapterIndex = random.nextInt(totalChapterNum);
+
+            sb.append("{\"bookUrl\":");
+            quote(sb, bookUrl(i));
+            sb.append(",\"tocUrl\":");
+            quote(sb, bookUrl(i) + "catalog");
+            sb.append(",\"origin\":\"https://www.example.com\",\"originName\":\"示例书源\"");
+            sb.append(",\"name\":");
+            quote(sb, "示例书籍" + i);
+            sb.append(",\"author\":");
+            quote(sb, "作者" + (i % 97));
+            sb.append(",\"kind\":\"玄幻,连载\",\"coverUrl\":");
+            quote(sb, bookUrl(i) + "cover.jpg");
+            sb.append(",\"intro\":");
+            quote(sb, chapterContent(i, 120).trim());
+            sb.append(",\"type\":0,\"group\":0");
+            sb.append(",\"latestChapterTitle\":");
+            quote(sb, chapterTitle(totalChapterNum - 1));
+            sb.append(",\"latestChapterTime\":").append(1_700_000_000_000L + i * 60_000L);
+            sb.append(",\"lastCheckTime\":").append(1_700_000_000_000L + i * 30_000L);
+            sb.append(",\"lastCheckCount\":0");
+            sb.append(",\"totalChapterNum\":").append(totalChapterNum);
+            sb.append(",\"durChapterTitle\":");
+            quote(sb, chapterTitle(durChapterIndex));
+            sb.append(",\"durChapterIndex\":").append(durChapterIndex);
+            sb.append(",\"durChapterPos\":").append(random.nextInt(3000));
+            sb.append(",\"durChapterTime\":").append(1_700_000_000_000L + i * 90_000L);
+            sb.append(",\"wordCount\":\"").append(totalChapterNum * 3).append("千字\"");
+            sb.append(",\"canUpdate\":true,\"order\":").append(i);
+            sb.append(",\"originOrder\":0");
+            sb.append(",\"readConfig\":{\"reverseToc\":false,\"reSegment\":false,\"splitLongChapter\":true,\"delTag\":0}");
+            sb.append('}');
+        }
+        sb.append(']');
+        return success(sb.toString());
+    }
+
+    /**
+     * 生成 /getBookContent 响应
+     *
+     * @param content 章节正文
+     * @return 响应 JSON
+     */
+    public String bookContentJson(String content) {
+        StringBuilder sb = new StringBuilder(content.length() + 64);
+        quote(sb, content);
+        return success(sb.toString());
+    }
+
+    /**
+     * 生成成功响应
+     *
+     * @param dataJson data 字段的 JSON
+     * @return 响应 JSON
+     */
+    public String success(String dataJson) {
+        return "{\"isSuccess\":true,\"errorMsg\":\"\",\"data\":" + dataJson + "}";
+    }
+
+    /**
+     * 生成失败响应
+     *
+     * @param errorMsg 错误信息
+     * @return 响应 JSON
+     */
+    public String failure(String errorMsg) {
+        StringBuilder sb = new StringBuilder("{\"isSuccess\":false,\"errorMsg\":");
+        quote(sb, errorMsg);
+        return sb.append('}').toString();
+    }
+
+    private void quote(StringBuilder sb, String text) {
+        sb.append('"');
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '"' -> sb.append("\\\"");
+                case '\\' -> sb.append("\\\\");
+                case '\n' -> sb.append("\\n");
+                case '\r' -> sb.append("\\r");
+                case '\t' -> sb.append("\\t");
+                default -> sb.append(c);
+            }
+        }
+        sb.append('"');
+    }
+}